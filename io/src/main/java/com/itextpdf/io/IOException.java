@@ -187,6 +187,7 @@ public class IOException extends RuntimeException {
     public static final String UnknownIOException = "Unknown I/O exception.";
     public static final String UnsupportedBoxSizeEqEq0 = "Unsupported box size == 0.";
     public static final String UnsupportedEncodingException = "Unsupported encoding exception.";
+    public static final String WriteAfterDeflaterOutputStreamHasBeenFinished = "Write after the deflater output stream has been finished.";
     @Deprecated
     public static final String WrongNumberOfComponentsInIccProfile = "ICC profile contains {0} components the image data contains {1} components.";
     public static final String IccProfileContains0ComponentsWhileImageDataContains1Components = "ICC profile contains {0} components, while the image data contains {1} components.";
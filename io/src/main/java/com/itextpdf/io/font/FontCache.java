@@ -61,7 +61,6 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class FontCache {
 
@@ -80,7 +79,7 @@ public class FontCache {
     private static final String W_PROP = "W";
     private static final String W2_PROP = "W2";
 
-    private static Map<String, FontProgram> fontCache = new ConcurrentHashMap<>();
+    private static volatile IFontProgramCache fontProgramCache = new FontProgramCache();
 
     static {
         try {
@@ -162,19 +161,35 @@ public class FontCache {
     }
 
     public static FontProgram getFont(String fontName) {
-        String key = getFontCacheKey(fontName);
-        FontProgram font = null;
-        return fontCache.get(key);
+        return fontProgramCache.get(getFontCacheKey(fontName));
     }
 
     public static FontProgram saveFont(FontProgram font, String fontName) {
-        FontProgram fontFound = getFont(fontName);
-        if (fontFound != null) {
-            return fontFound;
+        return fontProgramCache.put(getFontCacheKey(fontName), font);
+    }
+
+    /**
+     * Gets the cache of the font programs, which are created with {@code cached} flag.
+     *
+     * @return the font program cache.
+     */
+    public static IFontProgramCache getFontProgramCache() {
+        return fontProgramCache;
+    }
+
+    /**
+     * Sets the cache of the font programs, which are created with {@code cached} flag.
+     * By default a {@link FontProgramCache} without a weight limit is used, so the cached font programs are never evicted.
+     * Use a {@link FontProgramCache} with a maximum weight to bound the memory occupied by the cached fonts,
+     * e.g. in long-running applications which use many different fonts.
+     *
+     * @param cache the font program cache, not {@code null}.
+     */
+    public static void setFontProgramCache(IFontProgramCache cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("Font program cache must not be null");
         }
-        String key = getFontCacheKey(fontName);
-        fontCache.put(key, font);
-        return font;
+        fontProgramCache = cache;
     }
 
     private static void loadRegistry() throws java.io.IOException {
@@ -46,9 +46,9 @@ package com.itextpdf.io.font;
 import com.itextpdf.io.IOException;
 import com.itextpdf.io.font.otf.Glyph;
 import com.itextpdf.io.util.FileUtil;
+import com.itextpdf.io.util.IntObjectMap;
 
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.Map;
 
 public abstract class FontProgram implements Serializable {
@@ -60,8 +60,9 @@ public abstract class FontProgram implements Serializable {
 
     // In case Type1: char code to glyph.
     // In case TrueType: glyph index to glyph.
-    protected Map<Integer, Glyph> codeToGlyph = new HashMap<>();
-    protected Map<Integer, Glyph> unicodeToGlyph = new HashMap<>();
+    // The maps are IntObjectMap instances, unless they are replaced by a subclass.
+    protected Map<Integer, Glyph> codeToGlyph = new IntObjectMap<>();
+    protected Map<Integer, Glyph> unicodeToGlyph = new IntObjectMap<>();
     protected boolean isFontSpecific;
 
     protected FontNames fontNames = new FontNames();
@@ -82,6 +83,26 @@ public abstract class FontProgram implements Serializable {
         return Math.max(codeToGlyph.size(), unicodeToGlyph.size());
     }
 
+    /**
+     * Gets the length of the font file data, which is kept in memory by this font program.
+     * It is used to estimate the memory footprint of the cached font programs.
+     *
+     * @return the length of the font data in bytes, or 0 if the font data is not kept in memory.
+     */
+    long getFontDataLength() {
+        return 0;
+    }
+
+    /**
+     * Gets the maximum total length of the font subsets, which could be cached by this font program.
+     * It is used to estimate the memory footprint of the cached font programs.
+     *
+     * @return the maximum length of the cached subsets in bytes, or 0 if subsets are not cached.
+     */
+    long getMaxSubsetCacheLength() {
+        return 0;
+    }
+
     public FontNames getFontNames() {
         return fontNames;
     }
@@ -131,12 +152,12 @@ public abstract class FontProgram implements Serializable {
     }
 
     public Glyph getGlyph(int unicode) {
-        return unicodeToGlyph.get(unicode);
+        return getGlyph(unicodeToGlyph, unicode);
     }
 
     // char code in case Type1 or index in case OpenType
     public Glyph getGlyphByCode(int charCode) {
-        return codeToGlyph.get(charCode);
+        return getGlyph(codeToGlyph, charCode);
     }
 
     public boolean hasKernPairs() {
@@ -151,7 +172,7 @@ public abstract class FontProgram implements Serializable {
      * @return the kerning to be applied
      */
     public int getKerning(int first, int second) {
-        return getKerning(unicodeToGlyph.get(first), unicodeToGlyph.get(second));
+        return getKerning(getGlyph(first), getGlyph(second));
     }
 
     /**
@@ -291,4 +312,9 @@ public abstract class FontProgram implements Serializable {
             codeToGlyph.put(space.getCode(), space);
         }
     }
+
+    private static Glyph getGlyph(Map<Integer, Glyph> glyphs, int key) {
+        // looks the glyph up without boxing the key
+        return glyphs instanceof IntObjectMap ? ((IntObjectMap<Glyph>) glyphs).get(key) : glyphs.get(key);
+    }
 }
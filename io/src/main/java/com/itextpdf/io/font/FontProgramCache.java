@@ -0,0 +1,263 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The default {@link IFontProgramCache} implementation. Font programs are kept in the least recently used order
+ * and evicted when their total estimated weight, i.e. the approximate number of bytes they occupy in memory,
+ * exceeds the maximum weight of the cache.
+ * <p>
+ * Evicted font programs could be kept by soft references, so they are still returned by the cache
+ * until the garbage collector decides to reclaim them.
+ * <p>
+ * The cache is thread-safe. It also counts hits, misses and evictions, which could be used to tune its maximum weight.
+ */
+public class FontProgramCache implements IFontProgramCache {
+
+    private static final long FONT_PROGRAM_WEIGHT = 4096;
+    private static final long GLYPH_WEIGHT = 128;
+
+    private final long maxWeight;
+    private final boolean keepEvictedSoftly;
+
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, EvictedEntry> evictedEntries = new HashMap<>();
+    private final ReferenceQueue<FontProgram> referenceQueue = new ReferenceQueue<>();
+
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates the cache which never evicts font programs.
+     */
+    public FontProgramCache() {
+        this(Long.MAX_VALUE, false);
+    }
+
+    /**
+     * Creates the cache with the given maximum weight. Evicted font programs are kept by soft references.
+     *
+     * @param maxWeight the maximum total weight of the font programs, in bytes.
+     */
+    public FontProgramCache(long maxWeight) {
+        this(maxWeight, true);
+    }
+
+    /**
+     * Creates the cache with the given maximum weight.
+     *
+     * @param maxWeight         the maximum total weight of the font programs, in bytes.
+     * @param keepEvictedSoftly whether evicted font programs shall be kept by soft references.
+     */
+    public FontProgramCache(long maxWeight, boolean keepEvictedSoftly) {
+        this.maxWeight = maxWeight;
+        this.keepEvictedSoftly = keepEvictedSoftly;
+    }
+
+    @Override
+    public synchronized FontProgram get(String key) {
+        FontProgram fontProgram = getCached(key);
+        if (fontProgram != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return fontProgram;
+    }
+
+    @Override
+    public synchronized FontProgram put(String key, FontProgram fontProgram) {
+        FontProgram cached = getCached(key);
+        if (cached != null) {
+            return cached;
+        }
+        add(key, fontProgram, getWeight(fontProgram));
+        return fontProgram;
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        evictedEntries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Gets the number of font programs which are strongly kept by the cache.
+     *
+     * @return the number of font programs.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the total weight of the font programs which are strongly kept by the cache.
+     *
+     * @return the total weight, in bytes.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Gets the maximum total weight of the font programs, which are strongly kept by the cache.
+     *
+     * @return the maximum weight, in bytes.
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Gets the number of {@link #get(String)} calls which have returned a cached font program,
+     * including the ones restored from soft references.
+     *
+     * @return the number of hits.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of {@link #get(String)} calls which have not found a cached font program.
+     *
+     * @return the number of misses.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of font programs which have been evicted because the maximum weight has been exceeded.
+     *
+     * @return the number of evictions.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Estimates the number of bytes the font program occupies in memory, including the font subsets
+     * it could cache. The weight is estimated once, when the font program is added to the cache.
+     *
+     * @param fontProgram the font program.
+     * @return the weight of the font program, in bytes.
+     */
+    protected long getWeight(FontProgram fontProgram) {
+        return FONT_PROGRAM_WEIGHT + (long) fontProgram.countOfGlyphs() * GLYPH_WEIGHT + fontProgram.getFontDataLength()
+                + fontProgram.getMaxSubsetCacheLength();
+    }
+
+    private FontProgram getCached(String key) {
+        CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            return entry.fontProgram;
+        }
+        if (evictedEntries.isEmpty()) {
+            return null;
+        }
+        removeReclaimedEntries();
+        EvictedEntry evicted = evictedEntries.remove(key);
+        FontProgram fontProgram = evicted != null ? evicted.get() : null;
+        if (fontProgram != null) {
+            add(key, fontProgram, evicted.weight);
+        }
+        return fontProgram;
+    }
+
+    private void add(String key, FontProgram fontProgram, long fontProgramWeight) {
+        entries.put(key, new CacheEntry(fontProgram, fontProgramWeight));
+        weight += fontProgramWeight;
+        Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            Map.Entry<String, CacheEntry> eldest = iterator.next();
+            iterator.remove();
+            weight -= eldest.getValue().weight;
+            evictionCount++;
+            if (keepEvictedSoftly) {
+                evictedEntries.put(eldest.getKey(), new EvictedEntry(eldest.getKey(), eldest.getValue(), referenceQueue));
+            }
+        }
+    }
+
+    private void removeReclaimedEntries() {
+        EvictedEntry reclaimed;
+        while ((reclaimed = (EvictedEntry) referenceQueue.poll()) != null) {
+            if (evictedEntries.get(reclaimed.key) == reclaimed) {
+                evictedEntries.remove(reclaimed.key);
+            }
+        }
+    }
+
+    private static class CacheEntry {
+        final FontProgram fontProgram;
+        final long weight;
+
+        CacheEntry(FontProgram fontProgram, long weight) {
+            this.fontProgram = fontProgram;
+            this.weight = weight;
+        }
+    }
+
+    private static class EvictedEntry extends SoftReference<FontProgram> {
+        final String key;
+        final long weight;
+
+        EvictedEntry(String key, CacheEntry entry, ReferenceQueue<FontProgram> queue) {
+            super(entry.fontProgram, queue);
+            this.key = key;
+            this.weight = entry.weight;
+        }
+    }
+}
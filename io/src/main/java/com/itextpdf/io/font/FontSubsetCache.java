@@ -0,0 +1,170 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * A small cache of the font subsets created for a font program, which total length is limited. A subset is reused for the same requested glyph set,
+ * in which case it is identical to the subset which would be created again. Optionally, a subset is also reused
+ * for a glyph set which it covers, if it is not more than {@link #MAX_SUPERSET_RATIO} times larger:
+ * embedding a few unused glyphs is much cheaper than building the subset from the full font again,
+ * e.g. when many similar documents are created with the same cached font program.
+ */
+final class FontSubsetCache {
+
+    static final int TRUE_TYPE_SUBSET = 0;
+    static final int TRUE_TYPE_SUBSET_WITH_EXTRA_TABLES = 1;
+    static final int CFF_SUBSET = 2;
+
+    private static final int MAX_SUPERSET_RATIO = 2;
+
+    private final long maxLength;
+
+    // the most recently used entries go first
+    private final LinkedList<Entry> entries = new LinkedList<>();
+    private long length;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxLength the maximum total length of the cached subsets, in bytes.
+     */
+    FontSubsetCache(long maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Gets the cached subset, which contains all the given glyphs.
+     *
+     * @param kind          the kind of the subset.
+     * @param glyphs        the glyphs the subset shall contain.
+     * @param allowSuperset whether a subset created for more glyphs could be returned.
+     * @return the subset font data, or {@code null} if there is no suitable subset.
+     */
+    synchronized byte[] get(int kind, Collection<Integer> glyphs, boolean allowSuperset) {
+        BitSet requested = toBitSet(glyphs);
+        Entry suitable = null;
+        for (Entry entry : entries) {
+            if (entry.kind != kind) {
+                continue;
+            }
+            if (entry.requested.equals(requested)) {
+                suitable = entry;
+                break;
+            }
+            if (allowSuperset && entry.glyphCount <= glyphs.size() * MAX_SUPERSET_RATIO && entry.covers(requested)
+                    && (suitable == null || entry.glyphCount < suitable.glyphCount)) {
+                suitable = entry;
+            }
+        }
+        if (suitable == null) {
+            return null;
+        }
+        entries.remove(suitable);
+        entries.addFirst(suitable);
+        return suitable.subset;
+    }
+
+    /**
+     * Saves the subset. The least recently used subsets are evicted, if the cache is full.
+     * A subset longer than the maximum length of the cache is not saved.
+     *
+     * @param kind      the kind of the subset.
+     * @param requested the glyphs the subset has been requested for.
+     * @param glyphs    the glyphs the subset contains, i.e. the requested ones and the ones they are composed of.
+     * @param subset    the subset font data.
+     */
+    synchronized void put(int kind, Collection<Integer> requested, Collection<Integer> glyphs, byte[] subset) {
+        if (subset.length > maxLength) {
+            return;
+        }
+        BitSet requestedSet = toBitSet(requested);
+        for (Iterator<Entry> iterator = entries.iterator(); iterator.hasNext(); ) {
+            Entry entry = iterator.next();
+            if (entry.kind == kind && entry.requested.equals(requestedSet)) {
+                iterator.remove();
+                length -= entry.subset.length;
+            }
+        }
+        entries.addFirst(new Entry(kind, requestedSet, toBitSet(glyphs), subset));
+        length += subset.length;
+        while (length > maxLength) {
+            length -= entries.removeLast().subset.length;
+        }
+    }
+
+    private static BitSet toBitSet(Collection<Integer> glyphs) {
+        BitSet bitSet = new BitSet();
+        for (int glyph : glyphs) {
+            bitSet.set(glyph);
+        }
+        return bitSet;
+    }
+
+    private static class Entry {
+        final int kind;
+        final BitSet requested;
+        final BitSet glyphs;
+        final int glyphCount;
+        final byte[] subset;
+
+        Entry(int kind, BitSet requested, BitSet glyphs, byte[] subset) {
+            this.kind = kind;
+            this.requested = requested;
+            this.glyphs = glyphs;
+            this.glyphCount = glyphs.cardinality();
+            this.subset = subset;
+        }
+
+        boolean covers(BitSet requested) {
+            BitSet notCovered = (BitSet) requested.clone();
+            notCovered.andNot(glyphs);
+            return notCovered.isEmpty();
+        }
+    }
+}
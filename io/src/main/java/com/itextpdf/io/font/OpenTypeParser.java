@@ -219,6 +219,11 @@ class OpenTypeParser implements Serializable {
      */
     protected Map<String, int[]> tables;
 
+    /**
+     * The table directory and the 'loca' table read by the first subsetting. They are reused by the next ones.
+     */
+    private transient volatile TrueTypeFontSubset.GlyphLocations glyphLocations;
+
     public OpenTypeParser(byte[] ttf) throws java.io.IOException {
         raf = new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(ttf));
         process();
@@ -342,7 +347,15 @@ class OpenTypeParser implements Serializable {
     public byte[] getSubset(Set<Integer> glyphs, boolean subset) throws java.io.IOException {
         TrueTypeFontSubset sb = new TrueTypeFontSubset(fileName,
                 raf.createView(), glyphs, directoryOffset, true, !subset);
-        return sb.process();
+        TrueTypeFontSubset.GlyphLocations locations = glyphLocations;
+        if (locations != null) {
+            sb.setGlyphLocations(locations);
+        }
+        byte[] subsetBytes = sb.process();
+        if (locations == null) {
+            glyphLocations = sb.getGlyphLocations();
+        }
+        return subsetBytes;
     }
 
     /**
@@ -50,8 +50,10 @@ import com.itextpdf.io.font.otf.GlyphPositioningTableReader;
 import com.itextpdf.io.font.otf.GlyphSubstitutionTableReader;
 import com.itextpdf.io.font.otf.OpenTypeGdefTableReader;
 import com.itextpdf.io.util.IntHashtable;
+import com.itextpdf.io.util.IntObjectMap;
 
 import java.text.MessageFormat;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
@@ -73,17 +75,29 @@ public class TrueTypeFont extends FontProgram {
     private GlyphPositioningTableReader gposTable;
     private OpenTypeGdefTableReader gdefTable;
 
+    /**
+     * The tables which are not needed for the basic text rendering, i.e. 'kern', 'GDEF', 'GSUB' and 'GPOS',
+     * are read on the first use. The font program is usually cached and shared between documents,
+     * so the tables are read once and then used by all of them.
+     */
+    private volatile boolean kerningRead;
+    private volatile boolean openTypeTablesRead;
+
     /**
      * The map containing the kerning information. It represents the content of
      * table 'kern'. The key is an <CODE>Integer</CODE> where the top 16 bits
      * are the glyph number for the first character and the lower 16 bits are the
      * glyph number for the second character. The value is the amount of kerning in
      * normalized 1000 units as an <CODE>Integer</CODE>. This value is usually negative.
+     * The table is read on the first {@link #getKerning(Glyph, Glyph)} or {@link #hasKernPairs()} call.
      */
     protected IntHashtable kerning = new IntHashtable();
 
     private byte[] fontStreamBytes;
 
+    private transient volatile FontSubsetCache subsetCache;
+    private boolean supersetSubsetsReused;
+
     protected TrueTypeFont() {
     }
 
@@ -111,7 +125,7 @@ public class TrueTypeFont extends FontProgram {
 
     @Override
     public boolean hasKernPairs() {
-        return kerning.size() > 0;
+        return getKerningTable().size() > 0;
     }
 
     /**
@@ -126,7 +140,7 @@ public class TrueTypeFont extends FontProgram {
         if (first == null || second == null) {
             return 0;
         }
-        return kerning.get((first.getCode() << 16) + second.getCode());
+        return getKerningTable().get((first.getCode() << 16) + second.getCode());
     }
 
     public boolean isCff() {
@@ -148,6 +162,28 @@ public class TrueTypeFont extends FontProgram {
         }
     }
 
+    @Override
+    long getFontDataLength() {
+        if (fontStreamBytes != null) {
+            return fontStreamBytes.length;
+        }
+        // the font file is read into memory either way when the font is embedded
+        try {
+            return fontParser != null ? fontParser.raf.length() : 0;
+        } catch (java.io.IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The cached subsets take not more memory than the font data.
+     */
+    @Override
+    long getMaxSubsetCacheLength() {
+        return getFontDataLength();
+    }
+
     public byte[] getFontStreamBytes() {
         if (fontStreamBytes != null)
             return fontStreamBytes;
@@ -189,23 +225,86 @@ public class TrueTypeFont extends FontProgram {
     }
 
     public GlyphSubstitutionTableReader getGsubTable() {
+        ensureOpenTypeTablesRead();
         return gsubTable;
     }
 
     public GlyphPositioningTableReader getGposTable() {
+        ensureOpenTypeTablesRead();
         return gposTable;
     }
 
     public OpenTypeGdefTableReader getGdefTable() {
+        ensureOpenTypeTablesRead();
         return gdefTable;
     }
 
+    /**
+     * Checks whether a cached subset created for more glyphs could be returned by
+     * {@link #getSubset(Set, boolean)} and {@link #getCffSubset(Set)}.
+     *
+     * @return {@code true} if the subsets created for more glyphs are reused.
+     */
+    public boolean isSupersetSubsetsReused() {
+        return supersetSubsetsReused;
+    }
+
+    /**
+     * Sets whether a cached subset, which has been created for more glyphs, could be returned by
+     * {@link #getSubset(Set, boolean)} and {@link #getCffSubset(Set)}. Such subset is reused only if it is not
+     * much larger than the requested one. It makes subsetting almost free when many similar documents
+     * are created with the same cached font program, but the embedded font may then contain unused glyphs
+     * and depend on the documents created earlier. By default only the subsets created for the same glyphs are reused.
+     *
+     * @param supersetSubsetsReused {@code true} to reuse the subsets created for more glyphs.
+     */
+    public void setSupersetSubsetsReused(boolean supersetSubsetsReused) {
+        this.supersetSubsetsReused = supersetSubsetsReused;
+    }
+
+    /**
+     * Gets the font data, which contains only the given glyphs and the glyphs they are composed of.
+     * The created subsets are cached, so a subset created earlier for the same glyphs could be returned,
+     * see also {@link #setSupersetSubsetsReused(boolean)}. The returned array shall not be modified.
+     *
+     * @param glyphs the glyphs to be included into the subset. The set could be modified.
+     * @param subset if {@code false}, the name and post tables are also included into the subset.
+     * @return the subset font data.
+     */
     public byte[] getSubset(Set<Integer> glyphs, boolean subset) {
-        try {
-            return fontParser.getSubset(glyphs, subset);
-        } catch (java.io.IOException e) {
-            throw new IOException(IOException.IoException, e);
+        int kind = subset ? FontSubsetCache.TRUE_TYPE_SUBSET : FontSubsetCache.TRUE_TYPE_SUBSET_WITH_EXTRA_TABLES;
+        byte[] subsetBytes = getSubsetCache().get(kind, glyphs, supersetSubsetsReused);
+        if (subsetBytes == null) {
+            Set<Integer> requested = new HashSet<>(glyphs);
+            try {
+                subsetBytes = fontParser.getSubset(glyphs, subset);
+            } catch (java.io.IOException e) {
+                throw new IOException(IOException.IoException, e);
+            }
+            getSubsetCache().put(kind, requested, glyphs, subsetBytes);
+        }
+        return subsetBytes;
+    }
+
+    /**
+     * Gets the CFF data of the font, which contains only the given glyphs.
+     * Like {@link #getSubset(Set, boolean)}, the created subsets are cached. The returned array shall not be modified.
+     *
+     * @param glyphs the glyphs to be included into the subset.
+     * @return the subset CFF data.
+     */
+    public byte[] getCffSubset(Set<Integer> glyphs) {
+        byte[] subsetBytes = getSubsetCache().get(FontSubsetCache.CFF_SUBSET, glyphs, supersetSubsetsReused);
+        if (subsetBytes == null) {
+            Map<Integer, int[]> glyphsUsed = new LinkedHashMap<>();
+            for (int glyph : glyphs) {
+                glyphsUsed.put(glyph, null);
+            }
+            CFFFontSubset cff = new CFFFontSubset(getFontStreamBytes(), glyphsUsed);
+            subsetBytes = cff.Process(cff.getNames()[0]);
+            getSubsetCache().put(FontSubsetCache.CFF_SUBSET, glyphs, glyphs, subsetBytes);
         }
+        return subsetBytes;
     }
 
     protected void readGdefTable() throws java.io.IOException {
@@ -239,7 +338,6 @@ public class TrueTypeFont extends FontProgram {
         OpenTypeParser.WindowsMetrics os_2 = fontParser.getOs_2Table();
         OpenTypeParser.PostTable post = fontParser.getPostTable();
         isFontSpecific = fontParser.getCmapTable().fontSpecific;
-        kerning = fontParser.readKerning(head.unitsPerEm);
         bBoxes = fontParser.readBbox(head.unitsPerEm);
 
         // font names group
@@ -310,8 +408,8 @@ public class TrueTypeFont extends FontProgram {
 
         Map<Integer, int[]> cmap = getActiveCmap();
         int[] glyphWidths = fontParser.getGlyphWidthsByIndex();
-        unicodeToGlyph = new LinkedHashMap<>(cmap.size());
-        codeToGlyph = new LinkedHashMap<>(glyphWidths.length);
+        unicodeToGlyph = new IntObjectMap<>(cmap.size());
+        codeToGlyph = new IntObjectMap<>(glyphWidths.length);
         avgWidth = 0;
         for (int charCode : cmap.keySet()) {
             int index = cmap.get(charCode)[0];
@@ -343,13 +441,53 @@ public class TrueTypeFont extends FontProgram {
             avgWidth /= codeToGlyph.size();
         }
 
-        readGdefTable();
-        readGsubTable();
-        readGposTable();
-
         isVertical = false;
     }
 
+    private FontSubsetCache getSubsetCache() {
+        if (subsetCache == null) {
+            synchronized (this) {
+                if (subsetCache == null) {
+                    subsetCache = new FontSubsetCache(getMaxSubsetCacheLength());
+                }
+            }
+        }
+        return subsetCache;
+    }
+
+    private IntHashtable getKerningTable() {
+        if (!kerningRead && fontParser != null) {
+            synchronized (fontParser) {
+                if (!kerningRead) {
+                    try {
+                        kerning = fontParser.readKerning(fontMetrics.getUnitsPerEm());
+                    } catch (java.io.IOException e) {
+                        throw new IOException(IOException.IoException, e);
+                    }
+                    kerningRead = true;
+                }
+            }
+        }
+        return kerning;
+    }
+
+    private void ensureOpenTypeTablesRead() {
+        if (!openTypeTablesRead && fontParser != null) {
+            synchronized (fontParser) {
+                if (!openTypeTablesRead) {
+                    try {
+                        readGdefTable();
+                        readGsubTable();
+                        readGposTable();
+                    } catch (java.io.IOException e) {
+                        throw new IOException(IOException.IoException, e);
+                    }
+                    openTypeTablesRead = true;
+                }
+            }
+        }
+    }
+
     /**
      * Gets the code pages supported by the font.
      *
@@ -129,8 +129,12 @@ class TrueTypeFontSubset {
      */
     byte[] process() throws java.io.IOException {
         try {
-            createTableDirectory();
-            readLoca();
+            if (tableDirectory == null) {
+                createTableDirectory();
+            }
+            if (locaTable == null) {
+                readLoca();
+            }
             flatGlyphs();
             createNewGlyphTables();
             locaToBytes();
@@ -143,6 +147,28 @@ class TrueTypeFontSubset {
         }
     }
 
+    /**
+     * Gets the table directory and the 'loca' table read by {@link #process()}.
+     * They are not modified by the subsetting, so they could be reused by the next subsets of the same font.
+     *
+     * @return the glyph locations of the font.
+     */
+    GlyphLocations getGlyphLocations() {
+        return new GlyphLocations(tableDirectory, locaShortTable, locaTable);
+    }
+
+    /**
+     * Sets the table directory and the 'loca' table read by the previous subset of the same font,
+     * so that {@link #process()} does not read them again.
+     *
+     * @param locations the glyph locations of the font.
+     */
+    void setGlyphLocations(GlyphLocations locations) {
+        tableDirectory = locations.tableDirectory;
+        locaShortTable = locations.locaShortTable;
+        locaTable = locations.locaTable;
+    }
+
     protected void assembleFont() throws java.io.IOException {
         int[] tableLocation;
         int fullFontSize = 0;
@@ -428,4 +454,16 @@ class TrueTypeFontSubset {
         }
         return v0 + (v1 << 8) + (v2 << 16) + (v3 << 24);
     }
+
+    static class GlyphLocations {
+        final Map<String, int[]> tableDirectory;
+        final boolean locaShortTable;
+        final int[] locaTable;
+
+        GlyphLocations(Map<String, int[]> tableDirectory, boolean locaShortTable, int[] locaTable) {
+            this.tableDirectory = tableDirectory;
+            this.locaShortTable = locaShortTable;
+            this.locaTable = locaTable;
+        }
+    }
 }
@@ -174,6 +174,11 @@ public class Type1Font extends FontProgram {
         }
     }
 
+    @Override
+    long getFontDataLength() {
+        return fontStreamBytes != null ? fontStreamBytes.length : 0;
+    }
+
     public byte[] getFontStreamBytes() {
         if (fontParser.isBuiltInFont())
             return null;
@@ -50,12 +50,15 @@ import com.itextpdf.io.color.IccProfile;
 import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteBuffer;
+import com.itextpdf.io.source.ZlibCodecPool;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 class PngImageHelper {
 
@@ -558,18 +561,24 @@ class PngImageHelper {
         else if (png.genBWMask)
             png.smask = new byte[(png.width + 7) / 8 * png.height];
         ByteArrayInputStream bai = new ByteArrayInputStream(png.idat.toByteArray());
-        png.dataStream = FilterUtil.getInflaterInputStream(bai);
+        Inflater inflater = ZlibCodecPool.acquireInflater();
+        png.dataStream = new InflaterInputStream(bai, inflater);
 
-        if (png.interlaceMethod != 1) {
-            decodePass(0, 0, 1, 1, png.width, png.height, png);
-        } else {
-            decodePass(0, 0, 8, 8, (png.width + 7) / 8, (png.height + 7) / 8, png);
-            decodePass(4, 0, 8, 8, (png.width + 3) / 8, (png.height + 7) / 8, png);
-            decodePass(0, 4, 4, 8, (png.width + 3) / 4, (png.height + 3) / 8, png);
-            decodePass(2, 0, 4, 4, (png.width + 1) / 4, (png.height + 3) / 4, png);
-            decodePass(0, 2, 2, 4, (png.width + 1) / 2, (png.height + 1) / 4, png);
-            decodePass(1, 0, 2, 2, png.width / 2, (png.height + 1) / 2, png);
-            decodePass(0, 1, 1, 2, png.width, png.height / 2, png);
+        try {
+            if (png.interlaceMethod != 1) {
+                decodePass(0, 0, 1, 1, png.width, png.height, png);
+            } else {
+                decodePass(0, 0, 8, 8, (png.width + 7) / 8, (png.height + 7) / 8, png);
+                decodePass(4, 0, 8, 8, (png.width + 3) / 8, (png.height + 7) / 8, png);
+                decodePass(0, 4, 4, 8, (png.width + 3) / 4, (png.height + 3) / 8, png);
+                decodePass(2, 0, 4, 4, (png.width + 1) / 4, (png.height + 3) / 4, png);
+                decodePass(0, 2, 2, 4, (png.width + 1) / 2, (png.height + 1) / 4, png);
+                decodePass(1, 0, 2, 2, png.width / 2, (png.height + 1) / 2, png);
+                decodePass(0, 1, 1, 2, png.width, png.height / 2, png);
+            }
+        } finally {
+            png.dataStream = null;
+            ZlibCodecPool.releaseInflater(inflater);
         }
 
     }
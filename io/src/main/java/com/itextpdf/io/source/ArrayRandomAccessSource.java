@@ -48,7 +48,7 @@ import java.io.Serializable;
 /**
  * A RandomAccessSource that is based on an underlying byte array
  */
-class ArrayRandomAccessSource implements IRandomAccessSource, Serializable {
+class ArrayRandomAccessSource implements IByteBufferRandomAccessSource, Serializable {
 
     private static final long serialVersionUID = 8497059230517630513L;
 
@@ -78,6 +78,13 @@ class ArrayRandomAccessSource implements IRandomAccessSource, Serializable {
         return len;
     }
 
+    public java.nio.ByteBuffer getByteBuffer(long offset, int length) {
+        if (array == null) throw new IllegalStateException("Already closed");
+
+        int start = (int) Math.min(offset, array.length);
+        return java.nio.ByteBuffer.wrap(array, start, Math.min(length, array.length - start)).slice().asReadOnlyBuffer();
+    }
+
     public long length() {
         return array.length;
     }
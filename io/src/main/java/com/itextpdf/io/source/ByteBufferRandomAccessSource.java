@@ -60,7 +60,7 @@ import java.security.PrivilegedAction;
  * A RandomAccessSource that is based on an underlying {@link java.nio.ByteBuffer}.  This class takes steps to ensure that the byte buffer
  * is completely freed from memory during {@link ByteBufferRandomAccessSource#close()}
  */
-class ByteBufferRandomAccessSource implements IRandomAccessSource, Serializable {
+class ByteBufferRandomAccessSource implements IByteBufferRandomAccessSource, Serializable {
 
     private static final long serialVersionUID = -1477190062876186034L;
     /**
@@ -117,6 +117,23 @@ class ByteBufferRandomAccessSource implements IRandomAccessSource, Serializable
         return bytesFromThisBuffer;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Note: Because ByteBuffers don't support long indexing, the position must be a valid positive int
+     * @param position the position the buffer shall start at - must be less than Integer.MAX_VALUE
+     */
+    public java.nio.ByteBuffer getByteBuffer(long position, int length) {
+        if (position > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Position must be less than Integer.MAX_VALUE");
+
+        java.nio.ByteBuffer buffer = byteBuffer.asReadOnlyBuffer();
+        int start = (int) Math.min(position, buffer.limit());
+        buffer.limit((int) Math.min((long) start + length, buffer.limit()));
+        buffer.position(start);
+        return buffer.slice();
+    }
+
 
     /**
      * {@inheritDoc}
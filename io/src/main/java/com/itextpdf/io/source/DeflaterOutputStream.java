@@ -47,10 +47,18 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.zip.Deflater;
 
+/**
+ * A {@link java.util.zip.DeflaterOutputStream} which takes its {@link Deflater} from {@link ZlibCodecPool}.
+ * The deflater is returned to the pool when the stream is finished, so the stream shall be finished or closed.
+ * Since the deflater may be already used by another stream afterwards, writing to a finished stream
+ * throws an {@link IOException}.
+ */
 public class DeflaterOutputStream extends java.util.zip.DeflaterOutputStream {
 
+    private boolean released;
+
     public DeflaterOutputStream(OutputStream out, int level, int size) {
-        super(out, new Deflater(level), size);
+        super(out, ZlibCodecPool.acquireDeflater(level, false), size);
     }
 
     public DeflaterOutputStream(OutputStream out, int level) {
@@ -61,6 +69,18 @@ public class DeflaterOutputStream extends java.util.zip.DeflaterOutputStream {
         this(out, -1);
     }
 
+    @Override
+    public void write(int b) throws IOException {
+        ensureNotReleased();
+        super.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureNotReleased();
+        super.write(b, off, len);
+    }
+
     @Override
     public void close() throws IOException {
         finish();
@@ -69,7 +89,20 @@ public class DeflaterOutputStream extends java.util.zip.DeflaterOutputStream {
 
     @Override
     public void finish() throws IOException {
-        super.finish();
-        def.end();
+        if (released) {
+            return;
+        }
+        try {
+            super.finish();
+        } finally {
+            released = true;
+            ZlibCodecPool.releaseDeflater(def, false);
+        }
+    }
+
+    private void ensureNotReleased() throws IOException {
+        if (released) {
+            throw new IOException(com.itextpdf.io.IOException.WriteAfterDeflaterOutputStreamHasBeenFinished);
+        }
     }
 }
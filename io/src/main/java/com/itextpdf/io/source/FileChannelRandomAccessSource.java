@@ -58,7 +58,7 @@ import org.slf4j.LoggerFactory;
  * A RandomAccessSource that is based on an underlying {@link java.nio.channels.FileChannel}.
  * The entire channel will be mapped into memory for efficient reads.
  */
-public class FileChannelRandomAccessSource implements IRandomAccessSource, Serializable {
+public class FileChannelRandomAccessSource implements IByteBufferRandomAccessSource, Serializable {
 
     private static final long serialVersionUID = -7550288945325499416L;
     /**
@@ -71,6 +71,12 @@ public class FileChannelRandomAccessSource implements IRandomAccessSource, Seria
      */
     private final MappedChannelRandomAccessSource source;
 
+    /**
+     * Mappings which back the buffers returned by {@link #getByteBuffer(long, int)}. Unlike the main mapping,
+     * they are not unmapped on closing, so that buffers which outlive this source can't crash the JVM.
+     */
+    private final MappedChannelSlices slices;
+
     /**
      * Constructs a new {@link FileChannelRandomAccessSource} based on the specified FileChannel.  The entire source channel will be mapped into memory.
      * @param channel the channel to use as the backing store
@@ -82,6 +88,7 @@ public class FileChannelRandomAccessSource implements IRandomAccessSource, Seria
             throw new java.io.IOException("File size is 0 bytes");
         source = new MappedChannelRandomAccessSource(channel, 0, channel.size());
         source.open();
+        slices = new MappedChannelSlices(channel, channel.size());
     }
 
 
@@ -91,6 +98,7 @@ public class FileChannelRandomAccessSource implements IRandomAccessSource, Seria
      */
     public void close() throws java.io.IOException {
         try {
+            slices.close();
             source.close();
         } finally {
             try {
@@ -116,6 +124,15 @@ public class FileChannelRandomAccessSource implements IRandomAccessSource, Seria
         return source.get(position, bytes, off, len);
     }
 
+    /**
+     * {@inheritDoc}
+     * The returned buffer is a slice of the mappings described in {@link MappedChannelSlices}.
+     * The buffer shall not be used after this source is closed.
+     */
+    public java.nio.ByteBuffer getByteBuffer(long position, int length) throws java.io.IOException {
+        return slices.getByteBuffer(position, length);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -45,7 +45,7 @@ package com.itextpdf.io.source;
 
 import java.io.Serializable;
 
-public class GetBufferedRandomAccessSource implements IRandomAccessSource, Serializable {
+public class GetBufferedRandomAccessSource implements IByteBufferRandomAccessSource, Serializable {
 
     private static final long serialVersionUID = -8922625738755763494L;
     private final IRandomAccessSource source;
@@ -87,6 +87,15 @@ public class GetBufferedRandomAccessSource implements IRandomAccessSource, Seria
         return source.get(position, bytes, off, len);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public java.nio.ByteBuffer getByteBuffer(long position, int length) throws java.io.IOException {
+        if (source instanceof IByteBufferRandomAccessSource)
+            return ((IByteBufferRandomAccessSource) source).getByteBuffer(position, length);
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,146 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * Exposes ranges of a {@link FileChannel} as read-only {@link java.nio.ByteBuffer} slices of memory mappings.
+ * <p>
+ * The channel is mapped in overlapping chunks of up to {@link Integer#MAX_VALUE} bytes, which start every
+ * {@link #CHUNK_STEP} bytes, so that any range not longer than {@link #CHUNK_STEP} fits into a single chunk.
+ * Each chunk is mapped once, on the first request, and is reused for all the subsequent slices.
+ * Unlike the mappings used for reading, the chunks are never unmapped explicitly: they are released by the garbage
+ * collector when neither this object nor any of the returned slices is referenced, so a slice which outlives
+ * {@link #close()} can't crash the JVM. Such slices shall not be used anyway, since the file may change or be deleted.
+ * This class is an internal implementation detail and shouldn't be used by general iText users.
+ */
+class MappedChannelSlices {
+
+    /**
+     * The distance between the starts of the neighbouring chunks, which is also the maximum length of a slice.
+     */
+    static final long CHUNK_STEP = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+
+    private java.nio.ByteBuffer[] chunks;
+    private boolean mappingFailed;
+    private boolean closed;
+
+    /**
+     * Creates slices of the channel. Nothing is mapped until the first slice is requested.
+     *
+     * @param channel the channel to expose.
+     * @param size    the size of the channel.
+     */
+    MappedChannelSlices(FileChannel channel, long size) {
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /**
+     * Gets a read-only slice of the mapped channel.
+     *
+     * @param position the position in the channel the slice shall start at.
+     * @param length   the number of bytes the slice shall contain.
+     * @return the slice, or {@code null} if the range is too long or the channel cannot be mapped.
+     * @throws IOException if the slices have been closed.
+     */
+    synchronized java.nio.ByteBuffer getByteBuffer(long position, int length) throws IOException {
+        if (closed) {
+            throw new IOException("RandomAccessSource not opened");
+        }
+        position = Math.min(Math.max(position, 0), size);
+        long sliceLength = Math.min(length, size - position);
+        if (sliceLength <= 0) {
+            return java.nio.ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+        if (sliceLength > CHUNK_STEP) {
+            return null;
+        }
+        int chunkIndex = (int) (position / CHUNK_STEP);
+        java.nio.ByteBuffer chunk = getChunk(chunkIndex);
+        if (chunk == null) {
+            return null;
+        }
+        java.nio.ByteBuffer slice = chunk.duplicate();
+        int start = (int) (position - chunkIndex * CHUNK_STEP);
+        slice.limit(start + (int) sliceLength);
+        slice.position(start);
+        return slice.slice();
+    }
+
+    /**
+     * Drops the references to the mapped chunks. The chunks are unmapped by the garbage collector
+     * as soon as the slices, which share them, are not referenced anymore.
+     */
+    synchronized void close() {
+        closed = true;
+        chunks = null;
+    }
+
+    private java.nio.ByteBuffer getChunk(int chunkIndex) {
+        if (mappingFailed) {
+            return null;
+        }
+        if (chunks == null) {
+            chunks = new java.nio.ByteBuffer[(int) ((size - 1) / CHUNK_STEP) + 1];
+        }
+        if (chunks[chunkIndex] == null) {
+            long chunkStart = chunkIndex * CHUNK_STEP;
+            long chunkLength = Math.min(Integer.MAX_VALUE, size - chunkStart);
+            try {
+                chunks[chunkIndex] = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, chunkLength).asReadOnlyBuffer();
+            } catch (IOException e) {
+                // e.g. the address space is exhausted, the callers copy the bytes instead
+                mappingFailed = true;
+                return null;
+            }
+        }
+        return chunks[chunkIndex];
+    }
+}
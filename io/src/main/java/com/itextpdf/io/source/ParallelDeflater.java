@@ -0,0 +1,211 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses data into a zlib stream, splitting large inputs into blocks which are deflated concurrently.
+ * <p/>
+ * Each block is compressed as raw deflate data, primed with the last 32K of the previous block as a preset dictionary
+ * and terminated with a sync flush, so that concatenated blocks form a single valid deflate stream.
+ * The result is a regular zlib stream which could be decoded by any inflater, although its bytes may differ
+ * from the ones produced by a single {@link Deflater}.
+ */
+public final class ParallelDeflater {
+
+    /**
+     * Default size of the input block compressed by a single task.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private ParallelDeflater() {
+    }
+
+    /**
+     * Compresses data into a zlib stream using {@link #DEFAULT_BLOCK_SIZE} blocks.
+     *
+     * @param data     the data to compress.
+     * @param level    the compression level (0-9), or -1 for the default compression level.
+     * @param executor the executor to compress blocks on. If {@code null}, data is compressed on the calling thread.
+     * @return compressed data.
+     */
+    public static byte[] deflate(byte[] data, int level, ExecutorService executor) {
+        return deflate(data, 0, data.length, level, DEFAULT_BLOCK_SIZE, executor);
+    }
+
+    /**
+     * Compresses data into a zlib stream.
+     *
+     * @param data      the data to compress.
+     * @param off       the start offset of the data.
+     * @param len       the number of bytes to compress.
+     * @param level     the compression level (0-9), or -1 for the default compression level.
+     * @param blockSize the size of the input block compressed by a single task.
+     * @param executor  the executor to compress blocks on. If {@code null}, data is compressed on the calling thread.
+     *                  Blocks, which the executor has not started yet when their turn comes, are compressed
+     *                  on the calling thread as well, so the method could be called on a thread of the executor.
+     * @return compressed data.
+     */
+    public static byte[] deflate(byte[] data, int off, int len, int level, int blockSize, ExecutorService executor) {
+        int blocksNumber = Math.max(1, (len + blockSize - 1) / blockSize);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(len / 2 + 64);
+        writeZlibHeader(out, level);
+        if (executor == null || blocksNumber == 1) {
+            for (int i = 0; i < blocksNumber; i++) {
+                int start = off + i * blockSize;
+                byte[] block = new BlockDeflateTask(data, off, start, Math.min(start + blockSize, off + len), level, i == blocksNumber - 1).call();
+                out.write(block, 0, block.length);
+            }
+        } else {
+            List<BlockDeflateTask> tasks = new ArrayList<>(blocksNumber);
+            List<Future<byte[]>> blocks = new ArrayList<>(blocksNumber);
+            for (int i = 0; i < blocksNumber; i++) {
+                int start = off + i * blockSize;
+                BlockDeflateTask task = new BlockDeflateTask(data, off, start, Math.min(start + blockSize, off + len), level, i == blocksNumber - 1);
+                tasks.add(task);
+                blocks.add(executor.submit(task));
+            }
+            try {
+                for (int i = 0; i < blocksNumber; i++) {
+                    // blocks which have not been started yet are compressed on the calling thread, so that
+                    // compression doesn't deadlock if it is itself called on a thread of the busy executor
+                    byte[] compressedBlock = blocks.get(i).cancel(false) ? tasks.get(i).call() : blocks.get(i).get();
+                    out.write(compressedBlock, 0, compressedBlock.length);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(IOException.IoException, e);
+            } catch (ExecutionException e) {
+                throw new IOException(IOException.IoException, e.getCause());
+            } finally {
+                for (Future<byte[]> block : blocks) {
+                    block.cancel(false);
+                }
+            }
+        }
+        Adler32 adler = new Adler32();
+        adler.update(data, off, len);
+        long checksum = adler.getValue();
+        out.write((int) (checksum >>> 24) & 0xff);
+        out.write((int) (checksum >>> 16) & 0xff);
+        out.write((int) (checksum >>> 8) & 0xff);
+        out.write((int) checksum & 0xff);
+        return out.toByteArray();
+    }
+
+    private static void writeZlibHeader(ByteArrayOutputStream out, int level) {
+        // CMF: deflate with 32K window; FLG: compression level hint and check bits, no preset dictionary
+        out.write(0x78);
+        if (level == Deflater.DEFAULT_COMPRESSION || level == 6) {
+            out.write(0x9c);
+        } else if (level < 2) {
+            out.write(0x01);
+        } else if (level < 6) {
+            out.write(0x5e);
+        } else {
+            out.write(0xda);
+        }
+    }
+
+    private static class BlockDeflateTask implements Callable<byte[]> {
+        private final byte[] data;
+        private final int dataStart;
+        private final int start;
+        private final int end;
+        private final int level;
+        private final boolean last;
+
+        BlockDeflateTask(byte[] data, int dataStart, int start, int end, int level, boolean last) {
+            this.data = data;
+            this.dataStart = dataStart;
+            this.start = start;
+            this.end = end;
+            this.level = level;
+            this.last = last;
+        }
+
+        @Override
+        public byte[] call() {
+            Deflater deflater = ZlibCodecPool.acquireDeflater(level, true);
+            try {
+                int dictionaryStart = Math.max(dataStart, start - DICTIONARY_SIZE);
+                if (dictionaryStart < start) {
+                    deflater.setDictionary(data, dictionaryStart, start - dictionaryStart);
+                }
+                deflater.setInput(data, start, end - start);
+                ByteArrayOutputStream out = new ByteArrayOutputStream((end - start) / 2 + 64);
+                byte[] buf = new byte[8192];
+                if (last) {
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        int n = deflater.deflate(buf);
+                        out.write(buf, 0, n);
+                    }
+                } else {
+                    int n;
+                    // a reused deflater may apply the new compression level first, without consuming the whole input
+                    do {
+                        n = deflater.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+                        out.write(buf, 0, n);
+                    } while (n == buf.length || !deflater.needsInput());
+                }
+                return out.toByteArray();
+            } finally {
+                ZlibCodecPool.releaseDeflater(deflater, true);
+            }
+        }
+    }
+}
@@ -179,6 +179,16 @@ public class PdfTokenizer implements Closeable, Serializable {
         return outBuf.toByteArray();
     }
 
+    /**
+     * Gets the buffer holding the content of the current token. The buffer is reused for the next tokens,
+     * so its content must be copied if it is needed after the tokenizer moves on.
+     *
+     * @return the buffer holding the content of the current token
+     */
+    public ByteBuffer getByteBuffer() {
+        return outBuf;
+    }
+
     public String getStringValue() {
         return new String(outBuf.getInternalBuffer(), 0, outBuf.size());
     }
@@ -101,6 +101,24 @@ public class RandomAccessFileOrArray implements DataInput, Serializable {
         return new IndependentRandomAccessSource(byteSource);
     }
 
+    /**
+     * Gets a read-only buffer which shares the content of the byte source in the specified range, e.g. a slice
+     * of the memory mapped file. The buffer shall be used only while this object is open.
+     * Position of this object isn't changed.
+     *
+     * @param position the position in the byte source the buffer shall start at
+     * @param length   the number of bytes the buffer shall contain
+     * @return the buffer, or {@code null} if the byte source cannot expose the range without copying
+     * @throws java.io.IOException in case of any I/O error.
+     * @see IByteBufferRandomAccessSource
+     */
+    public java.nio.ByteBuffer getByteBuffer(long position, int length) throws java.io.IOException {
+        if (byteSource instanceof IByteBufferRandomAccessSource) {
+            return ((IByteBufferRandomAccessSource) byteSource).getByteBuffer(position, length);
+        }
+        return null;
+    }
+
     /**
      * Creates a RandomAccessFileOrArray that wraps the specified byte source.  The byte source will be closed when
      * this RandomAccessFileOrArray is closed.
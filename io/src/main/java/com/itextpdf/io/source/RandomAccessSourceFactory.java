@@ -219,12 +219,33 @@ public final class RandomAccessSourceFactory implements Serializable {
      */
     public IRandomAccessSource createBestSource(FileChannel channel) throws java.io.IOException {
         if (channel.size() <= PagedChannelRandomAccessSource.DEFAULT_TOTAL_BUFSIZE){ // if less than the fully mapped usage of PagedFileChannelRandomAccessSource, just map the whole thing and be done with it
-            return new GetBufferedRandomAccessSource(new FileChannelRandomAccessSource(channel));
+            // the whole channel is mapped, so it's read directly from the mapping without intermediate buffering
+            return new FileChannelRandomAccessSource(channel);
         } else {
             return new GetBufferedRandomAccessSource(new PagedChannelRandomAccessSource(channel));
         }
     }
 
+    /**
+     * Creates a {@link IRandomAccessSource} which could be read concurrently from several threads.
+     * Sources which are backed by a byte array are returned as is, the ones backed by a memory mapped file
+     * are read through the views of their buffers, while the access to the other sources, which keep
+     * reading state, is serialized.
+     * @param source the source to share between threads
+     * @return the thread-safe {@link IRandomAccessSource}
+     */
+    public IRandomAccessSource createThreadSafeSource(IRandomAccessSource source) {
+        if (source instanceof ArrayRandomAccessSource || source instanceof SynchronizedRandomAccessSource
+                || source instanceof ConcurrentByteBufferRandomAccessSource) {
+            return source;
+        }
+        if (source instanceof ByteBufferRandomAccessSource || source instanceof MappedChannelRandomAccessSource
+                || source instanceof FileChannelRandomAccessSource) {
+            return new ConcurrentByteBufferRandomAccessSource((IByteBufferRandomAccessSource) source);
+        }
+        return new SynchronizedRandomAccessSource(source);
+    }
+
     public IRandomAccessSource createRanged(IRandomAccessSource source, long[] ranges) throws java.io.IOException {
         IRandomAccessSource[] sources = new IRandomAccessSource[ranges.length/2];
         for(int i = 0; i < ranges.length; i+=2){
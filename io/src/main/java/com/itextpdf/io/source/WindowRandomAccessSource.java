@@ -49,7 +49,7 @@ import java.io.Serializable;
  * A RandomAccessSource that wraps another RandomAccessSource and provides a window of it at a specific offset and over
  * a specific length.  Position 0 becomes the offset position in the underlying source.
  */
-public class WindowRandomAccessSource implements IRandomAccessSource, Serializable {
+public class WindowRandomAccessSource implements IByteBufferRandomAccessSource, Serializable {
     private static final long serialVersionUID = -8539987600466289182L;
     /**
      * The source
@@ -108,6 +108,19 @@ public class WindowRandomAccessSource implements IRandomAccessSource, Serializab
         return source.get(offset + position, bytes, off, (int)toRead);
     }
 
+    /**
+     * {@inheritDoc}
+     * Note that the position will be adjusted to read from the corrected location in the underlying source
+     */
+    public java.nio.ByteBuffer getByteBuffer(long position, int length) throws java.io.IOException {
+        if (!(source instanceof IByteBufferRandomAccessSource))
+            return null;
+
+        position = Math.min(position, this.length);
+        long toRead = Math.min(length, this.length - position);
+        return ((IByteBufferRandomAccessSource) source).getByteBuffer(offset + position, (int)toRead);
+    }
+
     /**
      * {@inheritDoc}
      * Note that the length will be adjusted to read from the corrected location in the underlying source
@@ -0,0 +1,198 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A bounded, thread-safe pool of {@link Deflater} and {@link Inflater} instances.
+ * Native zlib state is expensive to allocate, so codecs are reset and reused instead of being ended after each use.
+ * <p/>
+ * The pool counts hits (a pooled codec was reused) and misses (a new codec was created),
+ * which could be used to tune {@link #MAX_POOLED_CODECS} for the given load.
+ */
+public final class ZlibCodecPool {
+
+    /**
+     * Maximum number of idle codecs kept by the pool for each codec kind.
+     */
+    public static final int MAX_POOLED_CODECS = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    private static final ConcurrentLinkedQueue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentLinkedQueue<Deflater> rawDeflaters = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger deflatersCount = new AtomicInteger();
+    private static final AtomicInteger rawDeflatersCount = new AtomicInteger();
+    private static final ConcurrentLinkedQueue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger inflatersCount = new AtomicInteger();
+
+    private static final AtomicLong deflaterHits = new AtomicLong();
+    private static final AtomicLong deflaterMisses = new AtomicLong();
+    private static final AtomicLong inflaterHits = new AtomicLong();
+    private static final AtomicLong inflaterMisses = new AtomicLong();
+
+    private ZlibCodecPool() {
+    }
+
+    /**
+     * Gets a deflater from the pool, or creates a new one if the pool is empty.
+     * The deflater shall be returned with {@link #releaseDeflater(Deflater, boolean)}.
+     *
+     * @param level  the compression level (0-9), or -1 for the default compression level.
+     * @param nowrap if true then ZLIB header and checksum fields will not be used.
+     * @return a deflater ready to use.
+     */
+    public static Deflater acquireDeflater(int level, boolean nowrap) {
+        Deflater deflater = (nowrap ? rawDeflaters : deflaters).poll();
+        if (deflater == null) {
+            deflaterMisses.incrementAndGet();
+            return new Deflater(level, nowrap);
+        }
+        deflaterHits.incrementAndGet();
+        (nowrap ? rawDeflatersCount : deflatersCount).decrementAndGet();
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    /**
+     * Returns the deflater to the pool. If the pool is full, the deflater is ended.
+     * The deflater shall not be used by the caller after this call.
+     *
+     * @param deflater the deflater obtained by {@link #acquireDeflater(int, boolean)}.
+     * @param nowrap   the same value which was used to acquire the deflater.
+     */
+    public static void releaseDeflater(Deflater deflater, boolean nowrap) {
+        AtomicInteger count = nowrap ? rawDeflatersCount : deflatersCount;
+        if (count.incrementAndGet() <= MAX_POOLED_CODECS) {
+            deflater.reset();
+            (nowrap ? rawDeflaters : deflaters).offer(deflater);
+        } else {
+            count.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+    /**
+     * Gets an inflater, which expects ZLIB header and checksum fields, from the pool,
+     * or creates a new one if the pool is empty.
+     * The inflater shall be returned with {@link #releaseInflater(Inflater)}.
+     *
+     * @return an inflater ready to use.
+     */
+    public static Inflater acquireInflater() {
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            inflaterMisses.incrementAndGet();
+            return new Inflater();
+        }
+        inflaterHits.incrementAndGet();
+        inflatersCount.decrementAndGet();
+        return inflater;
+    }
+
+    /**
+     * Returns the inflater to the pool. If the pool is full, the inflater is ended.
+     * The inflater shall not be used by the caller after this call.
+     *
+     * @param inflater the inflater obtained by {@link #acquireInflater()}.
+     */
+    public static void releaseInflater(Inflater inflater) {
+        if (inflatersCount.incrementAndGet() <= MAX_POOLED_CODECS) {
+            inflater.reset();
+            inflaters.offer(inflater);
+        } else {
+            inflatersCount.decrementAndGet();
+            inflater.end();
+        }
+    }
+
+    /**
+     * Gets the number of deflater requests which were served by a pooled deflater.
+     *
+     * @return the number of deflater pool hits.
+     */
+    public static long getDeflaterHits() {
+        return deflaterHits.get();
+    }
+
+    /**
+     * Gets the number of deflater requests which required a new deflater to be created.
+     *
+     * @return the number of deflater pool misses.
+     */
+    public static long getDeflaterMisses() {
+        return deflaterMisses.get();
+    }
+
+    /**
+     * Gets the number of inflater requests which were served by a pooled inflater.
+     *
+     * @return the number of inflater pool hits.
+     */
+    public static long getInflaterHits() {
+        return inflaterHits.get();
+    }
+
+    /**
+     * Gets the number of inflater requests which required a new inflater to be created.
+     *
+     * @return the number of inflater pool misses.
+     */
+    public static long getInflaterMisses() {
+        return inflaterMisses.get();
+    }
+
+    /**
+     * Resets the hit and miss counters. Pooled codecs are kept.
+     */
+    public static void resetStatistics() {
+        deflaterHits.set(0);
+        deflaterMisses.set(0);
+        inflaterHits.set(0);
+        inflaterMisses.set(0);
+    }
+}
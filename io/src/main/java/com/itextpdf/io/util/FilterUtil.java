@@ -45,6 +45,7 @@ package com.itextpdf.io.util;
 
 import com.itextpdf.io.IOException;
 import com.itextpdf.io.codec.Base64;
+import com.itextpdf.io.source.ZlibCodecPool;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -72,7 +73,8 @@ public final class FilterUtil {
      */
     public static byte[] flateDecode(byte[] input, boolean strict) {
         ByteArrayInputStream stream = new ByteArrayInputStream(input);
-        InflaterInputStream zip = new InflaterInputStream(stream);
+        Inflater inflater = ZlibCodecPool.acquireInflater();
+        InflaterInputStream zip = new InflaterInputStream(stream, inflater);
         ByteArrayOutputStream output = new ByteArrayOutputStream();
         byte[] b = new byte[strict ? 4092 : 1];
         try {
@@ -85,6 +87,8 @@ public final class FilterUtil {
             return output.toByteArray();
         } catch (Exception e) {
             return strict ? null : output.toByteArray();
+        } finally {
+            ZlibCodecPool.releaseInflater(inflater);
         }
     }
 
@@ -108,12 +112,14 @@ public final class FilterUtil {
      * @param inflated the buffer for the uncompressed data
      */
     public static void inflateData(byte[] deflated, byte[] inflated) {
-        Inflater inflater = new Inflater();
+        Inflater inflater = ZlibCodecPool.acquireInflater();
         inflater.setInput(deflated);
         try {
             inflater.inflate(inflated);
         } catch (DataFormatException dfe) {
             throw new IOException(IOException.CannotInflateTiffImage);
+        } finally {
+            ZlibCodecPool.releaseInflater(inflater);
         }
     }
 
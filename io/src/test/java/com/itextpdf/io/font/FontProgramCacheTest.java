@@ -0,0 +1,85 @@
+package com.itextpdf.io.font;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+
+@Category(UnitTest.class)
+public class FontProgramCacheTest {
+
+    @Test
+    public void putIfAbsentTest() throws IOException {
+        FontProgramCache cache = new FontProgramCache();
+        FontProgram helvetica = FontProgramFactory.createFont(FontConstants.HELVETICA);
+        FontProgram otherHelvetica = FontProgramFactory.createFont(FontConstants.HELVETICA);
+
+        Assert.assertNull(cache.get(FontConstants.HELVETICA));
+        Assert.assertSame(helvetica, cache.put(FontConstants.HELVETICA, helvetica));
+        Assert.assertSame(helvetica, cache.put(FontConstants.HELVETICA, otherHelvetica));
+        Assert.assertSame(helvetica, cache.get(FontConstants.HELVETICA));
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedEvictionTest() throws IOException {
+        FontProgram helvetica = FontProgramFactory.createFont(FontConstants.HELVETICA);
+        FontProgram courier = FontProgramFactory.createFont(FontConstants.COURIER);
+        FontProgram times = FontProgramFactory.createFont(FontConstants.TIMES_ROMAN);
+        FontProgramCache weigher = new FontProgramCache();
+        long maxWeight = weigher.getWeight(helvetica) + weigher.getWeight(courier) + weigher.getWeight(times) - 1;
+
+        FontProgramCache cache = new FontProgramCache(maxWeight, false);
+        cache.put(FontConstants.HELVETICA, helvetica);
+        cache.put(FontConstants.COURIER, courier);
+        // helvetica becomes the most recently used font, so courier is evicted
+        Assert.assertSame(helvetica, cache.get(FontConstants.HELVETICA));
+        cache.put(FontConstants.TIMES_ROMAN, times);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertTrue(cache.getWeight() <= cache.getMaxWeight());
+        Assert.assertNull(cache.get(FontConstants.COURIER));
+        Assert.assertSame(helvetica, cache.get(FontConstants.HELVETICA));
+        Assert.assertSame(times, cache.get(FontConstants.TIMES_ROMAN));
+    }
+
+    @Test
+    public void softlyKeptEvictedFontTest() throws IOException {
+        FontProgram helvetica = FontProgramFactory.createFont(FontConstants.HELVETICA);
+        FontProgramCache cache = new FontProgramCache(1);
+        Assert.assertSame(helvetica, cache.put(FontConstants.HELVETICA, helvetica));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.getWeight());
+
+        // the font program is strongly reachable, so it cannot be reclaimed yet
+        Assert.assertSame(helvetica, cache.get(FontConstants.HELVETICA));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(2, cache.getEvictionCount());
+
+        cache.clear();
+        Assert.assertNull(cache.get(FontConstants.HELVETICA));
+    }
+
+    @Test
+    public void factoryUsesFontProgramCacheTest() throws IOException {
+        IFontProgramCache defaultCache = FontCache.getFontProgramCache();
+        FontProgramCache cache = new FontProgramCache(1 << 20);
+        FontCache.setFontProgramCache(cache);
+        try {
+            FontProgram font = FontProgramFactory.createFont(FontConstants.COURIER_BOLD, true);
+            Assert.assertSame(font, FontProgramFactory.createFont(FontConstants.COURIER_BOLD, true));
+            Assert.assertNotSame(font, FontProgramFactory.createFont(FontConstants.COURIER_BOLD, false));
+            Assert.assertEquals(1, cache.size());
+            Assert.assertEquals(1, cache.getHitCount());
+        } finally {
+            FontCache.setFontProgramCache(defaultCache);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.itextpdf.io.font;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@Category(UnitTest.class)
+public class FontSubsetCacheTest {
+
+    @Test
+    public void totalLengthTest() {
+        FontSubsetCache cache = new FontSubsetCache(100);
+        List<Integer> first = Collections.singletonList(1);
+        List<Integer> second = Collections.singletonList(2);
+        List<Integer> third = Arrays.asList(1, 2);
+        byte[] firstSubset = new byte[40];
+        byte[] secondSubset = new byte[40];
+        cache.put(FontSubsetCache.TRUE_TYPE_SUBSET, first, first, firstSubset);
+        cache.put(FontSubsetCache.TRUE_TYPE_SUBSET, second, second, secondSubset);
+        Assert.assertSame(firstSubset, cache.get(FontSubsetCache.TRUE_TYPE_SUBSET, first, false));
+        Assert.assertSame(secondSubset, cache.get(FontSubsetCache.TRUE_TYPE_SUBSET, second, false));
+
+        // the least recently used subset is evicted to fit the new one
+        byte[] thirdSubset = new byte[40];
+        cache.put(FontSubsetCache.TRUE_TYPE_SUBSET, third, third, thirdSubset);
+        Assert.assertNull(cache.get(FontSubsetCache.TRUE_TYPE_SUBSET, first, false));
+        Assert.assertSame(secondSubset, cache.get(FontSubsetCache.TRUE_TYPE_SUBSET, second, false));
+        Assert.assertSame(thirdSubset, cache.get(FontSubsetCache.TRUE_TYPE_SUBSET, third, false));
+
+        // a subset longer than the cache is not saved and doesn't evict the others
+        cache.put(FontSubsetCache.TRUE_TYPE_SUBSET, first, first, new byte[101]);
+        Assert.assertNull(cache.get(FontSubsetCache.TRUE_TYPE_SUBSET, first, false));
+        Assert.assertSame(secondSubset, cache.get(FontSubsetCache.TRUE_TYPE_SUBSET, second, false));
+        Assert.assertSame(thirdSubset, cache.get(FontSubsetCache.TRUE_TYPE_SUBSET, third, false));
+    }
+}
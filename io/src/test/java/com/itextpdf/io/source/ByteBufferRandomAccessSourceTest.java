@@ -0,0 +1,140 @@
+package com.itextpdf.io.source;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+@Category(UnitTest.class)
+public class ByteBufferRandomAccessSourceTest {
+
+    @Test
+    public void arraySourceTest() throws IOException {
+        byte[] data = createData(1000);
+        IRandomAccessSource source = new RandomAccessSourceFactory().createSource(data);
+        Assert.assertTrue(source instanceof IByteBufferRandomAccessSource);
+        checkByteBuffers(data, (IByteBufferRandomAccessSource) source);
+    }
+
+    @Test
+    public void mappedFileSourceTest() throws IOException {
+        byte[] data = createData(10000);
+        File file = createFile(data);
+        IRandomAccessSource source = new RandomAccessSourceFactory().createBestSource(file.getAbsolutePath());
+        try {
+            Assert.assertTrue(source instanceof IByteBufferRandomAccessSource);
+            checkByteBuffers(data, (IByteBufferRandomAccessSource) source);
+        } finally {
+            source.close();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void pagedFileSourceTest() throws IOException {
+        byte[] data = createData(10000);
+        File file = createFile(data);
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        PagedChannelRandomAccessSource source = new PagedChannelRandomAccessSource(raf.getChannel(), 1024, 4);
+        try {
+            // the ranges cross the pages of the source
+            checkByteBuffers(data, source);
+            Assert.assertEquals(data[5000] & 0xff, source.get(5000));
+        } finally {
+            source.close();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void pagedFileSourceBufferOutlivesSourceTest() throws IOException {
+        byte[] data = createData(10000);
+        File file = createFile(data);
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        PagedChannelRandomAccessSource source = new PagedChannelRandomAccessSource(raf.getChannel(), 1024, 4);
+        java.nio.ByteBuffer buffer;
+        try {
+            buffer = source.getByteBuffer(5000, 100);
+            // reading through the pages doesn't affect the buffer
+            for (int i = 0; i < data.length; i += 1000) {
+                Assert.assertEquals(data[i] & 0xff, source.get(i));
+            }
+            Assert.assertEquals(data[5000], buffer.get(0));
+        } finally {
+            source.close();
+        }
+        // the buffer shall not be used after closing, but the mapping backing it is not released explicitly
+        Assert.assertEquals(data[5099], buffer.get(99));
+        try {
+            source.getByteBuffer(0, 10);
+            Assert.fail("IOException expected");
+        } catch (IOException expected) {
+        }
+        file.delete();
+    }
+
+    @Test
+    public void windowSourceTest() throws IOException {
+        byte[] data = createData(1000);
+        WindowRandomAccessSource source = new WindowRandomAccessSource(new ArrayRandomAccessSource(data), 100, 500);
+        java.nio.ByteBuffer buffer = source.getByteBuffer(50, 1000);
+        Assert.assertEquals(450, buffer.remaining());
+        Assert.assertEquals(data[150], buffer.get(0));
+
+        RandomAccessFileOrArray file = new RandomAccessFileOrArray(source);
+        Assert.assertEquals(data[100], file.getByteBuffer(0, 10).get());
+        Assert.assertEquals(0, file.getPosition());
+    }
+
+    @Test
+    public void byteBufferInputStreamTest() throws IOException {
+        byte[] data = createData(1000);
+        ByteBufferInputStream stream = new ByteBufferInputStream(java.nio.ByteBuffer.wrap(data, 10, 100));
+        Assert.assertEquals(100, stream.available());
+        Assert.assertEquals(data[10] & 0xff, stream.read());
+        byte[] bytes = new byte[200];
+        Assert.assertEquals(99, stream.read(bytes, 0, bytes.length));
+        Assert.assertEquals(data[109], bytes[98]);
+        Assert.assertEquals(-1, stream.read(bytes, 0, bytes.length));
+        Assert.assertEquals(-1, stream.read());
+    }
+
+    private static void checkByteBuffers(byte[] data, IByteBufferRandomAccessSource source) throws IOException {
+        int[][] ranges = {{0, data.length}, {0, 1}, {1000, 3000}, {data.length - 10, 100}, {data.length, 10}};
+        for (int[] range : ranges) {
+            java.nio.ByteBuffer buffer = source.getByteBuffer(range[0], range[1]);
+            int expectedLength = Math.max(0, Math.min(range[1], data.length - range[0]));
+            Assert.assertTrue(buffer.isReadOnly());
+            Assert.assertEquals(0, buffer.position());
+            Assert.assertEquals(expectedLength, buffer.remaining());
+            for (int i = 0; i < expectedLength; i++) {
+                Assert.assertEquals(data[range[0] + i], buffer.get(i));
+            }
+        }
+    }
+
+    private static File createFile(byte[] data) throws IOException {
+        File file = File.createTempFile("itext", ".bin");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static byte[] createData(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31 + i / 7);
+        }
+        return data;
+    }
+}
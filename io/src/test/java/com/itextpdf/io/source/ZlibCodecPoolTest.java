@@ -0,0 +1,80 @@
+package com.itextpdf.io.source;
+
+import com.itextpdf.io.util.FilterUtil;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Category(UnitTest.class)
+public class ZlibCodecPoolTest {
+
+    @Test
+    public void deflaterOutputStreamReusesDeflatersTest() throws IOException {
+        byte[] data = createData(10000);
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(deflate(data)));
+
+        long hits = ZlibCodecPool.getDeflaterHits();
+        long inflaterHits = ZlibCodecPool.getInflaterHits();
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(deflate(data)));
+        Assert.assertTrue(ZlibCodecPool.getDeflaterHits() > hits);
+        Assert.assertTrue(ZlibCodecPool.getInflaterHits() > inflaterHits);
+    }
+
+    @Test
+    public void deflaterOutputStreamFinishAndCloseTest() throws IOException {
+        byte[] data = createData(1000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(out);
+        zip.write(data);
+        zip.finish();
+        int size = out.size();
+        // the deflater is already returned to the pool, so neither finish nor close shall write anything
+        zip.finish();
+        zip.close();
+        Assert.assertEquals(size, out.size());
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(out.toByteArray()));
+    }
+
+    @Test(expected = IOException.class)
+    public void deflaterOutputStreamWriteAfterFinishTest() throws IOException {
+        DeflaterOutputStream zip = new DeflaterOutputStream(new ByteArrayOutputStream());
+        zip.write(createData(1000));
+        zip.finish();
+        // the deflater may be already used by another stream
+        zip.write(1);
+    }
+
+    @Test
+    public void parallelDeflateTest() {
+        byte[] data = createData(1000000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            byte[] compressed = ParallelDeflater.deflate(data, 0, data.length, 6, 64 * 1024, executor);
+            Assert.assertArrayEquals(data, FilterUtil.flateDecode(compressed, true));
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(ParallelDeflater.deflate(data, 9, null), true));
+    }
+
+    private static byte[] deflate(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(out);
+        zip.write(data);
+        zip.close();
+        return out.toByteArray();
+    }
+
+    private static byte[] createData(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ((i * 31 + i / 100) % 97);
+        }
+        return data;
+    }
+}
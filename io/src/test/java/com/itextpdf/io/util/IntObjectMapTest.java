@@ -0,0 +1,59 @@
+package com.itextpdf.io.util;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+@Category(UnitTest.class)
+public class IntObjectMapTest {
+
+    @Test
+    public void randomOperationsTest() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            // a narrow key range makes the probe sequences collide and overlap
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = String.valueOf(i);
+                Assert.assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+        Assert.assertEquals(expected.size(), map.size());
+        for (int key = -1000; key < 1000; key++) {
+            Assert.assertEquals(expected.get(key), map.get(key));
+            Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    public void boxedKeysTest() {
+        IntObjectMap<String> map = new IntObjectMap<>(3);
+        map.put(Integer.valueOf(0x4E00), "one");
+        map.put(Integer.MIN_VALUE, "min");
+        Map<Integer, String> boxed = map;
+
+        Assert.assertEquals("one", boxed.get(0x4E00));
+        Assert.assertEquals("min", map.get(Integer.MIN_VALUE));
+        Assert.assertNull(boxed.get("one"));
+        Assert.assertFalse(boxed.containsKey(0));
+
+        map.put(0x4E00, null);
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals(1, map.keySet().size());
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(Integer.MIN_VALUE));
+    }
+}
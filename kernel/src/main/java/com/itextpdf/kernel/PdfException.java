@@ -85,6 +85,7 @@ public class PdfException extends RuntimeException {
     public static final String CannotCreateLayoutImageByWmfImage = "Cannot create layout image by WmfImage instance. First convert the image into FormXObject and then use the corresponding layout image constructor.";
     public static final String CannotCreatePdfImageXObjectByWmfImage = "Cannot create PdfImageXObject instance by WmfImage. Use PdfFormXObject constructor instead.";
     public static final String CannotCreatePdfStreamByInputStreamWithoutPdfDocument = "Cannot create pdfstream by InputStream without PdfDocument.";
+    public static final String CannotExtractText = "Cannot extract text.";
     public static final String CannotGetContentBytes = "Cannot get content bytes.";
     public static final String CannotGetPdfStreamBytes = "Cannot get PdfStream bytes.";
     public static final String CannotRetrieveMediaBoxAttribute = "Invalid PDF. There is no media box attribute for page or its parents.";
@@ -104,6 +105,7 @@ public class PdfException extends RuntimeException {
     @Deprecated
     public static final String CannotSetDataToPdfstreamWhichWasCreatedByInputstream = "Cannot set data to PdfStream which was created by InputStream.";
     public static final String CannotSetDataToPdfstreamWhichWasCreatedByInputStream = "Cannot set data to PdfStream which was created by InputStream.";
+    public static final String CannotSplitDocument = "Cannot split document.";
     public static final String CannotSplitDocumentThatIsBeingWritten = "Cannot split document that is being written.";
     @Deprecated
     public static final String CannotWritePdfStream = "Cannot write pdf stream.";
@@ -144,6 +146,7 @@ public class PdfException extends RuntimeException {
     @Deprecated
     public static final String DocumentHasNoCatalogObject = "Document has no PDF Catalog object.";
     public static final String DocumentHasNoPdfCatalogObject = "Document has no PDF Catalog object.";
+    public static final String DocumentIsNotOpenedInConcurrentReadingMode = "Document is not opened in concurrent reading mode.";
     @Deprecated
     public static final String DocumentMustBePreclosed = "Document must be preClosed.";
     public static final String DocumentMustBePreClosed = "Document must be preClosed.";
@@ -224,6 +227,7 @@ public class PdfException extends RuntimeException {
     public static final String NotAValidPkcs7ObjectNotSignedData = "Not a valid PKCS#7 object - not signed data.";
     public static final String NotAWmfImage = "Not a WMF image.";
     public static final String NoValidEncryptionMode = "No valid encryption mode.";
+    public static final String NumberTreeLeafWithTheKeyWasAlreadyFlushed = "Number tree leaf with the key {0} was already flushed.";
     public static final String NumberOfBooleansInTheArrayDoesntCorrespondWithTheNumberOfFields = "The number of booleans in the array doesn't correspond with the number of fields.";
     public static final String ObjectMustBeIndirectToWorkWithThisWrapper = "Object must be indirect to work with this wrapper.";
     public static final String ObjectNumberOfTheFirstObjectInThisXrefSubsectionNotFound = "Object number of the first object in this xref subsection not found.";
@@ -239,6 +243,7 @@ public class PdfException extends RuntimeException {
     @Deprecated
     public static final String PageWasAlreadyFlushedUseAddFieldAppearanceToPageMethodBeforePageFlushing = "The page has been already flushed. Use PdfAcroForm#addFieldAppearanceToPage() method before page flushing.";
     public static final String PageAlreadyFlushedUseAddFieldAppearanceToPageMethodBeforePageFlushing = "The page has been already flushed. Use PdfAcroForm#addFieldAppearanceToPage() method before page flushing.";
+    public static final String PageWasFlushedTogetherWithItsPagesTreeNode = "The page {0} has been flushed together with its pages tree node and is not available anymore.";
     public static final String PdfEncodings = "PdfEncodings exception.";
     public static final String PdfEncryption = "PdfEncryption exception.";
     public static final String PdfDecryption = "Exception occurred with PDF document decryption. One of the possible reasons is wrong password or wrong public key certificate and private key.";
@@ -272,6 +277,7 @@ public class PdfException extends RuntimeException {
     public static final String TagFromTheExistingTagStructureIsFlushedCannotAddCopiedPageTags = "Tag from the existing tag structure is flushed. Cannot add copied page tags.";
     public static final String TagStructureCopyingFailedItMightBeCorruptedInOneOfTheDocuments = "Tag structure copying failed: it might be corrupted in one of the documents.";
     public static final String TagStructureFlushingFailedItMightBeCorrupted = "Tag structure flushing failed: it might be corrupted.";
+    public static final String TagStructureReadingFailedItMightBeCorrupted = "Tag structure reading failed: it might be corrupted.";
     public static final String TagTreePointerIsInInvalidStateItPointsAtFlushedElementUseMoveToRoot = "TagTreePointer is in invalid state: it points at flushed element. Use TagTreePointer#moveToRoot.";
     public static final String TagTreePointerIsInInvalidStateItPointsAtRemovedElementUseMoveToRoot = "TagTreePointer is in invalid state: it points at removed element use TagTreePointer#moveToRoot.";
     public static final String TextCannotBeNull = "Text cannot be null.";
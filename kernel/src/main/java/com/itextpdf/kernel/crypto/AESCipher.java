@@ -43,6 +43,7 @@
  */
 package com.itextpdf.kernel.crypto;
 
+import com.itextpdf.kernel.PdfException;
 import org.bouncycastle.crypto.BlockCipher;
 import org.bouncycastle.crypto.engines.AESFastEngine;
 import org.bouncycastle.crypto.modes.CBCBlockCipher;
@@ -50,42 +51,88 @@ import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.crypto.params.ParametersWithIV;
 
+import java.util.Arrays;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
 /**
  * Creates an AES Cipher with CBC and padding PKCS5/7.
+ * <p>
+ * The cipher is backed either by the BouncyCastle engine or by the {@link Cipher} of the JCE.
+ * The latter uses the hardware AES instructions where available. Note that older Java runtimes
+ * without the unlimited strength policy files installed don't allow 256 bit keys for the JCE cipher.
  * @author Paulo Soares
  */
 public class AESCipher {
 
     private PaddedBufferedBlockCipher bp;
-    
+    private Cipher jceCipher;
+
     /** Creates a new instance of AESCipher */
     public AESCipher(boolean forEncryption, byte[] key, byte[] iv) {
-        BlockCipher aes = new AESFastEngine();
-        BlockCipher cbc = new CBCBlockCipher(aes);
-        bp = new PaddedBufferedBlockCipher(cbc);
-        KeyParameter kp = new KeyParameter(key);
-        ParametersWithIV piv = new ParametersWithIV(kp, iv);
-        bp.init(forEncryption, piv);
+        this(forEncryption, key, iv, false);
     }
-    
-    public byte[] update(byte[] inp, int inpOff, int inpLen) {
-        int neededLen = bp.getUpdateOutputSize(inpLen);
-        byte[] outp;
-        if (neededLen > 0) {
-            outp = new byte[neededLen];
+
+    /**
+     * Creates a new instance of AESCipher.
+     *
+     * @param forEncryption {@code true} to encrypt, {@code false} to decrypt
+     * @param key the key
+     * @param iv the initialization vector
+     * @param useJce {@code true} to use the JCE cipher instead of the BouncyCastle engine
+     */
+    public AESCipher(boolean forEncryption, byte[] key, byte[] iv, boolean useJce) {
+        if (useJce) {
+            try {
+                jceCipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+                jceCipher.init(forEncryption ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE,
+                        new SecretKeySpec(key, "AES"), new IvParameterSpec(iv));
+            } catch (Exception e) {
+                throw new PdfException(PdfException.PdfEncryption, e);
+            }
         } else {
-            outp = new byte[0];
+            BlockCipher aes = new AESFastEngine();
+            BlockCipher cbc = new CBCBlockCipher(aes);
+            bp = new PaddedBufferedBlockCipher(cbc);
+            KeyParameter kp = new KeyParameter(key);
+            ParametersWithIV piv = new ParametersWithIV(kp, iv);
+            bp.init(forEncryption, piv);
+        }
+    }
+
+    public byte[] update(byte[] inp, int inpOff, int inpLen) {
+        byte[] outp = new byte[Math.max(getUpdateOutputSize(inpLen), 0)];
+        int n = update(inp, inpOff, inpLen, outp, 0);
+        return n == outp.length ? outp : Arrays.copyOf(outp, n);
+    }
+
+    /**
+     * Processes the bytes writing the result into the provided buffer.
+     *
+     * @param inp the input bytes
+     * @param inpOff the offset of the input bytes
+     * @param inpLen the number of the input bytes
+     * @param outp the output buffer, which shall have at least {@link #getUpdateOutputSize(int)} bytes left
+     * @param outpOff the offset in the output buffer
+     * @return the number of bytes written to the output buffer
+     */
+    public int update(byte[] inp, int inpOff, int inpLen, byte[] outp, int outpOff) {
+        if (jceCipher != null) {
+            try {
+                return jceCipher.update(inp, inpOff, inpLen, outp, outpOff);
+            } catch (Exception e) {
+                throw new PdfException(PdfException.PdfEncryption, e);
+            }
         }
-        bp.processBytes(inp, inpOff, inpLen, outp, 0);
-        return outp;
+        return bp.processBytes(inp, inpOff, inpLen, outp, outpOff);
     }
-    
+
     public byte[] doFinal() {
-        int neededLen = bp.getOutputSize(0);
-        byte[] outp = new byte[neededLen];
+        byte[] outp = new byte[getOutputSize(0)];
         int n;
         try {
-            n = bp.doFinal(outp, 0);
+            n = doFinal(outp, 0);
         } catch (Exception ex) {
             return outp;
         }
@@ -98,4 +145,42 @@ public class AESCipher {
             return outp;
     }
 
+    /**
+     * Finishes the operation writing the remaining bytes into the provided buffer.
+     *
+     * @param outp the output buffer, which shall have at least {@link #getOutputSize(int)} bytes left
+     * @param outpOff the offset in the output buffer
+     * @return the number of bytes written to the output buffer
+     */
+    public int doFinal(byte[] outp, int outpOff) {
+        try {
+            if (jceCipher != null) {
+                return jceCipher.doFinal(outp, outpOff);
+            }
+            return bp.doFinal(outp, outpOff);
+        } catch (Exception e) {
+            throw new PdfException(PdfException.PdfEncryption, e);
+        }
+    }
+
+    /**
+     * Gets the size of the buffer needed by {@link #update(byte[], int, int, byte[], int)}.
+     *
+     * @param inpLen the number of the input bytes
+     * @return the maximum number of the output bytes
+     */
+    public int getUpdateOutputSize(int inpLen) {
+        return jceCipher != null ? jceCipher.getOutputSize(inpLen) : bp.getUpdateOutputSize(inpLen);
+    }
+
+    /**
+     * Gets the size of the buffer needed by {@link #doFinal(byte[], int)} after the specified number of
+     * bytes is processed.
+     *
+     * @param inpLen the number of the input bytes
+     * @return the maximum number of the output bytes
+     */
+    public int getOutputSize(int inpLen) {
+        return jceCipher != null ? jceCipher.getOutputSize(inpLen) : bp.getOutputSize(inpLen);
+    }
 }
@@ -49,13 +49,24 @@ public class AesDecryptor implements IDecryptor {
     private boolean initiated;
     private byte[] iv = new byte[16];
     private int ivptr;
+    private boolean useJce;
 
     /**
      * Creates a new instance of AesDecryption
      */
     public AesDecryptor(byte[] key, int off, int len) {
+        this(key, off, len, false);
+    }
+
+    /**
+     * Creates a new instance of AesDecryption
+     *
+     * @param useJce {@code true} to use the JCE cipher instead of the BouncyCastle engine, see {@link AESCipher}
+     */
+    public AesDecryptor(byte[] key, int off, int len, boolean useJce) {
         this.key = new byte[len];
         System.arraycopy(key, off, this.key, 0, len);
+        this.useJce = useJce;
     }
 
     public byte[] update(byte[] b, int off, int len) {
@@ -68,7 +79,7 @@ public class AesDecryptor implements IDecryptor {
             len -= left;
             ivptr += left;
             if (ivptr == iv.length) {
-                cipher = new AESCipher(false, key, iv);
+                cipher = new AESCipher(false, key, iv, useJce);
                 initiated = true;
                 if (len > 0)
                     return cipher.update(b, off, len);
@@ -49,16 +49,26 @@ import java.io.IOException;
 public class OutputStreamAesEncryption extends OutputStreamEncryption {
     protected AESCipher cipher;
     private boolean finished;
+    private byte[] buffer = new byte[0];
 
     /**
      * Creates a new instance of OutputStreamCounter
      */
     public OutputStreamAesEncryption(java.io.OutputStream out, byte[] key, int off, int len) {
+        this(out, key, off, len, false);
+    }
+
+    /**
+     * Creates a new instance of OutputStreamAesEncryption
+     *
+     * @param useJce {@code true} to use the JCE cipher instead of the BouncyCastle engine, see {@link AESCipher}
+     */
+    public OutputStreamAesEncryption(java.io.OutputStream out, byte[] key, int off, int len, boolean useJce) {
         super(out);
         byte[] iv = IVGenerator.getIV();
         byte[] nkey = new byte[len];
         System.arraycopy(key, off, nkey, 0, len);
-        cipher = new AESCipher(true, nkey, iv);
+        cipher = new AESCipher(true, nkey, iv, useJce);
         try {
             write(iv);
         } catch (IOException e) {
@@ -99,22 +109,29 @@ public class OutputStreamAesEncryption extends OutputStreamEncryption {
      *                     stream is closed.
      */
     public void write(byte[] b, int off, int len) throws IOException {
-        byte[] b2 = cipher.update(b, off, len);
-        if (b2 == null || b2.length == 0)
-            return;
-        out.write(b2, 0, b2.length);
+        int n = cipher.update(b, off, len, getBuffer(cipher.getUpdateOutputSize(len)), 0);
+        if (n > 0) {
+            out.write(buffer, 0, n);
+        }
     }
 
     public void finish() {
         if (!finished) {
             finished = true;
 
-            byte[] b = cipher.doFinal();
+            int n = cipher.doFinal(getBuffer(cipher.getOutputSize(0)), 0);
             try {
-                out.write(b, 0, b.length);
+                out.write(buffer, 0, n);
             } catch (IOException e) {
                 throw new PdfException(PdfException.PdfEncryption, e);
             }
         }
     }
+
+    private byte[] getBuffer(int size) {
+        if (buffer.length < size) {
+            buffer = new byte[size];
+        }
+        return buffer;
+    }
 }
@@ -73,29 +73,27 @@ public class PubSecHandlerUsingAes128 extends PubKeySecurityHandler {
 
     @Override
     public OutputStreamEncryption getEncryptionStream(OutputStream os) {
-        return new OutputStreamAesEncryption(os, nextObjectKey, 0, nextObjectKeySize);
+        return createEncryptionStream(os, nextObjectKey, 0, nextObjectKeySize);
     }
 
     @Override
     public IDecryptor getDecryptor() {
-        return new AesDecryptor(nextObjectKey, 0, nextObjectKeySize);
+        return createDecryptor(nextObjectKey, 0, nextObjectKeySize);
     }
 
     @Override
-    public void setHashKeyForNextObject(int objNumber, int objGeneration) {
-        md5.reset(); // added by ujihara
-        extra[0] = (byte) objNumber;
-        extra[1] = (byte) (objNumber >> 8);
-        extra[2] = (byte) (objNumber >> 16);
-        extra[3] = (byte) objGeneration;
-        extra[4] = (byte) (objGeneration >> 8);
-        md5.update(mkey);
-        md5.update(extra);
-        md5.update(salt);
-        nextObjectKey = md5.digest();
-        nextObjectKeySize = mkey.length + 5;
-        if (nextObjectKeySize > 16)
-            nextObjectKeySize = 16;
+    protected OutputStreamEncryption createEncryptionStream(OutputStream os, byte[] key, int off, int len) {
+        return new OutputStreamAesEncryption(os, key, off, len, isJceCipherUsed());
+    }
+
+    @Override
+    protected IDecryptor createDecryptor(byte[] key, int off, int len) {
+        return new AesDecryptor(key, off, len, isJceCipherUsed());
+    }
+
+    @Override
+    protected byte[] computeObjectKey(int objNumber, int objGeneration) {
+        return computeObjectKey(objNumber, objGeneration, salt);
     }
 
     protected String getDigestAlgorithm() {
@@ -51,6 +51,7 @@ import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.security.IExternalDecryptionProcess;
 import java.security.Key;
 import java.security.cert.Certificate;
+import java.util.Arrays;
 
 public class PubSecHandlerUsingAes256 extends PubSecHandlerUsingAes128 {
     private static final long serialVersionUID = -9158784716845784422L;
@@ -68,6 +69,12 @@ public class PubSecHandlerUsingAes256 extends PubSecHandlerUsingAes128 {
         // in AES256 we don't recalculate nextObjectKey
     }
 
+    @Override
+    protected byte[] computeObjectKey(int objNumber, int objGeneration) {
+        // in AES256 the same key is used for all the objects
+        return Arrays.copyOf(nextObjectKey, nextObjectKeySize);
+    }
+
     @Override
     protected String getDigestAlgorithm() {
         return "SHA-256";
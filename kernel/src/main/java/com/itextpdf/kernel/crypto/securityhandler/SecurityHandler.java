@@ -51,6 +51,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.security.MessageDigest;
+import java.util.Arrays;
 
 public abstract class SecurityHandler implements Serializable {
 
@@ -78,6 +79,12 @@ public abstract class SecurityHandler implements Serializable {
      */
     protected byte[] extra = new byte[5];
 
+    /**
+     * Defines whether AES encryption and decryption is done by the {@link javax.crypto.Cipher} of the JCE
+     * instead of the BouncyCastle engine.
+     */
+    protected boolean jceCipherUsed;
+
     protected SecurityHandler() {
         safeInitMessageDigest();
     }
@@ -89,25 +96,140 @@ public abstract class SecurityHandler implements Serializable {
      * @param objGeneration
      */
     public void setHashKeyForNextObject(int objNumber, int objGeneration) {
-        md5.reset(); // added by ujihara
-        extra[0] = (byte) objNumber;
-        extra[1] = (byte) (objNumber >> 8);
-        extra[2] = (byte) (objNumber >> 16);
-        extra[3] = (byte) objGeneration;
-        extra[4] = (byte) (objGeneration >> 8);
-        md5.update(mkey);
-        md5.update(extra);
-        nextObjectKey = md5.digest();
-        nextObjectKeySize = mkey.length + 5;
-        if (nextObjectKeySize > 16) {
-            nextObjectKeySize = 16;
-        }
+        nextObjectKey = computeObjectKey(objNumber, objGeneration);
+        nextObjectKeySize = nextObjectKey.length;
     }
 
     public abstract OutputStreamEncryption getEncryptionStream(java.io.OutputStream os);
 
     public abstract IDecryptor getDecryptor();
 
+    /**
+     * Gets the encryption stream for the specified object. Unlike {@link #setHashKeyForNextObject(int, int)}
+     * followed by {@link #getEncryptionStream(java.io.OutputStream)}, doesn't change the state of the handler,
+     * so it could be called from several threads at once, unless the handler doesn't implement
+     * {@link #createEncryptionStream(java.io.OutputStream, byte[], int, int)}.
+     *
+     * @param os the stream to write the encrypted bytes to
+     * @param objNumber the number of the object
+     * @param objGeneration the generation of the object
+     * @return the encryption stream
+     */
+    public OutputStreamEncryption getEncryptionStream(java.io.OutputStream os, int objNumber, int objGeneration) {
+        byte[] key = computeObjectKey(objNumber, objGeneration);
+        OutputStreamEncryption encryptionStream = createEncryptionStream(os, key, 0, key.length);
+        if (encryptionStream == null) {
+            synchronized (this) {
+                setHashKeyForNextObject(objNumber, objGeneration);
+                return getEncryptionStream(os);
+            }
+        }
+        return encryptionStream;
+    }
+
+    /**
+     * Gets the decryptor for the specified object. Unlike {@link #setHashKeyForNextObject(int, int)}
+     * followed by {@link #getDecryptor()}, doesn't change the state of the handler,
+     * so it could be called from several threads at once, unless the handler doesn't implement
+     * {@link #createDecryptor(byte[], int, int)}.
+     *
+     * @param objNumber the number of the object
+     * @param objGeneration the generation of the object
+     * @return the decryptor
+     */
+    public IDecryptor getDecryptor(int objNumber, int objGeneration) {
+        byte[] key = computeObjectKey(objNumber, objGeneration);
+        IDecryptor decryptor = createDecryptor(key, 0, key.length);
+        if (decryptor == null) {
+            synchronized (this) {
+                setHashKeyForNextObject(objNumber, objGeneration);
+                return getDecryptor();
+            }
+        }
+        return decryptor;
+    }
+
+    public boolean isJceCipherUsed() {
+        return jceCipherUsed;
+    }
+
+    /**
+     * Defines whether AES encryption and decryption is done by the {@link javax.crypto.Cipher} of the JCE,
+     * which uses the hardware AES instructions where available, instead of the BouncyCastle engine.
+     *
+     * @param jceCipherUsed {@code true} to use the JCE cipher
+     */
+    public void setJceCipherUsed(boolean jceCipherUsed) {
+        this.jceCipherUsed = jceCipherUsed;
+    }
+
+    /**
+     * Creates the encryption stream with the given key. The handlers which don't override this method
+     * are used through {@link #setHashKeyForNextObject(int, int)} and {@link #getEncryptionStream(java.io.OutputStream)}
+     * one object at a time.
+     *
+     * @param os the stream to write the encrypted bytes to
+     * @param key the array containing the key of the object
+     * @param off the offset of the key in the array
+     * @param len the length of the key
+     * @return the encryption stream, or {@code null} if it is not supported by the handler
+     */
+    protected OutputStreamEncryption createEncryptionStream(java.io.OutputStream os, byte[] key, int off, int len) {
+        return null;
+    }
+
+    /**
+     * Creates the decryptor with the given key. The handlers which don't override this method
+     * are used through {@link #setHashKeyForNextObject(int, int)} and {@link #getDecryptor()} one object at a time.
+     *
+     * @param key the array containing the key of the object
+     * @param off the offset of the key in the array
+     * @param len the length of the key
+     * @return the decryptor, or {@code null} if it is not supported by the handler
+     */
+    protected IDecryptor createDecryptor(byte[] key, int off, int len) {
+        return null;
+    }
+
+    /**
+     * Calculates the encryption key for the specified object. The state of the handler is not changed.
+     *
+     * @param objNumber the number of the object
+     * @param objGeneration the generation of the object
+     * @return the key of the object
+     */
+    protected byte[] computeObjectKey(int objNumber, int objGeneration) {
+        return computeObjectKey(objNumber, objGeneration, null);
+    }
+
+    /**
+     * Calculates the encryption key for the specified object as MD5 hash of the global key,
+     * the object/generation bytes and the optional salt.
+     *
+     * @param objNumber the number of the object
+     * @param objGeneration the generation of the object
+     * @param salt the bytes to append to the hashed data, could be {@code null}
+     * @return the key of the object
+     */
+    protected byte[] computeObjectKey(int objNumber, int objGeneration, byte[] salt) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("MD5");
+        } catch (Exception e) {
+            throw new PdfException(PdfException.PdfEncryption, e);
+        }
+        byte[] objectBytes = new byte[] {(byte) objNumber, (byte) (objNumber >> 8), (byte) (objNumber >> 16),
+                (byte) objGeneration, (byte) (objGeneration >> 8)};
+        md.update(mkey);
+        md.update(objectBytes);
+        if (salt != null) {
+            md.update(salt);
+        }
+        byte[] key = md.digest();
+        int keySize = Math.min(mkey.length + 5, 16);
+        return keySize == key.length ? key : Arrays.copyOf(key, keySize);
+    }
+
     private void safeInitMessageDigest() {
         try {
             md5 = MessageDigest.getInstance("MD5");
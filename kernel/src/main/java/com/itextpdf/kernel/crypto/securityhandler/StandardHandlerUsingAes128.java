@@ -68,30 +68,18 @@ public class StandardHandlerUsingAes128 extends StandardHandlerUsingStandard128
     }
 
     @Override
-    public OutputStreamEncryption getEncryptionStream(OutputStream os) {
-        return new OutputStreamAesEncryption(os, nextObjectKey, 0, nextObjectKeySize);
+    protected OutputStreamEncryption createEncryptionStream(OutputStream os, byte[] key, int off, int len) {
+        return new OutputStreamAesEncryption(os, key, off, len, isJceCipherUsed());
     }
 
     @Override
-    public IDecryptor getDecryptor() {
-        return new AesDecryptor(nextObjectKey, 0, nextObjectKeySize);
+    protected IDecryptor createDecryptor(byte[] key, int off, int len) {
+        return new AesDecryptor(key, off, len, isJceCipherUsed());
     }
 
     @Override
-    public void setHashKeyForNextObject(int objNumber, int objGeneration) {
-        md5.reset(); // added by ujihara
-        extra[0] = (byte) objNumber;
-        extra[1] = (byte) (objNumber >> 8);
-        extra[2] = (byte) (objNumber >> 16);
-        extra[3] = (byte) objGeneration;
-        extra[4] = (byte) (objGeneration >> 8);
-        md5.update(mkey);
-        md5.update(extra);
-        md5.update(salt);
-        nextObjectKey = md5.digest();
-        nextObjectKeySize = mkey.length + 5;
-        if (nextObjectKeySize > 16)
-            nextObjectKeySize = 16;
+    protected byte[] computeObjectKey(int objNumber, int objGeneration) {
+        return computeObjectKey(objNumber, objGeneration, salt);
     }
 
     @Override
@@ -59,6 +59,7 @@ import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfNumber;
 import java.io.OutputStream;
 import java.security.MessageDigest;
+import java.util.Arrays;
 
 public class StandardHandlerUsingAes256 extends StandardSecurityHandler {
 
@@ -88,14 +89,30 @@ public class StandardHandlerUsingAes256 extends StandardSecurityHandler {
         // in AES256 we don't recalculate nextObjectKey
     }
 
+    @Override
+    protected byte[] computeObjectKey(int objNumber, int objGeneration) {
+        // in AES256 the same key is used for all the objects
+        return Arrays.copyOf(nextObjectKey, nextObjectKeySize);
+    }
+
     @Override
     public OutputStreamEncryption getEncryptionStream(OutputStream os) {
-        return new OutputStreamAesEncryption(os, nextObjectKey, 0, nextObjectKeySize);
+        return createEncryptionStream(os, nextObjectKey, 0, nextObjectKeySize);
     }
 
     @Override
     public IDecryptor getDecryptor() {
-        return new AesDecryptor(nextObjectKey, 0, nextObjectKeySize);
+        return createDecryptor(nextObjectKey, 0, nextObjectKeySize);
+    }
+
+    @Override
+    protected OutputStreamEncryption createEncryptionStream(OutputStream os, byte[] key, int off, int len) {
+        return new OutputStreamAesEncryption(os, key, off, len, isJceCipherUsed());
+    }
+
+    @Override
+    protected IDecryptor createDecryptor(byte[] key, int off, int len) {
+        return new AesDecryptor(key, off, len, isJceCipherUsed());
     }
 
     private void initKeyAndFillDictionary(PdfDictionary encryptionDictionary, byte[] userPassword, byte[] ownerPassword,
@@ -84,12 +84,22 @@ public class StandardHandlerUsingStandard40 extends StandardSecurityHandler {
 
     @Override
     public OutputStreamEncryption getEncryptionStream(OutputStream os) {
-        return new OutputStreamStandardEncryption(os, nextObjectKey, 0, nextObjectKeySize);
+        return createEncryptionStream(os, nextObjectKey, 0, nextObjectKeySize);
     }
 
     @Override
     public IDecryptor getDecryptor() {
-        return new StandardDecryptor(nextObjectKey, 0, nextObjectKeySize);
+        return createDecryptor(nextObjectKey, 0, nextObjectKeySize);
+    }
+
+    @Override
+    protected OutputStreamEncryption createEncryptionStream(OutputStream os, byte[] key, int off, int len) {
+        return new OutputStreamStandardEncryption(os, key, off, len);
+    }
+
+    @Override
+    protected IDecryptor createDecryptor(byte[] key, int off, int len) {
+        return new StandardDecryptor(key, off, len);
     }
 
     public byte[] computeUserPassword(byte[] ownerPassword, PdfDictionary encryptionDictionary) {
@@ -60,9 +60,9 @@ import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.PdfString;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
@@ -73,7 +73,10 @@ public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
 
     protected static final byte[] emptyBytes = new byte[0];
 
-    protected Map<Integer, Glyph> notdefGlyphs = new HashMap<>();
+    /**
+     * Lazily filled when the glyphs are requested, the same font may be used by several content processors at once.
+     */
+    protected Map<Integer, Glyph> notdefGlyphs = new ConcurrentHashMap<>();
 
     /**
      * false, if the font comes from PdfDocument.
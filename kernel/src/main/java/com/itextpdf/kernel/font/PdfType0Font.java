@@ -44,7 +44,6 @@
 package com.itextpdf.kernel.font;
 
 import com.itextpdf.io.LogMessageConstant;
-import com.itextpdf.io.font.CFFFontSubset;
 import com.itextpdf.io.font.CMapEncoding;
 import com.itextpdf.io.font.CidFont;
 import com.itextpdf.io.font.CidFontProperties;
@@ -659,10 +658,11 @@ public class PdfType0Font extends PdfFont {
             }
             PdfDictionary fontDescriptor = getFontDescriptor(fontName);
             if (ttf.isCff()) {
-                byte[] cffBytes = ttf.getFontStreamBytes();
+                byte[] cffBytes;
                 if (subset || subsetRanges != null) {
-                    CFFFontSubset cff = new CFFFontSubset(ttf.getFontStreamBytes(), longTag);
-                    cffBytes = cff.Process(cff.getNames()[0]);
+                    cffBytes = ttf.getCffSubset(longTag.keySet());
+                } else {
+                    cffBytes = ttf.getFontStreamBytes();
                 }
                 fontStream = getPdfFontStream(cffBytes, new int[]{cffBytes.length});
                 fontStream.put(PdfName.Subtype, new PdfName("CIDFontType0C"));
@@ -0,0 +1,152 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.log;
+
+/**
+ * Metrics reported to {@link IMetricsListener}.
+ * Counters are reported in events or bytes, timers are reported in nanoseconds.
+ */
+public enum Metric {
+
+    /**
+     * Number of indirect objects parsed by the reader.
+     */
+    OBJECTS_READ(false),
+    /**
+     * Number of object streams decoded by the reader.
+     */
+    OBJECT_STREAMS_DECODED(false),
+    /**
+     * Number of objects read from the decoded object streams kept in the cache in lazy object stream decoding mode.
+     */
+    OBJECT_STREAM_CACHE_HITS(false),
+    /**
+     * Number of streams decoded by the reader.
+     */
+    STREAMS_DECODED(false),
+    /**
+     * Number of encoded stream bytes passed to the filters.
+     */
+    STREAM_BYTES_ENCODED(false),
+    /**
+     * Number of stream bytes produced by the filters.
+     */
+    STREAM_BYTES_DECODED(false),
+    /**
+     * Number of streams which decoded bytes were taken from the streams prefetched in advance.
+     */
+    PREFETCHED_STREAM_HITS(false),
+    /**
+     * Number of indirect objects flushed by the writer.
+     */
+    OBJECTS_WRITTEN(false),
+    /**
+     * Number of copied objects which were replaced by the previously copied equal objects in smart mode.
+     */
+    SMART_MODE_DUPLICATES(false),
+    /**
+     * Number of stream bytes passed to the deflater.
+     */
+    STREAM_BYTES_TO_COMPRESS(false),
+    /**
+     * Number of compressed stream bytes produced by the deflater.
+     */
+    STREAM_BYTES_COMPRESSED(false),
+    /**
+     * Number of fonts flushed by the document.
+     */
+    FONTS_FLUSHED(false),
+
+    /**
+     * Time spent on reading the cross-reference table, including rebuilding of the broken one.
+     */
+    XREF_READING_TIME(true),
+    /**
+     * Time spent on applying the filters to the stream bytes.
+     */
+    STREAM_DECODING_TIME(true),
+    /**
+     * Time spent on compressing the streams.
+     */
+    STREAM_COMPRESSION_TIME(true),
+    /**
+     * Time spent on flushing the fonts, including font subsetting.
+     */
+    FONT_FLUSHING_TIME(true),
+    /**
+     * Time spent on flushing the tag structure on closing the document.
+     */
+    TAG_STRUCTURE_FLUSHING_TIME(true),
+    /**
+     * Time spent on flushing the pages on closing the document.
+     */
+    PAGES_FLUSHING_TIME(true),
+    /**
+     * Time spent on flushing the objects which were not flushed before closing the document.
+     */
+    WAITING_OBJECTS_FLUSHING_TIME(true),
+    /**
+     * Time spent on writing the cross-reference table and the trailer.
+     */
+    XREF_WRITING_TIME(true),
+    /**
+     * Total time spent on closing the document.
+     */
+    CLOSING_TIME(true);
+
+    private final boolean timer;
+
+    Metric(boolean timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * Checks whether the metric is measured in nanoseconds.
+     *
+     * @return {@code true} for timers, {@code false} for counters.
+     */
+    public boolean isTimer() {
+        return timer;
+    }
+}
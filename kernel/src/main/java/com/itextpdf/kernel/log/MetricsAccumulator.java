@@ -0,0 +1,94 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.log;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Implementation of the {@link IMetricsListener} interface that sums up the reported values.
+ * It is thread-safe and could be shared between several documents in order to collect the overall statistics.
+ */
+public class MetricsAccumulator implements IMetricsListener {
+
+    private final AtomicLongArray values = new AtomicLongArray(Metric.values().length);
+
+    @Override
+    public void onMetric(Metric metric, long value) {
+        values.addAndGet(metric.ordinal(), value);
+    }
+
+    /**
+     * Gets the accumulated value of the metric.
+     *
+     * @param metric the metric to get.
+     * @return the number of events or bytes for counters, or the number of nanoseconds for timers.
+     */
+    public long get(Metric metric) {
+        return values.get(metric.ordinal());
+    }
+
+    /**
+     * Gets the accumulated values of all the metrics.
+     *
+     * @return the map of the metrics to their values.
+     */
+    public Map<Metric, Long> getAll() {
+        Map<Metric, Long> result = new EnumMap<>(Metric.class);
+        for (Metric metric : Metric.values()) {
+            result.put(metric, values.get(metric.ordinal()));
+        }
+        return result;
+    }
+
+    /**
+     * Resets all the metrics to zero.
+     */
+    public void reset() {
+        for (int i = 0; i < values.length(); i++) {
+            values.set(i, 0);
+        }
+    }
+}
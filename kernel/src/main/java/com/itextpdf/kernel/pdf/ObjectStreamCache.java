@@ -0,0 +1,122 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps decoded object streams together with their parsed object offsets,
+ * so that objects can be read from an object stream one by one.
+ * The cache is bounded by the total size of decoded bytes, least recently used streams are evicted first.
+ */
+class ObjectStreamCache {
+
+    private final long maxSize;
+    private final LinkedHashMap<Integer, DecodedObjectStream> streams = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    ObjectStreamCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    DecodedObjectStream get(int objStreamNumber) {
+        return streams.get(objStreamNumber);
+    }
+
+    void put(int objStreamNumber, DecodedObjectStream stream) {
+        DecodedObjectStream previous = streams.put(objStreamNumber, stream);
+        if (previous != null) {
+            size -= previous.bytes.length;
+        }
+        size += stream.bytes.length;
+        Iterator<Map.Entry<Integer, DecodedObjectStream>> iterator = streams.entrySet().iterator();
+        // the most recently added stream is kept even if it alone exceeds the limit
+        while (size > maxSize && streams.size() > 1) {
+            DecodedObjectStream eldest = iterator.next().getValue();
+            size -= eldest.bytes.length;
+            iterator.remove();
+        }
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    void clear() {
+        streams.clear();
+        size = 0;
+    }
+
+    static class DecodedObjectStream {
+        final byte[] bytes;
+        final int[] objNumbers;
+        final int[] addresses;
+
+        DecodedObjectStream(byte[] bytes, int[] objNumbers, int[] addresses) {
+            this.bytes = bytes;
+            this.objNumbers = objNumbers;
+            this.addresses = addresses;
+        }
+
+        /**
+         * Gets offset of the object in decoded bytes.
+         *
+         * @param objNumber number of the object.
+         * @param index     expected index of the object in the object stream, it is checked first.
+         * @return offset of the object, or -1 if object stream doesn't contain it.
+         */
+        int getAddress(int objNumber, int index) {
+            if (index >= 0 && index < objNumbers.length && objNumbers[index] == objNumber) {
+                return addresses[index];
+            }
+            for (int k = 0; k < objNumbers.length; ++k) {
+                if (objNumbers[k] == objNumber) {
+                    return addresses[k];
+                }
+            }
+            return -1;
+        }
+    }
+}
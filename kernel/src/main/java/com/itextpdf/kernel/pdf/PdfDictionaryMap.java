@@ -0,0 +1,356 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact storage of {@link PdfDictionary} entries.
+ * <p>
+ * Keys and values are kept in two flat arrays sorted by key, so that iteration
+ * (and thus the order in which the writer outputs dictionary entries) is the same as with a
+ * {@link java.util.TreeMap}. Small dictionaries, which are the vast majority, are looked up
+ * by identity first, which hits for the static names from {@link PdfName} the reader returns
+ * for known keys, and by binary search otherwise. Once a dictionary grows over
+ * {@link #MAX_LINEAR_SIZE} entries an open addressing hash index over the arrays is maintained.
+ * <p>
+ * Null keys are not permitted.
+ */
+class PdfDictionaryMap extends AbstractMap<PdfName, PdfObject> implements Serializable {
+
+    private static final long serialVersionUID = -2576137251364390914L;
+
+    static final int MAX_LINEAR_SIZE = 8;
+
+    private static final PdfName[] EMPTY_KEYS = new PdfName[0];
+    private static final PdfObject[] EMPTY_VALUES = new PdfObject[0];
+
+    private PdfName[] keys = EMPTY_KEYS;
+    private PdfObject[] values = EMPTY_VALUES;
+    private int size;
+
+    /**
+     * Hash table of positions in {@link #keys} incremented by one, {@code 0} marks a free slot.
+     * Its length is a power of two. {@code null} while the map has no more than {@link #MAX_LINEAR_SIZE} entries.
+     */
+    private transient int[] index;
+    private transient int modCount;
+    private transient Set<Map.Entry<PdfName, PdfObject>> entrySet;
+
+    PdfDictionaryMap() {
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < size; i++) {
+            if (value == null ? values[i] == null : value.equals(values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public PdfObject get(Object key) {
+        int i = indexOf(key);
+        return i >= 0 ? values[i] : null;
+    }
+
+    @Override
+    public PdfObject put(PdfName key, PdfObject value) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+        int i = indexOf(key);
+        if (i >= 0) {
+            PdfObject old = values[i];
+            values[i] = value;
+            return old;
+        }
+        int pos;
+        if (size == 0 || keys[size - 1].compareTo(key) < 0) {
+            // keys of the dictionaries read from a file mostly come in sorted order
+            pos = size;
+        } else {
+            pos = -(binarySearch(key) + 1);
+        }
+        insertAt(pos, key, value);
+        return null;
+    }
+
+    @Override
+    public PdfObject remove(Object key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        PdfObject old = values[i];
+        removeAt(i);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        index = null;
+        modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<PdfName, PdfObject>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private int indexOf(Object o) {
+        if (!(o instanceof PdfName)) {
+            return -1;
+        }
+        PdfName key = (PdfName) o;
+        if (index == null) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            int i = binarySearch(key);
+            return i >= 0 ? i : -1;
+        }
+        int mask = index.length - 1;
+        for (int slot = hash(key) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            PdfName k = keys[index[slot] - 1];
+            if (k == key || k.equals(key)) {
+                return index[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    private int binarySearch(PdfName key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = keys[mid].compareTo(key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void insertAt(int pos, PdfName key, PdfObject value) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+        System.arraycopy(values, pos, values, pos + 1, size - pos);
+        keys[pos] = key;
+        values[pos] = value;
+        size++;
+        modCount++;
+        if (size > MAX_LINEAR_SIZE) {
+            if (pos == size - 1 && index != null && size * 2 <= index.length) {
+                addToIndex(pos);
+            } else {
+                rebuildIndex();
+            }
+        }
+    }
+
+    private void removeAt(int pos) {
+        int moved = size - pos - 1;
+        System.arraycopy(keys, pos + 1, keys, pos, moved);
+        System.arraycopy(values, pos + 1, values, pos, moved);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+        if (size > MAX_LINEAR_SIZE) {
+            rebuildIndex();
+        } else {
+            index = null;
+        }
+    }
+
+    private void rebuildIndex() {
+        int capacity = 16;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        if (index == null || index.length != capacity) {
+            index = new int[capacity];
+        } else {
+            Arrays.fill(index, 0);
+        }
+        for (int i = 0; i < size; i++) {
+            addToIndex(i);
+        }
+    }
+
+    private void addToIndex(int pos) {
+        int mask = index.length - 1;
+        int slot = hash(keys[pos]) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = pos + 1;
+    }
+
+    private static int hash(PdfName key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<PdfName, PdfObject>> {
+
+        @Override
+        public Iterator<Map.Entry<PdfName, PdfObject>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            PdfDictionaryMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<PdfName, PdfObject>> {
+
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Map.Entry<PdfName, PdfObject> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new Entry(keys[last], values[last], last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class Entry extends AbstractMap.SimpleEntry<PdfName, PdfObject> {
+
+        private static final long serialVersionUID = 4281462538497914327L;
+
+        private final int position;
+
+        Entry(PdfName key, PdfObject value, int position) {
+            super(key, value);
+            this.position = position;
+        }
+
+        @Override
+        public PdfObject setValue(PdfObject value) {
+            if (position < size && keys[position] == getKey()) {
+                values[position] = value;
+            } else {
+                put(getKey(), value);
+            }
+            return super.setValue(value);
+        }
+    }
+}
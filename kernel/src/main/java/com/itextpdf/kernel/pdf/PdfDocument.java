@@ -60,6 +60,8 @@ import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.log.Counter;
 import com.itextpdf.kernel.log.CounterFactory;
+import com.itextpdf.kernel.log.IMetricsListener;
+import com.itextpdf.kernel.log.Metric;
 import com.itextpdf.kernel.numbering.EnglishAlphabetNumbering;
 import com.itextpdf.kernel.numbering.RomanNumbering;
 import com.itextpdf.kernel.pdf.annot.PdfAnnotation;
@@ -314,7 +316,15 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      */
     public PdfObject getPdfObject(int objNum) {
         checkClosingStatus();
-        PdfIndirectReference reference = xref.get(objNum);
+        PdfIndirectReference reference;
+        if (reader != null && reader.properties.concurrentReading) {
+            // the references are created on demand, see PdfReader#readObject(PdfIndirectReference)
+            synchronized (reader) {
+                reference = xref.get(objNum);
+            }
+        } else {
+            reference = xref.get(objNum);
+        }
         if (reference == null) {
             return null;
         } else {
@@ -677,6 +687,9 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                 if (catalog.isFlushed()) {
                     throw new PdfException(PdfException.CannotCloseDocumentWithAlreadyFlushedPdfCatalog);
                 }
+                IMetricsListener metricsListener = writer.getMetricsListener();
+                long closingStart = System.nanoTime();
+                long phaseStart;
                 updateXmpMetadata();
                 if (getXmpMetadata() != null) {
                     PdfStream xmp = new PdfStream().makeIndirect(this);
@@ -695,7 +708,9 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                 PdfObject crypto = null;
                 if (properties.appendMode) {
                     if (structTreeRoot != null && structTreeRoot.getPdfObject().isModified()) {
+                        phaseStart = System.nanoTime();
                         tryFlushTagStructure();
+                        metricsListener.onMetric(Metric.TAG_STRUCTURE_FLUSHING_TIME, System.nanoTime() - phaseStart);
                     }
                     if (catalog.isOCPropertiesMayHaveChanged() && catalog.getOCProperties(false).getPdfObject().isModified()) {
                         catalog.getOCProperties(false).flush();
@@ -722,14 +737,19 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                     }
                     flushFonts();
 
+                    phaseStart = System.nanoTime();
+                    writer.precompressWaitingStreams(true);
                     writer.flushModifiedWaitingObjects();
+                    metricsListener.onMetric(Metric.WAITING_OBJECTS_FLUSHING_TIME, System.nanoTime() - phaseStart);
                     if (writer.crypto != null) {
                         assert reader.decrypt.getPdfObject() == writer.crypto.getPdfObject() : "Conflict with source encryption";
                         crypto = reader.decrypt.getPdfObject();
                     }
                 } else {
                     if (structTreeRoot != null) {
+                        phaseStart = System.nanoTime();
                         tryFlushTagStructure();
+                        metricsListener.onMetric(Metric.TAG_STRUCTURE_FLUSHING_TIME, System.nanoTime() - phaseStart);
                     }
                     if (catalog.isOCPropertiesMayHaveChanged()) {
                         catalog.getPdfObject().put(PdfName.OCProperties, catalog.getOCProperties(false).getPdfObject());
@@ -748,23 +768,29 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                         }
                     }
 
-                    for (int pageNum = 1; pageNum <= getNumberOfPages(); pageNum++) {
+                    // pages released by the streaming pages tree have been flushed already
+                    phaseStart = System.nanoTime();
+                    for (int pageNum = catalog.getPageTree().getNumberOfReleasedPages() + 1; pageNum <= getNumberOfPages(); pageNum++) {
                         getPage(pageNum).flush();
                     }
+                    metricsListener.onMetric(Metric.PAGES_FLUSHING_TIME, System.nanoTime() - phaseStart);
                     catalog.getPdfObject().flush(false);
                     info.flush();
                     flushFonts();
+                    phaseStart = System.nanoTime();
+                    writer.precompressWaitingStreams(false);
                     writer.flushWaitingObjects();
                     // flush unused objects
                     if (isFlushUnusedObjects()) {
                         for (int i = 0; i < xref.size(); i++) {
-                            PdfIndirectReference indirectReference = xref.get(i);
-                            if (!indirectReference.isFree() && !indirectReference.checkState(PdfObject.FLUSHED)) {
-                                PdfObject object = indirectReference.getRefersTo();
+                            // references released after flushing are not restored
+                            if (!xref.isFreeOrFlushed(i)) {
+                                PdfObject object = xref.get(i).getRefersTo();
                                 object.flush();
                             }
                         }
                     }
+                    metricsListener.onMetric(Metric.WAITING_OBJECTS_FLUSHING_TIME, System.nanoTime() - phaseStart);
 
                 }
                 byte[] originalFileID = null;
@@ -799,8 +825,11 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                 trailer.put(PdfName.Root, catalog.getPdfObject());
                 trailer.put(PdfName.Info, info.getPdfObject());
 
+                phaseStart = System.nanoTime();
                 xref.writeXrefTableAndTrailer(this, fileId, crypto);
                 writer.flush();
+                metricsListener.onMetric(Metric.XREF_WRITING_TIME, System.nanoTime() - phaseStart);
+                metricsListener.onMetric(Metric.CLOSING_TIME, System.nanoTime() - closingStart);
                 Counter counter = getCounter();
                 if (counter != null) {
                     counter.onDocumentWritten(writer.getCurrentPos());
@@ -1046,6 +1075,9 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         // It's important to copy tag structure after link annotations were copied, because object content items in tag
         // structure are not copied in case if their's OBJ key is annotation and doesn't contain /P entry.
         if (toDocument.isTagged()) {
+            if (isTagged()) {
+                tryLoadPageTags(page2page.keySet());
+            }
             if (isTagged()) {
                 if (tagStructureContext != null) {
                     tagStructureContext.actualizeTagsProperties();
@@ -1194,12 +1226,14 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
 
     /**
      * Gets static copy of cross reference table.
+     * References of the flushed objects may be released from the table to save memory, new instances are
+     * returned for them. Such references are equal, but not identical, to the ones previously used.
      */
     public List<PdfIndirectReference> listIndirectReferences() {
         checkClosingStatus();
         List<PdfIndirectReference> indRefs = new ArrayList<>(xref.size());
         for (int i = 0; i < xref.size(); ++i) {
-            PdfIndirectReference indref = xref.get(i);
+            PdfIndirectReference indref = xref.getWithoutRestoring(i);
             if (indref != null) {
                 indRefs.add(indref);
             }
@@ -1715,17 +1749,26 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
     }
 
     protected void flushFonts() {
+        long start = System.nanoTime();
+        int flushedFonts = 0;
         if (properties.appendMode) {
             for (PdfFont font : getDocumentFonts()) {
                 if (font.getPdfObject().checkState(PdfObject.MUST_BE_INDIRECT) || font.getPdfObject().getIndirectReference().checkState(PdfObject.MODIFIED)) {
                     font.flush();
+                    flushedFonts++;
                 }
             }
         } else {
             for (PdfFont font : getDocumentFonts()) {
                 font.flush();
+                flushedFonts++;
             }
         }
+        if (writer != null) {
+            IMetricsListener metricsListener = writer.getMetricsListener();
+            metricsListener.onMetric(Metric.FONTS_FLUSHED, flushedFonts);
+            metricsListener.onMetric(Metric.FONT_FLUSHING_TIME, System.nanoTime() - start);
+        }
     }
 
     /**
@@ -1792,8 +1835,48 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
             getTagStructureContext().removeAllConnectionsToTags();
             structTreeRoot.flush();
         } catch (Exception ex) {
-            throw new PdfException(PdfException.TagStructureFlushingFailedItMightBeCorrupted, ex);
+            if (!tryDropCorruptedTagStructure(ex)) {
+                throw new PdfException(PdfException.TagStructureFlushingFailedItMightBeCorrupted, ex);
+            }
+        }
+    }
+
+    /**
+     * Reads the tags of the pages before they are copied, so that in lazy tag structure mode the corrupted
+     * tag structure of the pages is found before anything is copied.
+     */
+    private void tryLoadPageTags(Collection<PdfPage> pages) {
+        try {
+            for (PdfPage page : pages) {
+                structTreeRoot.getPageMarkedContentReferences(page);
+            }
+        } catch (PdfException ex) {
+            if (!tryDropCorruptedTagStructure(ex)) {
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Treats the document as not tagged, if its tag structure, which is read lazily, turns out to be corrupted.
+     * The tag structure is left as it was read, like in case it fails to be initialized on opening.
+     *
+     * @param ex the exception thrown while the tag structure was processed
+     * @return true if the exception was caused by the corrupted tag structure and the document isn't tagged anymore.
+     */
+    boolean tryDropCorruptedTagStructure(Exception ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PdfException
+                    && PdfException.TagStructureReadingFailedItMightBeCorrupted.equals(cause.getMessage())) {
+                structTreeRoot = null;
+                tagStructureContext = null;
+                structParentIndex = -1;
+                Logger logger = LoggerFactory.getLogger(PdfDocument.class);
+                logger.error(LogMessageConstant.TAG_STRUCTURE_INIT_FAILED, cause);
+                return true;
+            }
         }
+        return false;
     }
 
     /**
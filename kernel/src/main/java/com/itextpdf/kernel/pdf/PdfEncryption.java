@@ -66,6 +66,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.security.MessageDigest;
 import java.security.cert.Certificate;
+import java.util.Arrays;
 
 /**
  * @author Paulo Soares
@@ -298,6 +299,16 @@ public class PdfEncryption extends PdfObjectWrapper<PdfDictionary> {
         securityHandler.setHashKeyForNextObject(objNumber, objGeneration);
     }
 
+    /**
+     * Defines whether AES encryption and decryption is done by the {@link javax.crypto.Cipher} of the JCE,
+     * which uses the hardware AES instructions where available, instead of the BouncyCastle engine.
+     * Has no effect for RC4 encryption.
+     *
+     * @param jceCipherUsed {@code true} to use the JCE cipher
+     */
+    public void setJceCipherUsed(boolean jceCipherUsed) {
+        securityHandler.setJceCipherUsed(jceCipherUsed);
+    }
 
     public OutputStreamEncryption getEncryptionStream(OutputStream os) {
         return securityHandler.getEncryptionStream(os);
@@ -305,30 +316,40 @@ public class PdfEncryption extends PdfObjectWrapper<PdfDictionary> {
 
     public byte[] encryptByteArray(byte[] b) {
         ByteArrayOutputStream ba = new ByteArrayOutputStream();
-        OutputStreamEncryption ose = getEncryptionStream(ba);
-        try {
-            ose.write(b);
-        } catch (IOException e) {
-            throw new PdfException(PdfException.PdfEncryption, e);
-        }
-        ose.finish();
-        return ba.toByteArray();
+        return encryptByteArray(b, ba, getEncryptionStream(ba));
+    }
+
+    /**
+     * Encrypts the bytes of the specified object. Unlike {@link #setHashKeyForNextObject(int, int)}
+     * followed by {@link #encryptByteArray(byte[])}, doesn't change the state of this encryption,
+     * so it could be called from several threads at once.
+     *
+     * @param b the bytes to encrypt
+     * @param objNumber the number of the object
+     * @param objGeneration the generation of the object
+     * @return the encrypted bytes
+     */
+    public byte[] encryptByteArray(byte[] b, int objNumber, int objGeneration) {
+        ByteArrayOutputStream ba = new ByteArrayOutputStream();
+        return encryptByteArray(b, ba, securityHandler.getEncryptionStream(ba, objNumber, objGeneration));
     }
 
     public byte[] decryptByteArray(byte[] b) {
-        try {
-            ByteArrayOutputStream ba = new ByteArrayOutputStream();
-            IDecryptor dec = securityHandler.getDecryptor();
-            byte[] b2 = dec.update(b, 0, b.length);
-            if (b2 != null)
-                ba.write(b2);
-            b2 = dec.finish();
-            if (b2 != null)
-                ba.write(b2);
-            return ba.toByteArray();
-        } catch (IOException e) {
-            throw new PdfException(PdfException.PdfEncryption, e);
-        }
+        return decryptByteArray(b, securityHandler.getDecryptor());
+    }
+
+    /**
+     * Decrypts the bytes of the specified object. Unlike {@link #setHashKeyForNextObject(int, int)}
+     * followed by {@link #decryptByteArray(byte[])}, doesn't change the state of this encryption,
+     * so it could be called from several threads at once.
+     *
+     * @param b the bytes to decrypt
+     * @param objNumber the number of the object
+     * @param objGeneration the generation of the object
+     * @return the decrypted bytes
+     */
+    public byte[] decryptByteArray(byte[] b, int objNumber, int objGeneration) {
+        return decryptByteArray(b, securityHandler.getDecryptor(objNumber, objGeneration));
     }
 
     public boolean isOpenedWithFullPermission() {
@@ -524,4 +545,27 @@ public class PdfEncryption extends PdfObjectWrapper<PdfDictionary> {
         }
         return setCryptoMode(cryptoMode, length);
     }
+
+    private static byte[] encryptByteArray(byte[] b, ByteArrayOutputStream ba, OutputStreamEncryption ose) {
+        try {
+            ose.write(b);
+        } catch (IOException e) {
+            throw new PdfException(PdfException.PdfEncryption, e);
+        }
+        ose.finish();
+        return ba.toByteArray();
+    }
+
+    private static byte[] decryptByteArray(byte[] b, IDecryptor dec) {
+        byte[] b1 = dec.update(b, 0, b.length);
+        byte[] b2 = dec.finish();
+        if (b2 == null || b2.length == 0) {
+            return b1 != null ? b1 : new byte[0];
+        } else if (b1 == null || b1.length == 0) {
+            return b2;
+        }
+        byte[] result = Arrays.copyOf(b1, b1.length + b2.length);
+        System.arraycopy(b2, 0, result, b1.length, b2.length);
+        return result;
+    }
 }
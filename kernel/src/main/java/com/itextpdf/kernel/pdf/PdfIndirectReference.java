@@ -62,8 +62,10 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
 
     /**
      * PdfObject that current PdfIndirectReference instance refers to.
+     * The field is volatile, since the object could be read by another thread in concurrent reading mode,
+     * see {@link ReaderProperties#useConcurrentReading()}.
      */
-    protected PdfObject refersTo = null;
+    protected volatile PdfObject refersTo = null;
 
     /**
      * Indirect reference number of object stream containing refersTo object.
@@ -287,6 +289,9 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
      * @param state special flag of current object
      */
     protected PdfIndirectReference setState(short state) {
+        if ((state & MODIFIED) != 0 && pdfDocument != null) {
+            pdfDocument.getXref().markModified(objNr);
+        }
         return (PdfIndirectReference) super.setState(state);
     }
 
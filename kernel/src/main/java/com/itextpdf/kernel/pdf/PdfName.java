@@ -852,6 +852,11 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
 
     protected String value = null;
 
+    /**
+     * Cached hash code, {@code 0} until first computed.
+     */
+    private transient int hash;
+
     /**
      * map strings to all known static names
      */
@@ -887,6 +892,11 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
         super(content);
     }
 
+    PdfName(byte[] content, boolean directOnly) {
+        super(directOnly);
+        this.content = content;
+    }
+
     private PdfName() {
         super();
     }
@@ -975,7 +985,35 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
 
     @Override
     public int hashCode() {
-        return getValue().hashCode();
+        int h = hash;
+        if (h == 0) {
+            h = value != null ? value.hashCode() : contentHashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Calculates the same hash code as {@code getValue().hashCode()} would, decoding the content
+     * on the fly instead of creating the value string.
+     */
+    private int contentHashCode() {
+        int h = 0;
+        try {
+            for (int k = 0; k < content.length; ++k) {
+                char c = (char) content[k];
+                if (c == '#') {
+                    byte c1 = content[k + 1];
+                    byte c2 = content[k + 2];
+                    c = (char) ((ByteBuffer.getHex(c1) << 4) + ByteBuffer.getHex(c2));
+                    k += 2;
+                }
+                h = 31 * h + c;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // empty on purpose, the same way as in generateValue()
+        }
+        return h;
     }
 
     protected void generateValue() {
@@ -0,0 +1,236 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteBuffer;
+
+import java.util.Arrays;
+
+/**
+ * Interns names read by the parsers, looking them up by their raw bytes, so that the names which are
+ * encountered again are returned without creating any new objects.
+ * <p>
+ * A name is looked up among the static names declared in {@link PdfName} first, and then among the
+ * non-standard names this pool has already seen, like resource keys {@code /F1} or {@code /Im3}. The
+ * pool keeps up to a given number of such names, further names are created anew each time. Pooled
+ * names are shared between all the objects they were read to, therefore they can not be made indirect.
+ * <p>
+ * The pool is not thread safe, it is meant to be owned by a single parser, e.g. by a {@link PdfReader}.
+ */
+public final class PdfNamePool {
+
+    /**
+     * The default maximum number of non-standard names kept by a pool.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final NameTable staticNames = createStaticNamesTable();
+
+    private final NameTable names = new NameTable(16);
+    private final int maxSize;
+
+    /**
+     * Creates a pool keeping up to {@link #DEFAULT_MAX_SIZE} non-standard names.
+     */
+    public PdfNamePool() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a pool keeping up to the specified number of non-standard names.
+     *
+     * @param maxSize the maximum number of non-standard names to keep, {@code 0} to only intern
+     *                the static names of {@link PdfName}
+     */
+    public PdfNamePool(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Maximum size of the name pool must not be negative");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the name with the content held in the specified buffer, e.g. the current token of a
+     * {@link com.itextpdf.io.source.PdfTokenizer}.
+     *
+     * @param buffer the buffer holding the raw name content, without the leading solidus
+     * @return the interned name, or a new one if it is not a static name and the pool is full
+     */
+    public PdfName get(ByteBuffer buffer) {
+        return get(buffer.getInternalBuffer(), 0, buffer.size());
+    }
+
+    /**
+     * Gets the name with the specified raw content.
+     *
+     * @param content the array holding the raw name content, without the leading solidus
+     * @param offset  the offset of the name content in the array
+     * @param length  the length of the name content
+     * @return the interned name, or a new one if it is not a static name and the pool is full
+     */
+    public PdfName get(byte[] content, int offset, int length) {
+        int hash = hash(content, offset, length);
+        PdfName name = staticNames.find(content, offset, length, hash);
+        if (name == null) {
+            name = names.find(content, offset, length, hash);
+        }
+        if (name == null) {
+            byte[] copy = Arrays.copyOfRange(content, offset, offset + length);
+            if (names.size() < maxSize) {
+                name = new PdfName(copy, true);
+                names.add(copy, hash, name);
+            } else {
+                name = new PdfName(copy);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Gets the number of non-standard names kept by this pool.
+     *
+     * @return the number of pooled names
+     */
+    public int size() {
+        return names.size();
+    }
+
+    private static int hash(byte[] content, int offset, int length) {
+        int h = 0;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + content[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static NameTable createStaticNamesTable() {
+        NameTable table = new NameTable(PdfName.staticNames.size() * 2);
+        for (PdfName name : PdfName.staticNames.values()) {
+            byte[] content = name.getInternalContent();
+            int hash = hash(content, 0, content.length);
+            if (table.find(content, 0, content.length, hash) == null) {
+                table.add(content, hash, name);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Open addressing hash table of names keyed by their raw content.
+     */
+    private static final class NameTable {
+
+        private byte[][] contents;
+        private int[] hashes;
+        private PdfName[] names;
+        private int size;
+
+        NameTable(int expectedSize) {
+            int capacity = 16;
+            while (capacity < expectedSize * 2) {
+                capacity <<= 1;
+            }
+            allocate(capacity);
+        }
+
+        int size() {
+            return size;
+        }
+
+        PdfName find(byte[] content, int offset, int length, int hash) {
+            int mask = names.length - 1;
+            for (int slot = hash & mask; names[slot] != null; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash && contentEquals(contents[slot], content, offset, length)) {
+                    return names[slot];
+                }
+            }
+            return null;
+        }
+
+        void add(byte[] content, int hash, PdfName name) {
+            if ((size + 1) * 2 > names.length) {
+                byte[][] oldContents = contents;
+                int[] oldHashes = hashes;
+                PdfName[] oldNames = names;
+                allocate(names.length * 2);
+                for (int i = 0; i < oldNames.length; i++) {
+                    if (oldNames[i] != null) {
+                        insert(oldContents[i], oldHashes[i], oldNames[i]);
+                    }
+                }
+            }
+            insert(content, hash, name);
+            size++;
+        }
+
+        private void allocate(int capacity) {
+            contents = new byte[capacity][];
+            hashes = new int[capacity];
+            names = new PdfName[capacity];
+        }
+
+        private void insert(byte[] content, int hash, PdfName name) {
+            int mask = names.length - 1;
+            int slot = hash & mask;
+            while (names[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            contents[slot] = content;
+            hashes[slot] = hash;
+            names[slot] = name;
+        }
+
+        private static boolean contentEquals(byte[] stored, byte[] content, int offset, int length) {
+            if (stored.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (stored[i] != content[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -43,6 +43,8 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.kernel.PdfException;
+
 import java.io.Serializable;
 import java.util.*;
 
@@ -56,6 +58,15 @@ public class PdfNumTree implements Serializable {
     private Map<Integer, PdfObject> items = new HashMap<>();
     private PdfName treeType;
 
+    /**
+     * Leaf nodes which have already been written by {@link #flushLeaves(int)}, in the order of their keys.
+     */
+    private List<PdfIndirectReference> flushedLeaves = new ArrayList<>();
+    /**
+     * The lowest and the highest key of each of the {@link #flushedLeaves}.
+     */
+    private List<int[]> flushedLeavesLimits = new ArrayList<>();
+
     /**
      * Creates the NumberTree of current Document
      *
@@ -74,16 +85,7 @@ public class PdfNumTree implements Serializable {
             return items;
         }
 
-        PdfDictionary numbers = null;
-        if (treeType.equals(PdfName.PageLabels)) {
-            numbers = catalog.getPdfObject().getAsDictionary(PdfName.PageLabels);
-        } else if (treeType.equals(PdfName.ParentTree)) {
-            PdfDictionary structTreeRoot = catalog.getPdfObject().getAsDictionary(PdfName.StructTreeRoot);
-            if (structTreeRoot != null) {
-                numbers = structTreeRoot.getAsDictionary(PdfName.ParentTree);
-            }
-        }
-
+        PdfDictionary numbers = getTreeRoot();
         if (numbers != null) {
             readTree(numbers);
         }
@@ -91,14 +93,145 @@ public class PdfNumTree implements Serializable {
         return items;
     }
 
+    /**
+     * Gets the value of the entry with the specified key from the tree stored in the document.
+     * Unlike {@link #getNumbers()}, the entries are not read into memory: only the nodes on the path
+     * to the key are visited, which takes a logarithmic time for the trees with correct Limits.
+     *
+     * @param key the key of the entry.
+     * @return the value of the entry, or null if there is no entry with such key.
+     */
+    public PdfObject getEntry(int key) {
+        PdfDictionary node = getTreeRoot();
+        while (node != null) {
+            PdfArray nums = node.getAsArray(PdfName.Nums);
+            if (nums != null) {
+                return findInLeaf(nums, key);
+            }
+            PdfArray kids = node.getAsArray(PdfName.Kids);
+            if (kids == null) {
+                return null;
+            }
+            PdfDictionary next = null;
+            int low = 0;
+            int high = kids.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                PdfDictionary kid = kids.getAsDictionary(mid);
+                PdfArray limits = kid != null ? kid.getAsArray(PdfName.Limits) : null;
+                if (limits == null || limits.size() < 2) {
+                    // the tree is malformed, so let's just look through all the kids
+                    return findInKids(kids, key);
+                }
+                if (key < limits.getAsNumber(0).intValue()) {
+                    high = mid - 1;
+                } else if (key > limits.getAsNumber(1).intValue()) {
+                    low = mid + 1;
+                } else {
+                    next = kid;
+                    break;
+                }
+            }
+            node = next;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the greatest key of the tree stored in the document. Only the rightmost branch of the tree is read,
+     * if the Limits of its nodes and of their left siblings agree with the keys of its leaf. Otherwise,
+     * e.g. if the Limits are missing, all the keys of the tree are looked through.
+     *
+     * @return the greatest key, or -1 if the tree is empty or doesn't exist.
+     */
+    public int getMaxKey() {
+        PdfDictionary root = getTreeRoot();
+        if (root == null) {
+            return -1;
+        }
+        // the upper limits of the rightmost branch nodes, and of the kids preceding them
+        List<PdfNumber> branchUpperLimits = new ArrayList<>();
+        List<PdfNumber> siblingUpperLimits = new ArrayList<>();
+        PdfDictionary node = root;
+        while (node.getAsArray(PdfName.Nums) == null) {
+            PdfArray kids = node.getAsArray(PdfName.Kids);
+            if (kids == null || kids.size() == 0) {
+                return -1;
+            }
+            node = kids.getAsDictionary(kids.size() - 1);
+            if (node == null) {
+                return getMaxKey(root);
+            }
+            branchUpperLimits.add(getUpperLimit(node));
+            if (kids.size() > 1) {
+                siblingUpperLimits.add(getUpperLimit(kids.getAsDictionary(kids.size() - 2)));
+            }
+        }
+        int maxKey = getMaxKeyOfLeaf(node.getAsArray(PdfName.Nums));
+        if (node == root) {
+            return maxKey;
+        }
+        for (PdfNumber upperLimit : branchUpperLimits) {
+            if (upperLimit == null || upperLimit.intValue() != maxKey) {
+                return getMaxKey(root);
+            }
+        }
+        for (PdfNumber upperLimit : siblingUpperLimits) {
+            if (upperLimit == null || upperLimit.intValue() >= maxKey) {
+                return getMaxKey(root);
+            }
+        }
+        return maxKey;
+    }
+
     public void addEntry(Integer key, PdfObject value) {
+        if (!flushedLeaves.isEmpty() && key <= flushedLeavesLimits.get(flushedLeavesLimits.size() - 1)[1]) {
+            throw new PdfException(PdfException.NumberTreeLeafWithTheKeyWasAlreadyFlushed).setMessageParams(key);
+        }
         items.put(key, value);
     }
 
+    /**
+     * Writes the entries with the keys lower than the specified bound as leaf nodes of the tree, so that
+     * they don't need to be kept in memory until the tree is built. Only the leaves filled completely are written,
+     * so the resultant tree is the same as if all the entries were kept till {@link #buildTree()}.
+     * <p/>
+     * No entries with keys lower than the keys of the written leaves may be added afterwards,
+     * and the written entries are not returned by {@link #getNumbers()} anymore.
+     *
+     * @param upperBound the key, which is greater than the keys of all the entries which could be added later.
+     */
+    public void flushLeaves(int upperBound) {
+        List<Integer> keys = new ArrayList<>();
+        for (Integer key : items.keySet()) {
+            if (key < upperBound) {
+                keys.add(key);
+            }
+        }
+        if (keys.size() < NODE_SIZE) {
+            return;
+        }
+        Integer[] numbers = keys.toArray(new Integer[keys.size()]);
+        Arrays.sort(numbers);
+        for (int offset = 0; offset + NODE_SIZE <= numbers.length; offset += NODE_SIZE) {
+            int end = offset + NODE_SIZE;
+            PdfDictionary leaf = createLeaf(numbers, offset, end);
+            flushedLeaves.add(leaf.getIndirectReference());
+            flushedLeavesLimits.add(new int[] {(int) numbers[offset], (int) numbers[end - 1]});
+            for (int k = offset; k < end; ++k) {
+                items.remove(numbers[k]);
+            }
+            leaf.flush();
+        }
+    }
+
     public PdfDictionary buildTree() {
         Integer[] numbers = new Integer[items.size()];
         numbers = items.keySet().toArray(numbers);
         Arrays.sort(numbers);
+        if (!flushedLeaves.isEmpty()) {
+            return buildTreeOverFlushedLeaves(numbers);
+        }
         if (numbers.length <= NODE_SIZE) {
             PdfDictionary dic = new PdfDictionary();
             PdfArray ar = new PdfArray();
@@ -159,6 +292,171 @@ public class PdfNumTree implements Serializable {
         }
     }
 
+    private PdfDictionary buildTreeOverFlushedLeaves(Integer[] numbers) {
+        int leavesCount = (numbers.length + NODE_SIZE - 1) / NODE_SIZE;
+        int top = flushedLeaves.size() + leavesCount;
+        PdfObject[] kids = new PdfObject[top];
+        int[] lowKeys = new int[top];
+        int[] highKeys = new int[top];
+        for (int i = 0; i < flushedLeaves.size(); ++i) {
+            kids[i] = flushedLeaves.get(i);
+            lowKeys[i] = flushedLeavesLimits.get(i)[0];
+            highKeys[i] = flushedLeavesLimits.get(i)[1];
+        }
+        for (int i = 0; i < leavesCount; ++i) {
+            int offset = i * NODE_SIZE;
+            int end = Math.min(offset + NODE_SIZE, numbers.length);
+            int kid = flushedLeaves.size() + i;
+            kids[kid] = createLeaf(numbers, offset, end);
+            lowKeys[kid] = (int) numbers[offset];
+            highKeys[kid] = (int) numbers[end - 1];
+        }
+        while (top > NODE_SIZE) {
+            int tt = (top + NODE_SIZE - 1) / NODE_SIZE;
+            for (int k = 0; k < tt; ++k) {
+                int offset = k * NODE_SIZE;
+                int end = Math.min(offset + NODE_SIZE, top);
+                PdfDictionary dic = new PdfDictionary().makeIndirect(catalog.getDocument());
+                PdfArray arr = new PdfArray();
+                arr.add(new PdfNumber(lowKeys[offset]));
+                arr.add(new PdfNumber(highKeys[end - 1]));
+                dic.put(PdfName.Limits, arr);
+                arr = new PdfArray();
+                for (int i = offset; i < end; ++i) {
+                    arr.add(kids[i]);
+                }
+                dic.put(PdfName.Kids, arr);
+                kids[k] = dic;
+                lowKeys[k] = lowKeys[offset];
+                highKeys[k] = highKeys[end - 1];
+            }
+            top = tt;
+        }
+        PdfArray arr = new PdfArray();
+        for (int k = 0; k < top; ++k) {
+            arr.add(kids[k]);
+        }
+        PdfDictionary dic = new PdfDictionary();
+        dic.put(PdfName.Kids, arr);
+        return dic;
+    }
+
+    private PdfDictionary createLeaf(Integer[] numbers, int offset, int end) {
+        PdfDictionary dic = new PdfDictionary();
+        PdfArray arr = new PdfArray();
+        arr.add(new PdfNumber((int) numbers[offset]));
+        arr.add(new PdfNumber((int) numbers[end - 1]));
+        dic.put(PdfName.Limits, arr);
+        arr = new PdfArray();
+        for (; offset < end; ++offset) {
+            arr.add(new PdfNumber((int) numbers[offset]));
+            arr.add(items.get(numbers[offset]));
+        }
+        dic.put(PdfName.Nums, arr);
+        dic.makeIndirect(catalog.getDocument());
+        return dic;
+    }
+
+    private PdfDictionary getTreeRoot() {
+        if (treeType.equals(PdfName.PageLabels)) {
+            return catalog.getPdfObject().getAsDictionary(PdfName.PageLabels);
+        } else if (treeType.equals(PdfName.ParentTree)) {
+            PdfDictionary structTreeRoot = catalog.getPdfObject().getAsDictionary(PdfName.StructTreeRoot);
+            if (structTreeRoot != null) {
+                return structTreeRoot.getAsDictionary(PdfName.ParentTree);
+            }
+        }
+        return null;
+    }
+
+    private static PdfNumber getUpperLimit(PdfDictionary node) {
+        PdfArray limits = node != null ? node.getAsArray(PdfName.Limits) : null;
+        return limits != null ? limits.getAsNumber(1) : null;
+    }
+
+    private static int getMaxKeyOfLeaf(PdfArray nums) {
+        int maxKey = -1;
+        for (int k = 0; k + 1 < nums.size(); k += 2) {
+            PdfNumber number = nums.getAsNumber(k);
+            if (number != null && number.intValue() > maxKey) {
+                maxKey = number.intValue();
+            }
+        }
+        return maxKey;
+    }
+
+    /**
+     * Looks through all the keys of the subtree, without relying on the Limits of its nodes.
+     */
+    private static int getMaxKey(PdfDictionary node) {
+        PdfArray nums = node.getAsArray(PdfName.Nums);
+        if (nums != null) {
+            return getMaxKeyOfLeaf(nums);
+        }
+        int maxKey = -1;
+        PdfArray kids = node.getAsArray(PdfName.Kids);
+        if (kids != null) {
+            for (int k = 0; k < kids.size(); ++k) {
+                PdfDictionary kid = kids.getAsDictionary(k);
+                if (kid != null) {
+                    maxKey = Math.max(maxKey, getMaxKey(kid));
+                }
+            }
+        }
+        return maxKey;
+    }
+
+    private static PdfObject findInLeaf(PdfArray nums, int key) {
+        int low = 0;
+        int high = nums.size() / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            PdfNumber number = nums.getAsNumber(2 * mid);
+            if (number == null) {
+                break;
+            }
+            int midKey = number.intValue();
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return nums.get(2 * mid + 1);
+            }
+        }
+        // the keys might be not sorted in the malformed documents
+        for (int k = 0; k + 1 < nums.size(); k += 2) {
+            PdfNumber number = nums.getAsNumber(k);
+            if (number != null && number.intValue() == key) {
+                return nums.get(k + 1);
+            }
+        }
+        return null;
+    }
+
+    private static PdfObject findInKids(PdfArray kids, int key) {
+        for (int k = 0; k < kids.size(); ++k) {
+            PdfDictionary kid = kids.getAsDictionary(k);
+            if (kid == null) {
+                continue;
+            }
+            PdfObject value = null;
+            PdfArray nums = kid.getAsArray(PdfName.Nums);
+            if (nums != null) {
+                value = findInLeaf(nums, key);
+            } else {
+                PdfArray kidKids = kid.getAsArray(PdfName.Kids);
+                if (kidKids != null) {
+                    value = findInKids(kidKids, key);
+                }
+            }
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
     private void readTree(PdfDictionary dictionary) {
         if (dictionary != null) {
             iterateItems(dictionary, null);
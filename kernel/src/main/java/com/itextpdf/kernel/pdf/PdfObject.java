@@ -447,6 +447,15 @@ public abstract class PdfObject implements Serializable {
         return (this.state & state) == state;
     }
 
+    /**
+     * Gets all the special flags of current object.
+     *
+     * @return the state of current object.
+     */
+    short getState() {
+        return state;
+    }
+
     /**
      * Sets special states of current object.
      *
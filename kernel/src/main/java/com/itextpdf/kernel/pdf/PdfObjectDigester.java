@@ -0,0 +1,324 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.kernel.PdfException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Calculates structural MD5 digests of dictionaries and streams, which are used to find equal objects
+ * in smart mode. Two objects have the same digest if they have the same keys and values, where indirect
+ * objects are compared by their content. /Parent entries and /P entries referring to dictionaries
+ * are ignored to avoid walking up the object tree.
+ * <p/>
+ * The digest of an indirect object is calculated only once, from the digests of its indirect children,
+ * and is kept for the rest of the writing, while the content of the object is not.
+ * Stream data is digested incrementally, without loading the whole stream into memory. Objects referring
+ * to streams which content cannot be read, e.g. the streams created by InputStream, are not digestible.
+ */
+class PdfObjectDigester {
+
+    private static final int MAX_DEPTH = 100;
+
+    /**
+     * The marker of the objects which cannot be compared by content.
+     */
+    private static final byte[] NOT_DIGESTIBLE = new byte[0];
+
+    private final Map<PdfDocument.IndirectRefDescription, byte[]> digests = new HashMap<>();
+    private final Map<PdfDocument.IndirectRefDescription, Integer> inProgress = new HashMap<>();
+
+    /**
+     * The number of indirect objects, which digests are being calculated.
+     */
+    private int depth;
+
+    /**
+     * The smallest depth of the objects in progress, which are referred to from the current object subtree.
+     * The digest of the object could be cached only if its subtree doesn't refer to its ancestors.
+     */
+    private int minReferredDepth = Integer.MAX_VALUE;
+
+    /**
+     * Whether the current object subtree refers to an object which is not digestible.
+     */
+    private boolean notDigestible;
+
+    /**
+     * Calculates the digest of the indirect dictionary or stream.
+     *
+     * @param obj the dictionary or stream which has an indirect reference.
+     * @return the digest of the object, or {@code null} if the object cannot be compared by content.
+     */
+    Digest digest(PdfObject obj) {
+        assert (obj.isDictionary() || obj.isStream()) && obj.getIndirectReference() != null;
+        byte[] bytes = digestIndirect(obj.getIndirectReference(), obj);
+        minReferredDepth = Integer.MAX_VALUE;
+        notDigestible = false;
+        return bytes != NOT_DIGESTIBLE ? new Digest(bytes) : null;
+    }
+
+    private byte[] digestIndirect(PdfIndirectReference reference, PdfObject obj) {
+        PdfDocument.IndirectRefDescription key = new PdfDocument.IndirectRefDescription(reference);
+        byte[] digest = digests.get(key);
+        if (digest != null) {
+            return digest;
+        }
+        int objectDepth = depth;
+        int savedMinReferredDepth = minReferredDepth;
+        boolean savedNotDigestible = notDigestible;
+        minReferredDepth = Integer.MAX_VALUE;
+        notDigestible = false;
+        MessageDigest md = createMessageDigest();
+        if (objectDepth >= MAX_DEPTH) {
+            // too deep object trees are truncated, the result depends on the path to the object
+            md.update((byte) 'T');
+            minReferredDepth = -1;
+        } else {
+            depth++;
+            inProgress.put(key, objectDepth);
+            update(md, obj);
+            inProgress.remove(key);
+            depth--;
+        }
+        digest = notDigestible ? NOT_DIGESTIBLE : md.digest();
+        if (minReferredDepth >= objectDepth) {
+            digests.put(key, digest);
+        }
+        minReferredDepth = Math.min(minReferredDepth, savedMinReferredDepth);
+        notDigestible = notDigestible || savedNotDigestible;
+        return digest;
+    }
+
+    private void update(MessageDigest md, PdfObject obj) {
+        if (obj == null) {
+            md.update((byte) 'L');
+            return;
+        }
+        switch (obj.getType()) {
+            case PdfObject.INDIRECT_REFERENCE:
+                updateWithReference(md, (PdfIndirectReference) obj);
+                break;
+            case PdfObject.STREAM:
+                md.update((byte) 'B');
+                updateWithDictionary(md, (PdfDictionary) obj);
+                if (!updateWithStreamData(md, (PdfStream) obj)) {
+                    notDigestible = true;
+                }
+                break;
+            case PdfObject.DICTIONARY:
+                updateWithDictionary(md, (PdfDictionary) obj);
+                break;
+            case PdfObject.ARRAY:
+                PdfArray array = (PdfArray) obj;
+                md.update((byte) 'A');
+                updateWithInt(md, array.size());
+                for (int i = 0; i < array.size(); i++) {
+                    update(md, array.get(i, false));
+                }
+                break;
+            case PdfObject.STRING:
+                md.update((byte) 'S');
+                updateWithString(md, obj.toString());
+                break;
+            case PdfObject.NAME:
+                md.update((byte) 'N');
+                updateWithString(md, obj.toString());
+                break;
+            default:
+                // PdfNull case is also here
+                md.update((byte) 'L');
+                updateWithString(md, obj.toString());
+                break;
+        }
+    }
+
+    private void updateWithReference(MessageDigest md, PdfIndirectReference reference) {
+        Integer referredDepth = inProgress.get(new PdfDocument.IndirectRefDescription(reference));
+        if (referredDepth != null) {
+            // cyclic reference: the distance to the referred object is the same wherever the cycle is found
+            md.update((byte) 'R');
+            updateWithInt(md, depth - referredDepth);
+            minReferredDepth = Math.min(minReferredDepth, referredDepth);
+            return;
+        }
+        PdfObject obj = reference.getRefersTo();
+        if (obj == null) {
+            md.update((byte) 'L');
+            return;
+        }
+        byte[] digest = digestIndirect(reference, obj);
+        if (digest == NOT_DIGESTIBLE) {
+            notDigestible = true;
+            return;
+        }
+        md.update((byte) 'I');
+        md.update(digest);
+    }
+
+    private void updateWithDictionary(MessageDigest md, PdfDictionary dic) {
+        md.update((byte) 'D');
+        PdfName[] keys = dic.keySet().toArray(new PdfName[dic.size()]);
+        Arrays.sort(keys);
+        for (PdfName key : keys) {
+            PdfObject value = dic.get(key, false);
+            // ignore recursive call
+            if (key.equals(PdfName.P) && (value.isIndirectReference() || value.isDictionary()) || key.equals(PdfName.Parent))
+                continue;
+            md.update((byte) 'N');
+            updateWithString(md, key.getValue());
+            update(md, value);
+        }
+    }
+
+    /**
+     * Feeds the raw stream data to the digest.
+     *
+     * @return {@code false} if the data cannot be read, e.g. if the stream is created by InputStream.
+     */
+    private static boolean updateWithStreamData(MessageDigest md, PdfStream stream) {
+        try {
+            if (stream.getOutputStream() != null && stream.getOutputStream().getOutputStream() != null) {
+                OutputStream outputStream = stream.getOutputStream().getOutputStream();
+                outputStream.flush();
+                md.update((byte) 'M');
+                ((java.io.ByteArrayOutputStream) outputStream).writeTo(new DigestOutputStream(md));
+                return true;
+            }
+            if (stream.isRawContentDeferred()) {
+                md.update((byte) 'M');
+                stream.writeRawContent(new DigestOutputStream(md));
+                return true;
+            }
+            PdfReader reader = stream.getIndirectReference() != null ? stream.getIndirectReference().getReader() : null;
+            InputStream is = reader != null ? reader.readStreamRaw(stream) : null;
+            if (is == null) {
+                return false;
+            }
+            md.update((byte) 'M');
+            try {
+                byte[] buf = new byte[8192];
+                int n;
+                while ((n = is.read(buf)) > 0) {
+                    md.update(buf, 0, n);
+                }
+            } finally {
+                is.close();
+            }
+            return true;
+        } catch (IOException e) {
+            throw new PdfException(PdfException.CannotGetPdfStreamBytes, e, stream);
+        }
+    }
+
+    private static void updateWithString(MessageDigest md, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        updateWithInt(md, bytes.length);
+        md.update(bytes);
+    }
+
+    private static void updateWithInt(MessageDigest md, int value) {
+        md.update((byte) (value >>> 24));
+        md.update((byte) (value >>> 16));
+        md.update((byte) (value >>> 8));
+        md.update((byte) value);
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (Exception e) {
+            throw new PdfException(e);
+        }
+    }
+
+    /**
+     * The 128-bit digest of an object, which could be used as a key in hash maps.
+     */
+    static class Digest {
+        private final byte[] bytes;
+        private final int hash;
+
+        Digest(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Digest && hash == ((Digest) obj).hash && Arrays.equals(bytes, ((Digest) obj).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class DigestOutputStream extends OutputStream {
+        private final MessageDigest md;
+
+        DigestOutputStream(MessageDigest md) {
+            this.md = md;
+        }
+
+        @Override
+        public void write(int b) {
+            md.update((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            md.update(b, off, len);
+        }
+    }
+}
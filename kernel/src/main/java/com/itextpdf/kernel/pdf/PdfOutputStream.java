@@ -50,6 +50,9 @@ import com.itextpdf.io.source.DeflaterOutputStream;
 import com.itextpdf.io.source.OutputStream;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.crypto.OutputStreamEncryption;
+import com.itextpdf.kernel.log.IMetricsListener;
+import com.itextpdf.kernel.log.Metric;
+import com.itextpdf.kernel.log.NoOpMetricsListener;
 import com.itextpdf.kernel.pdf.filters.FlateDecodeFilter;
 
 import java.io.IOException;
@@ -183,7 +186,8 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         if (document != null && !indirectReference.getDocument().equals(document)) {
             throw new PdfException(PdfException.PdfIndirectObjectBelongsToOtherPdfDocument);
         }
-        if (indirectReference.getRefersTo() == null) {
+        // flushed references may be released by the xref table, so they don't necessarily point to the flushed object
+        if (indirectReference.getRefersTo() == null && !indirectReference.checkState(PdfObject.FLUSHED)) {
             write(PdfNull.PDF_NULL);
         } else if (indirectReference.getGenNumber() == 0) {
             writeInteger(indirectReference.getObjNumber()).
@@ -234,6 +238,23 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         }
     }
 
+    /**
+     * Gets the listener which collects statistics about writing of the document.
+     *
+     * @return the listener of the document writer, or a listener which does nothing.
+     */
+    IMetricsListener getMetricsListener() {
+        return document != null ? document.getWriter().getMetricsListener() : NoOpMetricsListener.INSTANCE;
+    }
+
+    private static long getUncompressedLength(PdfStream pdfStream) {
+        long length = ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).size();
+        if (pdfStream instanceof PdfObjectStream) {
+            length += ((ByteArrayOutputStream) ((PdfObjectStream) pdfStream).getIndexStream().getOutputStream()).size();
+        }
+        return length;
+    }
+
     private boolean isNotMetadataPdfStream(PdfStream pdfStream) {
         return pdfStream.getAsName(PdfName.Type) == null ||
                 (pdfStream.getAsName(PdfName.Type) != null && !pdfStream.getAsName(PdfName.Type).equals(PdfName.Metadata));
@@ -283,6 +304,16 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                 length.setValue((int) (getCurrentPos() - beginStreamContent));
                 pdfStream.updateLength(length.intValue());
                 writeBytes(PdfOutputStream.endstream);
+            } else if (pdfStream.isRawContentDeferred() && !checkEncryption(pdfStream)
+                    && !(toCompress && !containsFlateFilter(pdfStream) && (allowCompression || userDefinedCompression))) {
+                // the copied stream is written as is, directly from the source document
+                int length = pdfStream.getRawContentLength();
+                pdfStream.put(PdfName.Length, new PdfNumber(length));
+                pdfStream.updateLength(length);
+                this.write((PdfDictionary) pdfStream);
+                writeBytes(PdfOutputStream.stream);
+                pdfStream.writeRawContent(this);
+                writeBytes(PdfOutputStream.endstream);
             } else {
                 //When document is opened in stamping mode the output stream can be uninitialized.
                 //We have to initialize it and write all data from streams input to streams output.
@@ -301,17 +332,27 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                 try {
                     if (toCompress && !containsFlateFilter(pdfStream) && (allowCompression || userDefinedCompression)) { // compress
                         updateCompressionFilter(pdfStream);
-                        byteArrayStream = new ByteArrayOutputStream();
-                        DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, pdfStream.getCompressionLevel());
-                        if (pdfStream instanceof PdfObjectStream) {
-                            PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
-                            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(zip);
-                            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(zip);
+                        IMetricsListener metricsListener = getMetricsListener();
+                        long start = System.nanoTime();
+                        byte[] compressedBytes = document != null ? document.getWriter().getParallelCompressedBytes(pdfStream) : null;
+                        if (compressedBytes != null) {
+                            byteArrayStream = new ByteArrayOutputStream().assignBytes(compressedBytes);
                         } else {
-                            assert pdfStream.getOutputStream() != null : "Error in outputStream";
-                            ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).writeTo(zip);
+                            byteArrayStream = new ByteArrayOutputStream();
+                            DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, pdfStream.getCompressionLevel());
+                            if (pdfStream instanceof PdfObjectStream) {
+                                PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
+                                ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(zip);
+                                ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(zip);
+                            } else {
+                                assert pdfStream.getOutputStream() != null : "Error in outputStream";
+                                ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).writeTo(zip);
+                            }
+                            zip.finish();
                         }
-                        zip.finish();
+                        metricsListener.onMetric(Metric.STREAM_COMPRESSION_TIME, System.nanoTime() - start);
+                        metricsListener.onMetric(Metric.STREAM_BYTES_TO_COMPRESS, getUncompressedLength(pdfStream));
+                        metricsListener.onMetric(Metric.STREAM_BYTES_COMPRESSED, byteArrayStream.size());
                     } else {
                         if (pdfStream instanceof PdfObjectStream) {
                             PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
@@ -346,6 +387,23 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         }
     }
 
+    /**
+     * Checks if the stream content, which is kept in memory, will be compressed when the stream is written.
+     * The conditions are the same as in {@link #write(PdfStream)}.
+     */
+    boolean isContentCompressionRequired(PdfStream pdfStream) {
+        if (pdfStream.getInputStream() != null || pdfStream.isRawContentDeferred() || pdfStream.getOutputStream() == null
+                || !(pdfStream.getOutputStream().getOutputStream() instanceof ByteArrayOutputStream)) {
+            return false;
+        }
+        boolean userDefinedCompression = pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION;
+        int compressionLevel = userDefinedCompression ? pdfStream.getCompressionLevel() :
+                (document != null ? document.getWriter().getCompressionLevel() : CompressionConstants.DEFAULT_COMPRESSION);
+        boolean allowCompression = !pdfStream.containsKey(PdfName.Filter) && isNotMetadataPdfStream(pdfStream);
+        return compressionLevel != CompressionConstants.NO_COMPRESSION && !containsFlateFilter(pdfStream)
+                && (allowCompression || userDefinedCompression);
+    }
+
     protected boolean checkEncryption(PdfStream pdfStream) {
         if (crypto == null || crypto.isEmbeddedFilesOnly()) {
             return false;
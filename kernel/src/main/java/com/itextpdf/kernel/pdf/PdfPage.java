@@ -485,6 +485,14 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
             flushContentStreams();
         }
         int contentStreamCount = getContentStreamCount();
+        PdfWriter writer = getDocument().getWriter();
+        if (writer != null && contentStreamCount > 1) {
+            List<PdfStream> contentStreams = new ArrayList<>(contentStreamCount);
+            for (int i = 0; i < contentStreamCount; i++) {
+                contentStreams.add(getContentStream(i));
+            }
+            writer.precompressStreams(contentStreams);
+        }
         for (int i = 0; i < contentStreamCount; i++) {
             getContentStream(i).flush(false);
         }
@@ -1019,7 +1027,9 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
             getDocument().getTagStructureContext().flushPageTags(this);
             getDocument().getStructTreeRoot().createParentTreeEntryForPage(this);
         } catch (Exception ex) {
-            throw new PdfException(PdfException.TagStructureFlushingFailedItMightBeCorrupted, ex);
+            if (!getDocument().tryDropCorruptedTagStructure(ex)) {
+                throw new PdfException(PdfException.TagStructureFlushingFailedItMightBeCorrupted, ex);
+            }
         }
     }
 
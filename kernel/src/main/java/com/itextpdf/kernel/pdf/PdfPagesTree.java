@@ -68,6 +68,27 @@ class PdfPagesTree implements Serializable {
     private boolean generated = false;
     private PdfPages root;
 
+    /**
+     * Streaming mode, see {@link WriterProperties#useStreamingPageTree()}.
+     * In this mode {@link #parents} contain only leaves, which haven't been flushed yet,
+     * and {@link #releasedPagesCount} first pages are released together with their flushed leaves.
+     * The released pages are removed from {@link #pageRefs} and {@link #pages}, so the element of these lists
+     * at index {@code i} corresponds to the zero-based page index {@code i + releasedPagesCount}.
+     */
+    private boolean streaming;
+    private int releasedPagesCount = 0;
+    /**
+     * The nodes of the pages tree which are being filled in streaming mode,
+     * the node at index {@code i} is the parent of the nodes of level {@code i}, where leaves are of level 0.
+     */
+    private List<PdfPages> openNodes;
+
+    /**
+     * Concurrent reading mode, see {@link ReaderProperties#useConcurrentReading()}.
+     * In this mode pages are loaded while holding the lock of the tree.
+     */
+    private boolean concurrent;
+
     /**
      * Create PdfPages tree.
      *
@@ -88,9 +109,16 @@ class PdfPagesTree implements Serializable {
                 this.pageRefs.add(null);
                 this.pages.add(null);
             }
+            PdfReader reader = this.document.getReader();
+            this.concurrent = reader != null && this.document.getWriter() == null && reader.properties.concurrentReading;
         } else {
             this.root = null;
             this.parents.add(new PdfPages(0, this.document));
+            PdfWriter writer = this.document.getWriter();
+            if (writer != null && writer.properties.streamingPageTree) {
+                this.streaming = true;
+                this.openNodes = new ArrayList<>();
+            }
         }
         //in read mode we will create PdfPages from 0 to Count
         // and reserve null indexes for pageRefs and pages.
@@ -103,17 +131,12 @@ class PdfPagesTree implements Serializable {
      * @return the {@see PdfPage} at the specified position in this list
      */
     public PdfPage getPage(int pageNum) {
-        --pageNum;
-        PdfPage pdfPage = pages.get(pageNum);
-        if (pdfPage == null) {
-            loadPage(pageNum);
-            pdfPage = new PdfPage(pageRefs.get(pageNum));
-            int parentIndex = findPageParent(pageNum);
-            PdfPages parentPages = parents.get(parentIndex);
-            pdfPage.parentPages = parentPages;
-            pages.set(pageNum, pdfPage);
+        if (concurrent) {
+            synchronized (this) {
+                return getOrLoadPage(pageNum);
+            }
         }
-        return pdfPage;
+        return getOrLoadPage(pageNum);
     }
 
     /**
@@ -137,7 +160,7 @@ class PdfPagesTree implements Serializable {
      * @return total number of pages
      */
     public int getNumberOfPages() {
-        return pageRefs.size();
+        return releasedPagesCount + pageRefs.size();
     }
 
     /**
@@ -145,7 +168,8 @@ class PdfPagesTree implements Serializable {
      * in this tree, or 0 if this tree does not contain the page.
      */
     public int getPageNumber(PdfPage page) {
-        return pages.indexOf(page) + 1;
+        int index = pages.indexOf(page);
+        return index >= 0 ? releasedPagesCount + index + 1 : 0;
     }
 
     /**
@@ -153,16 +177,40 @@ class PdfPagesTree implements Serializable {
      * specified by it's PdfDictionary, or 0 if this tree does not contain the page.
      */
     public int getPageNumber(PdfDictionary pageDictionary) {
-        int pageNum = pageRefs.indexOf(pageDictionary);
-        if (pageNum >= 0) {
-            return pageNum + 1;
+        if (concurrent) {
+            synchronized (this) {
+                return findPageNumber(pageDictionary);
+            }
+        }
+        return findPageNumber(pageDictionary);
+    }
+
+    private PdfPage getOrLoadPage(int pageNum) {
+        --pageNum;
+        checkPageIsNotReleased(pageNum);
+        PdfPage pdfPage = pages.get(pageNum - releasedPagesCount);
+        if (pdfPage == null) {
+            loadPage(pageNum);
+            pdfPage = new PdfPage(pageRefs.get(pageNum - releasedPagesCount));
+            int parentIndex = findPageParent(pageNum);
+            PdfPages parentPages = parents.get(parentIndex);
+            pdfPage.parentPages = parentPages;
+            pages.set(pageNum - releasedPagesCount, pdfPage);
+        }
+        return pdfPage;
+    }
+
+    private int findPageNumber(PdfDictionary pageDictionary) {
+        int index = pageRefs.indexOf(pageDictionary);
+        if (index >= 0) {
+            return releasedPagesCount + index + 1;
         }
         for (int i = 0; i < pageRefs.size(); i++) {
             if (pageRefs.get(i) == null) {
-                loadPage(i);
+                loadPage(releasedPagesCount + i);
             }
             if (pageRefs.get(i).equals(pageDictionary)) {
-                return i + 1;
+                return releasedPagesCount + i + 1;
             }
         }
 
@@ -180,12 +228,15 @@ class PdfPagesTree implements Serializable {
             if (pageRefs.size() == 0) {
                 pdfPages = root;
             } else {
-                loadPage(pageRefs.size() - 1);
+                loadPage(getNumberOfPages() - 1);
                 pdfPages = parents.get(parents.size() - 1);
             }
         } else {
+            if (streaming) {
+                releaseFlushedLeaves();
+            }
             pdfPages = parents.get(parents.size() - 1);
-            if (pdfPages.getCount() % leafSize == 0 && pageRefs.size() > 0) {
+            if (pdfPages.getCount() % leafSize == 0 && getNumberOfPages() > 0) {
                 pdfPages = new PdfPages(pdfPages.getFrom() + pdfPages.getCount(), document);
                 parents.add(pdfPages);
             }
@@ -207,12 +258,13 @@ class PdfPagesTree implements Serializable {
      */
     public void addPage(int index, PdfPage pdfPage) {
         --index;
-        if (index > pageRefs.size())
+        if (index > getNumberOfPages())
             throw new IndexOutOfBoundsException("index");
-        if (index == pageRefs.size()) {
+        if (index == getNumberOfPages()) {
             addPage(pdfPage);
             return;
         }
+        checkPageIsNotReleased(index);
         loadPage(index);
         pdfPage.makeIndirect(document);
         int parentIndex = findPageParent(index);
@@ -220,8 +272,8 @@ class PdfPagesTree implements Serializable {
         parentPages.addPage(index, pdfPage);
         pdfPage.parentPages = parentPages;
         correctPdfPagesFromProperty(parentIndex + 1, +1);
-        pageRefs.add(index, pdfPage.getPdfObject());
-        pages.add(index, pdfPage);
+        pageRefs.add(index - releasedPagesCount, pdfPage.getPdfObject());
+        pages.add(index - releasedPagesCount, pdfPage);
     }
 
     /**
@@ -252,12 +304,14 @@ class PdfPagesTree implements Serializable {
      * @throws PdfException in case empty document
      */
     protected PdfObject generateTree() {
-        if (pageRefs.size() == 0)
+        if (getNumberOfPages() == 0)
             throw new PdfException(PdfException.DocumentHasNoPages);
         if (generated)
             throw new PdfException(PdfException.PdfPagesTreeCouldBeGeneratedOnlyOnce);
 
-        if (root == null) {
+        if (root == null && streaming && releasedPagesCount > 0) {
+            root = completeStreamingTree();
+        } else if (root == null) {
             while (parents.size() != 1) {
                 List<PdfPages> nextParents = new ArrayList<>();
                 //dynamicLeafSize helps to avoid PdfPages leaf with only one page
@@ -286,6 +340,16 @@ class PdfPagesTree implements Serializable {
         return root.getPdfObject();
     }
 
+    /**
+     * Gets the number of the first pages, which have been flushed and released
+     * together with their pages tree nodes in streaming mode.
+     *
+     * @return the number of released pages
+     */
+    int getNumberOfReleasedPages() {
+        return releasedPagesCount;
+    }
+
     protected void clearPageRefs() {
         pageRefs = null;
         pages = null;
@@ -305,8 +369,86 @@ class PdfPagesTree implements Serializable {
         return parents.get(parentIndex);
     }
 
+    /**
+     * Writes the leaves, which are filled with flushed pages, together with the parent nodes filled this way.
+     * The pages of such leaves are released.
+     */
+    private void releaseFlushedLeaves() {
+        while (parents.size() > 1) {
+            PdfPages leaf = parents.get(0);
+            int from = leaf.getFrom();
+            int to = from + leaf.getCount();
+            for (int i = from; i < to; i++) {
+                if (!pageRefs.get(i - releasedPagesCount).isFlushed()) {
+                    return;
+                }
+            }
+            addToOpenNode(leaf, 0, true);
+            pageRefs.subList(0, to - releasedPagesCount).clear();
+            pages.subList(0, to - releasedPagesCount).clear();
+            releasedPagesCount = to;
+            parents.remove(0);
+        }
+    }
+
+    /**
+     * Adds the node to the open node of the next level. The open node is moved to the upper level once it is full.
+     *
+     * @param node  the node to add
+     * @param level the level of the node
+     * @param flush true if the node shall be flushed after it is added to its parent
+     */
+    private void addToOpenNode(PdfPages node, int level, boolean flush) {
+        if (openNodes.size() == level) {
+            openNodes.add(null);
+        }
+        PdfPages parent = openNodes.get(level);
+        if (parent == null) {
+            parent = new PdfPages(node.getFrom(), document);
+            openNodes.set(level, parent);
+        }
+        parent.addPages(node);
+        if (flush) {
+            node.getPdfObject().flush();
+        }
+        if (parent.getKids().size() == leafSize) {
+            openNodes.set(level, null);
+            addToOpenNode(parent, level + 1, flush);
+        }
+    }
+
+    /**
+     * Adds the remaining leaves and open nodes to the tree in streaming mode.
+     *
+     * @return the root of the tree
+     */
+    private PdfPages completeStreamingTree() {
+        for (PdfPages leaf : parents) {
+            addToOpenNode(leaf, 0, false);
+        }
+        // the nodes of the upper levels contain preceding pages
+        PdfPages subtree = null;
+        for (PdfPages node : openNodes) {
+            if (node != null) {
+                if (subtree != null) {
+                    node.addPages(subtree);
+                }
+                subtree = node;
+            }
+        }
+        openNodes = null;
+        return subtree;
+    }
+
+    // zero-based index
+    private void checkPageIsNotReleased(int pageNum) {
+        if (pageNum >= 0 && pageNum < releasedPagesCount) {
+            throw new PdfException(PdfException.PageWasFlushedTogetherWithItsPagesTreeNode).setMessageParams(pageNum + 1);
+        }
+    }
+
     private void loadPage(int pageNum) {
-        PdfDictionary targetPage = pageRefs.get(pageNum);
+        PdfDictionary targetPage = pageRefs.get(pageNum - releasedPagesCount);
         if (targetPage != null)
             return;
         //if we go here, we have to split PdfPages that contains pageNum
@@ -374,7 +516,7 @@ class PdfPagesTree implements Serializable {
             // In any case parent.getCount() has higher priority.
             // NOTE optimization? when we already found needed index
             for (int i = 0; i < parent.getCount(); i++) {
-                pageRefs.set(from + i, kids.getAsDictionary(i));
+                pageRefs.set(from + i - releasedPagesCount, kids.getAsDictionary(i));
             }
         }
     }
@@ -391,12 +533,12 @@ class PdfPagesTree implements Serializable {
             }
             if (parents.size() == 0) {
                 root = null;
-                parents.add(new PdfPages(0, document));
+                parents.add(new PdfPages(releasedPagesCount, document));
             } else {
                 correctPdfPagesFromProperty(parentIndex + 1, -1);
             }
-            pageRefs.remove(pageNum);
-            pages.remove(pageNum);
+            pageRefs.remove(pageNum - releasedPagesCount);
+            pages.remove(pageNum - releasedPagesCount);
             return true;
         } else {
             return false;
@@ -45,15 +45,22 @@ package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteBuffer;
+import com.itextpdf.io.source.ByteBufferInputStream;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.source.IRandomAccessSource;
 import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RASInputStream;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.io.source.WindowRandomAccessSource;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.log.IMetricsListener;
+import com.itextpdf.kernel.log.Metric;
+import com.itextpdf.kernel.log.NoOpMetricsListener;
 import com.itextpdf.kernel.pdf.filters.FilterHandlers;
 import com.itextpdf.kernel.pdf.filters.IFilterHandler;
+import com.itextpdf.kernel.pdf.filters.IStreamingFilterHandler;
 
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
@@ -61,7 +68,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -110,6 +127,16 @@ public class PdfReader implements Closeable, Serializable {
     protected boolean fixedXref = false;
     protected boolean xrefStm = false;
 
+    private transient ObjectStreamCache objectStreamCache;
+
+    private transient Map<PdfIndirectReference, Future<byte[]>> prefetchedStreams;
+
+    private transient PdfNamePool namePool;
+
+    // copies of the streams, which raw content is going to be written directly from this reader.
+    // Access is synchronized on the reader, since the copies could be flushed on other threads, see PdfSplitter
+    private transient Set<PdfStream> deferredStreamCopies;
+
     /**
      * Constructs a new PdfReader.
      *
@@ -118,6 +145,9 @@ public class PdfReader implements Closeable, Serializable {
      */
     public PdfReader(IRandomAccessSource byteSource, ReaderProperties properties) throws IOException {
         this.properties = properties;
+        if (properties.concurrentReading) {
+            byteSource = new RandomAccessSourceFactory().createThreadSafeSource(byteSource);
+        }
         this.tokens = getOffsetTokeniser(byteSource);
     }
 
@@ -178,6 +208,20 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public void close() throws IOException {
+        if (objectStreamCache != null) {
+            objectStreamCache.clear();
+        }
+        if (prefetchedStreams != null) {
+            for (Future<byte[]> decodedBytes : prefetchedStreams.values()) {
+                decodedBytes.cancel(false);
+            }
+            prefetchedStreams.clear();
+        }
+        if (deferredStreamCopies != null) {
+            for (PdfStream copy : new ArrayList<>(deferredStreamCopies)) {
+                copy.loadRawContent();
+            }
+        }
         tokens.close();
     }
 
@@ -265,9 +309,23 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public byte[] readStreamBytes(PdfStream stream, boolean decode) throws IOException {
+        if (decode && prefetchedStreams != null && !prefetchedStreams.isEmpty()) {
+            byte[] prefetched = getPrefetchedStreamBytes(stream);
+            if (prefetched != null) {
+                getMetricsListener().onMetric(Metric.PREFETCHED_STREAM_HITS, 1);
+                return prefetched;
+            }
+        }
         byte[] b = readStreamBytesRaw(stream);
         if (decode && b != null) {
-            return decodeBytes(b, stream);
+            IMetricsListener metricsListener = getMetricsListener();
+            long start = System.nanoTime();
+            byte[] decoded = decodeBytes(b, stream);
+            metricsListener.onMetric(Metric.STREAM_DECODING_TIME, System.nanoTime() - start);
+            metricsListener.onMetric(Metric.STREAMS_DECODED, 1);
+            metricsListener.onMetric(Metric.STREAM_BYTES_ENCODED, b.length);
+            metricsListener.onMetric(Metric.STREAM_BYTES_DECODED, decoded.length);
+            return decoded;
         } else {
             return b;
         }
@@ -290,33 +348,14 @@ public class PdfReader implements Closeable, Serializable {
         int length = stream.getLength();
         if (length <= 0)
             return new byte[0];
-        RandomAccessFileOrArray file = tokens.getSafeFile();
+        RandomAccessFileOrArray file = getSafeFile();
         byte[] bytes = null;
         try {
             file.seek(stream.getOffset());
             bytes = new byte[length];
             file.readFully(bytes);
             if (decrypt != null) {
-                PdfObject filter = stream.get(PdfName.Filter, true);
-                boolean skip = false;
-                if (filter != null) {
-                    if (PdfName.Crypt.equals(filter)) {
-                        skip = true;
-                    } else if (filter.getType() == PdfObject.ARRAY) {
-                        PdfArray filters = (PdfArray) filter;
-                        for (int k = 0; k < filters.size(); k++) {
-                            if (!filters.isEmpty() && PdfName.Crypt.equals(filters.get(k, true))) {
-                                skip = true;
-                                break;
-                            }
-                        }
-                    }
-                    filter.release();
-                }
-                if (!skip) {
-                    decrypt.setHashKeyForNextObject(stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
-                    bytes = decrypt.decryptByteArray(bytes);
-                }
+                bytes = decryptStreamBytes(stream, bytes);
             }
         } finally {
             try {
@@ -327,17 +366,147 @@ public class PdfReader implements Closeable, Serializable {
         return bytes;
     }
 
+    private byte[] decryptStreamBytes(PdfStream stream, byte[] bytes) {
+        PdfObject filter = stream.get(PdfName.Filter, true);
+        boolean skip = false;
+        if (filter != null) {
+            if (PdfName.Crypt.equals(filter)) {
+                skip = true;
+            } else if (filter.getType() == PdfObject.ARRAY) {
+                PdfArray filters = (PdfArray) filter;
+                for (int k = 0; k < filters.size(); k++) {
+                    if (!filters.isEmpty() && PdfName.Crypt.equals(filters.get(k, true))) {
+                        skip = true;
+                        break;
+                    }
+                }
+            }
+            filter.release();
+        }
+        if (!skip) {
+            bytes = decrypt.decryptByteArray(bytes, stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads and decrypt stream bytes into {@link InputStream}.
+     * Unless the stream is encrypted, the data is read from the source on demand, so the returned stream
+     * shall be read only while the reader is open. User is responsible for closing returned stream.
+     *
+     * @return InputStream or {@code null} if reading was failed.
+     * @throws IOException on error.
+     */
+    public InputStream readStreamRaw(PdfStream stream) throws IOException {
+        if (decrypt != null) {
+            byte[] bytes = readStreamBytesRaw(stream);
+            return bytes != null ? new ByteArrayInputStream(bytes) : null;
+        }
+        PdfName type = stream.getAsName(PdfName.Type);
+        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type))
+            checkPdfStreamLength(stream);
+        long offset = stream.getOffset();
+        if (offset <= 0)
+            return null;
+        int length = stream.getLength();
+        if (length <= 0)
+            return new ByteArrayInputStream(new byte[0]);
+        RandomAccessFileOrArray file = getSafeFile();
+        java.nio.ByteBuffer buffer = file.getByteBuffer(offset, length);
+        if (buffer != null) {
+            return new ByteBufferInputStream(buffer);
+        }
+        return new RASInputStream(new WindowRandomAccessSource(file.createSourceView(), offset, length));
+    }
+
     /**
-     * Reads, decrypt and optionally decode stream bytes into {@link ByteArrayInputStream}.
+     * Reads and decrypt stream bytes into read-only {@link java.nio.ByteBuffer}.
+     * Unless the stream is encrypted, the buffer shares its content with the source of the reader if possible,
+     * e.g. it is a slice of the memory mapped file, so no bytes are copied to the heap.
+     * Such buffer shall be used only while the reader is open.
+     *
+     * @return the buffer with the raw stream bytes, or {@code null} if reading was failed.
+     * @throws IOException on error.
+     */
+    public java.nio.ByteBuffer readStreamByteBuffer(PdfStream stream) throws IOException {
+        if (decrypt == null) {
+            PdfName type = stream.getAsName(PdfName.Type);
+            if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type))
+                checkPdfStreamLength(stream);
+            long offset = stream.getOffset();
+            if (offset <= 0)
+                return null;
+            int length = stream.getLength();
+            java.nio.ByteBuffer buffer = getSafeFile().getByteBuffer(offset, Math.max(length, 0));
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        byte[] bytes = readStreamBytesRaw(stream);
+        return bytes != null ? java.nio.ByteBuffer.wrap(bytes).asReadOnlyBuffer() : null;
+    }
+
+    /**
+     * Decodes the given streams in advance using the executor defined by
+     * {@link ReaderProperties#setStreamDecodingExecutor(ExecutorService)}.
+     * Raw bytes are read and decrypted on the calling thread, while the filters are applied concurrently.
+     * Decoded bytes are kept until they are requested by {@link #readStreamBytes(PdfStream, boolean)}
+     * for the first time, e.g. by {@link PdfStream#getBytes()}, and are released afterwards.
+     * <p/>
+     * If no executor is defined, this method does nothing.
+     * Streams which don't belong to this reader or which have been already prefetched are skipped.
+     *
+     * @param streams the streams which are going to be decoded.
+     * @throws IOException on error.
+     */
+    public void prefetchStreams(Collection<PdfStream> streams) throws IOException {
+        ExecutorService executor = properties.streamDecodingExecutor;
+        if (executor == null) {
+            return;
+        }
+        if (prefetchedStreams == null) {
+            prefetchedStreams = new ConcurrentHashMap<>();
+        }
+        for (PdfStream stream : streams) {
+            PdfIndirectReference reference = stream.getIndirectReference();
+            if (reference == null || reference.getReader() != this || prefetchedStreams.containsKey(reference)) {
+                continue;
+            }
+            byte[] bytes = readStreamBytesRaw(stream);
+            if (bytes == null) {
+                continue;
+            }
+            prefetchedStreams.put(reference, executor.submit(new StreamDecodingTask(bytes, getDecodingDictionary(stream))));
+        }
+    }
+
+    /**
+     * Reads, decrypt and optionally decode stream bytes into {@link InputStream}.
      * User is responsible for closing returned stream.
+     * <p/>
+     * Unless the stream is encrypted, its data is read from the source on demand. Filters which handlers implement
+     * {@link IStreamingFilterHandler}, e.g. FlateDecode, are applied incrementally, so decoding of large streams
+     * requires a bounded amount of memory. Other filters decode the whole data at once.
+     * If the data turns out to be corrupted while reading, the whole stream is decoded again as
+     * {@link #readStreamBytes(PdfStream, boolean)} does, recovering as much of the data as possible,
+     * and reading continues from the recovered data.
      *
      * @param decode true if to get decoded stream, false if to leave it originally encoded.
      * @return InputStream or {@code null} if reading was failed.
      * @throws IOException on error.
      */
     public InputStream readStream(PdfStream stream, boolean decode) throws IOException {
-        byte[] bytes = readStreamBytes(stream, decode);
-        return bytes != null ? new ByteArrayInputStream(bytes) : null;
+        if (decode && prefetchedStreams != null && prefetchedStreams.containsKey(stream.getIndirectReference())) {
+            byte[] bytes = readStreamBytes(stream, true);
+            return bytes != null ? new ByteArrayInputStream(bytes) : null;
+        }
+        InputStream rawStream = readStreamRaw(stream);
+        if (decode && rawStream != null) {
+            getMetricsListener().onMetric(Metric.STREAMS_DECODED, 1);
+            return new RecoveringDecodedInputStream(stream, decodeStream(rawStream, stream, FilterHandlers.getDefaultFilterHandlers()));
+        } else {
+            return rawStream;
+        }
     }
 
     /**
@@ -365,51 +534,49 @@ public class PdfReader implements Closeable, Serializable {
         if (b == null) {
             return null;
         }
-        PdfObject filter = streamDictionary.get(PdfName.Filter);
-        PdfArray filters = new PdfArray();
-        if (filter != null) {
-            if (filter.getType() == PdfObject.NAME) {
-                filters.add(filter);
-            } else if (filter.getType() == PdfObject.ARRAY) {
-                filters = ((PdfArray) filter);
-            }
-        }
-        PdfArray dp = new PdfArray();
-        PdfObject dpo = streamDictionary.get(PdfName.DecodeParms);
-        if (dpo == null || (dpo.getType() != PdfObject.DICTIONARY && dpo.getType() != PdfObject.ARRAY)) {
-            if (dpo != null) dpo.release();
-            dpo = streamDictionary.get(PdfName.DP);
-        }
-        if (dpo != null) {
-            if (dpo.getType() == PdfObject.DICTIONARY) {
-                dp.add(dpo);
-            } else if (dpo.getType() == PdfObject.ARRAY) {
-                dp = ((PdfArray) dpo);
-            }
-            dpo.release();
+        PdfArray filters = getFilters(streamDictionary);
+        PdfArray dp = getDecodeParams(streamDictionary);
+        for (int j = 0; j < filters.size(); ++j) {
+            PdfName filterName = (PdfName) filters.get(j);
+            IFilterHandler filterHandler = getFilterHandler(filterName, filterHandlers);
+            b = filterHandler.decode(b, filterName, getDecodeParams(dp, j), streamDictionary);
         }
+        return b;
+    }
+
+    /**
+     * Decode an {@link InputStream} applying the filters specified in the provided dictionary
+     * using the provided filter handlers. The returned stream decodes the data on demand
+     * as long as the handlers implement {@link IStreamingFilterHandler}. Other filters read and decode
+     * all the remaining data at once. Closing the returned stream closes the given one.
+     *
+     * @param is               the stream of the bytes to decode
+     * @param streamDictionary the dictionary that contains filter information
+     * @param filterHandlers   the map used to look up a handler for each type of filter
+     * @return the stream of the decoded bytes
+     * @throws IOException  if the data could not be read for non-streaming filters
+     * @throws PdfException if there are any problems decoding the bytes
+     */
+    public static InputStream decodeStream(InputStream is, PdfDictionary streamDictionary, Map<PdfName, IFilterHandler> filterHandlers) throws IOException {
+        PdfArray filters = getFilters(streamDictionary);
+        PdfArray dp = getDecodeParams(streamDictionary);
         for (int j = 0; j < filters.size(); ++j) {
             PdfName filterName = (PdfName) filters.get(j);
-            IFilterHandler filterHandler = filterHandlers.get(filterName);
-            if (filterHandler == null)
-                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
-
-            PdfDictionary decodeParams;
-            if (j < dp.size()) {
-                PdfObject dpEntry = dp.get(j, true);
-                if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
-                    decodeParams = null;
-                } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
-                    decodeParams = (PdfDictionary) dpEntry;
-                } else {
-                    throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
-                }
+            IFilterHandler filterHandler = getFilterHandler(filterName, filterHandlers);
+            PdfDictionary decodeParams = getDecodeParams(dp, j);
+            if (filterHandler instanceof IStreamingFilterHandler) {
+                is = ((IStreamingFilterHandler) filterHandler).decode(is, filterName, decodeParams, streamDictionary);
             } else {
-                decodeParams = null;
+                byte[] b;
+                try {
+                    b = StreamUtil.inputStreamToArray(is);
+                } finally {
+                    is.close();
+                }
+                is = new ByteArrayInputStream(filterHandler.decode(b, filterName, decodeParams, streamDictionary));
             }
-            b = filterHandler.decode(b, filterName, decodeParams, streamDictionary);
         }
-        return b;
+        return is;
     }
 
     /**
@@ -418,7 +585,8 @@ public class PdfReader implements Closeable, Serializable {
      *
      * @return a new file instance of the original PDF document
      */
-    public RandomAccessFileOrArray getSafeFile() {
+    public synchronized RandomAccessFileOrArray getSafeFile() {
+        // synchronized, since the tokens are replaced while reading the object streams
         return tokens.getSafeFile();
     }
 
@@ -429,7 +597,7 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public long getFileLength() throws IOException {
-        return tokens.getSafeFile().length();
+        return getSafeFile().length();
     }
 
     /**
@@ -511,6 +679,24 @@ public class PdfReader implements Closeable, Serializable {
         return encrypted;
     }
 
+    /**
+     * Checks if the document is read in concurrent reading mode, see {@link ReaderProperties#useConcurrentReading()}.
+     *
+     * @return {@code true} if the pages of the document may be accessed from several threads at once.
+     */
+    public boolean isConcurrentReading() {
+        return properties.concurrentReading;
+    }
+
+    /**
+     * Checks if the tag structure of the document is read page by page, see {@link ReaderProperties#useLazyTagStructure()}.
+     *
+     * @return {@code true} if the marked content references of a page are read when its tags are requested first.
+     */
+    public boolean isLazyTagStructure() {
+        return properties.lazyTagStructure;
+    }
+
     /**
      * Parses the entire PDF
      */
@@ -521,6 +707,7 @@ public class PdfReader implements Closeable, Serializable {
         } catch (IllegalArgumentException exc) {
             throw new PdfException(PdfException.PdfVersionNotValid, version);
         }
+        long start = System.nanoTime();
         try {
             readXref();
         } catch (RuntimeException ex) {
@@ -529,6 +716,7 @@ public class PdfReader implements Closeable, Serializable {
 
             rebuildXref();
         }
+        getMetricsListener().onMetric(Metric.XREF_READING_TIME, System.nanoTime() - start);
         readDecryptObj();
     }
 
@@ -542,37 +730,9 @@ public class PdfReader implements Closeable, Serializable {
             tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes)));
             int[] address = new int[n];
             int[] objNumber = new int[n];
-            boolean ok = true;
-            for (int k = 0; k < n; ++k) {
-                ok = tokens.nextToken();
-                if (!ok)
-                    break;
-                if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-                    ok = false;
-                    break;
-                }
-                objNumber[k] = tokens.getIntValue();
-                ok = tokens.nextToken();
-                if (!ok)
-                    break;
-                if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-                    ok = false;
-                    break;
-                }
-                address[k] = tokens.getIntValue() + first;
-            }
-            if (!ok)
-                throw new PdfException(PdfException.ErrorWhileReadingObjectStream);
+            readObjectStreamOffsets(first, objNumber, address);
             for (int k = 0; k < n; ++k) {
-                tokens.seek(address[k]);
-                tokens.nextToken();
-                PdfObject obj;
-                if (tokens.getTokenType() == PdfTokenizer.TokenType.Number) {
-                    obj = new PdfNumber(tokens.getByteContent());
-                } else {
-                    tokens.seek(address[k]);
-                    obj = readObject(false, true);
-                }
+                PdfObject obj = readObjectStreamEntry(address[k]);
                 PdfIndirectReference reference = pdfDocument.getXref().get(objNumber[k]);
                 // Check if this object has no incremental updates (e.g. no append mode)
                 if (reference.getObjStreamNumber() == objectStreamNumber) {
@@ -581,12 +741,56 @@ public class PdfReader implements Closeable, Serializable {
                 }
             }
             objectStream.getIndirectReference().setState(PdfObject.ORIGINAL_OBJECT_STREAM);
+            IMetricsListener metricsListener = getMetricsListener();
+            metricsListener.onMetric(Metric.OBJECT_STREAMS_DECODED, 1);
+            metricsListener.onMetric(Metric.OBJECTS_READ, n);
+        } finally {
+            tokens = saveTokens;
+        }
+    }
+
+    /**
+     * Reads a single object from the object stream without parsing the other objects of the stream.
+     * Decoded bytes of the object stream are kept in the cache, which size is limited by
+     * {@link ReaderProperties#setObjectStreamCacheSize(long)}, so that subsequent reads from the same
+     * object stream don't need to decode it again.
+     *
+     * @param objectStream the object stream which contains the object.
+     * @param reference    the indirect reference of the object to read.
+     * @return the read object, or {@code null} if object stream doesn't contain it.
+     * @throws IOException on error.
+     */
+    protected PdfObject readObjectFromObjectStream(PdfStream objectStream, PdfIndirectReference reference) throws IOException {
+        ObjectStreamCache.DecodedObjectStream decodedStream = getDecodedObjectStream(objectStream);
+        int address = decodedStream.getAddress(reference.getObjNumber(), reference.getIndex());
+        if (address < 0) {
+            return null;
+        }
+        PdfTokenizer saveTokens = tokens;
+        try {
+            tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(decodedStream.bytes)));
+            PdfObject obj = readObjectStreamEntry(address);
+            reference.setRefersTo(obj);
+            obj.setIndirectReference(reference);
+            getMetricsListener().onMetric(Metric.OBJECTS_READ, 1);
+            return obj;
         } finally {
             tokens = saveTokens;
         }
     }
 
     protected PdfObject readObject(PdfIndirectReference reference) {
+        if (properties.concurrentReading) {
+            synchronized (this) {
+                // the object is published while holding the lock, so that the threads which resolve
+                // the same reference at once get the same instance and don't parse it twice
+                PdfObject object = readObject(reference, true);
+                if (reference != null && reference.refersTo == null) {
+                    reference.setRefersTo(object);
+                }
+                return object;
+            }
+        }
         return readObject(reference, true);
     }
 
@@ -687,9 +891,10 @@ public class PdfReader implements Closeable, Serializable {
 
     protected PdfName readPdfName(boolean readAsDirect) {
         if (readAsDirect) {
-            PdfName cachedName = PdfName.staticNames.get(tokens.getStringValue());
-            if (cachedName != null)
-                return cachedName;
+            if (namePool == null) {
+                namePool = new PdfNamePool();
+            }
+            return namePool.get(tokens.getByteBuffer());
         }
         // an indirect name (how odd...), or a non-standard one
         return new PdfName(tokens.getByteContent());
@@ -818,25 +1023,25 @@ public class PdfReader implements Closeable, Serializable {
                     end--;
                     continue;
                 }
-                PdfIndirectReference reference = xref.get(num);
-                if (reference == null) {
-                    reference = new PdfIndirectReference(pdfDocument, num, gen, pos);
-                } else if (reference.checkState(PdfObject.READING) && reference.getGenNumber() == gen) {
-                    reference.setOffset(pos);
-                    reference.clearState(PdfObject.READING);
-                } else {
-                    continue;
+                boolean newEntry = !xref.contains(num);
+                if (!newEntry) {
+                    PdfIndirectReference reference = xref.getIfCreated(num);
+                    if (reference != null && reference.checkState(PdfObject.READING) && reference.getGenNumber() == gen) {
+                        reference.setOffset(pos);
+                        reference.clearState(PdfObject.READING);
+                    } else {
+                        continue;
+                    }
                 }
                 if (tokens.tokenValueEqualsTo(PdfTokenizer.N)) {
-                    if (xref.get(num) == null) {
+                    if (newEntry) {
                         if (pos == 0)
                             tokens.throwError(PdfException.FilePosition1CrossReferenceEntryInThisXrefSubsection);
-                        xref.add(reference);
+                        xref.addCompactEntry(pdfDocument, num, gen, pos, 0, (short) 0);
                     }
                 } else if (tokens.tokenValueEqualsTo(PdfTokenizer.F)) {
-                    if (xref.get(num) == null) {
-                        reference.setFree();
-                        xref.add(reference);
+                    if (newEntry) {
+                        xref.addCompactEntry(pdfDocument, num, gen, 0, 0, PdfObject.FREE);
                     }
                 } else
                     tokens.throwError(PdfException.InvalidCrossReferenceEntryInThisXrefSubsection);
@@ -935,37 +1140,40 @@ public class PdfReader implements Closeable, Serializable {
                     field3 = (field3 << 8) + (b[bptr++] & 0xff);
                 }
                 int base = start;
-                PdfIndirectReference newReference;
+                int genNr;
+                long offsetOrIndex;
+                int objStreamNumber = 0;
+                short state = 0;
                 switch (type) {
                     case 0:
-                        if (base == 0) {
-                            //indirect reference with number = 0 can't be overridden
-                            //xref table already has indirect reference 0 65535 R
-                            newReference = xref.get(base);
-                        } else {
-                            newReference = new PdfIndirectReference(pdfDocument, base, field3, 0);
-                            newReference.setFree();
-                        }
+                        genNr = field3;
+                        offsetOrIndex = 0;
+                        state = PdfObject.FREE;
                         break;
                     case 1:
-                        newReference = new PdfIndirectReference(pdfDocument, base, field3, field2);
+                        genNr = field3;
+                        offsetOrIndex = field2;
                         break;
                     case 2:
-                        newReference = new PdfIndirectReference(pdfDocument, base, 0, field3);
-                        newReference.setObjStreamNumber((int) field2);
+                        genNr = 0;
+                        offsetOrIndex = field3;
+                        objStreamNumber = (int) field2;
                         break;
                     default:
                         throw new PdfException(PdfException.InvalidXrefStream);
                 }
-                if (xref.get(base) == null) {
-                    xref.add(newReference);
-                } else if (xref.get(base).checkState(PdfObject.READING)
-                        && xref.get(base).getObjNumber() == newReference.getObjNumber()
-                        && xref.get(base).getGenNumber() == newReference.getGenNumber()) {
-                    PdfIndirectReference reference = xref.get(base);
-                    reference.setOffset(newReference.getOffset());
-                    reference.setObjStreamNumber(newReference.getObjStreamNumber());
-                    reference.clearState(PdfObject.READING);
+                if (!xref.contains(base)) {
+                    //indirect reference with number = 0 can't be overridden
+                    //xref table already has indirect reference 0 65535 R
+                    xref.addCompactEntry(pdfDocument, base, genNr, offsetOrIndex, objStreamNumber, state);
+                } else {
+                    PdfIndirectReference reference = xref.getIfCreated(base);
+                    if (reference != null && reference.checkState(PdfObject.READING)
+                            && reference.getGenNumber() == genNr) {
+                        reference.setOffset(offsetOrIndex);
+                        reference.setObjStreamNumber(objStreamNumber);
+                        reference.clearState(PdfObject.READING);
+                    }
                 }
                 ++start;
             }
@@ -1061,6 +1269,9 @@ public class PdfReader implements Closeable, Serializable {
         } else if (PdfName.Standard.equals(filter)) {
             decrypt = new PdfEncryption(enc, properties.password, getOriginalFileId());
         }
+        if (decrypt != null) {
+            decrypt.setJceCipherUsed(properties.jceCipher);
+        }
     }
 
     /**
@@ -1081,6 +1292,86 @@ public class PdfReader implements Closeable, Serializable {
         return tok;
     }
 
+    /**
+     * Defers copying of the raw content of the stream read by this reader: the content of the copy is
+     * written directly from the source when the copy is flushed. If the reader is closed before,
+     * the content of the copy is loaded into memory.
+     *
+     * @param stream the stream read by this reader.
+     * @param copy   the copy of the stream.
+     * @return {@code true} if the copying is deferred, {@code false} if the content shall be copied right away.
+     * @throws IOException on error.
+     */
+    synchronized boolean deferStreamContentCopy(PdfStream stream, PdfStream copy) throws IOException {
+        if (decrypt != null || stream.getOffset() <= 0) {
+            return false;
+        }
+        PdfName type = stream.getAsName(PdfName.Type);
+        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type))
+            checkPdfStreamLength(stream);
+        if (stream.getLength() <= 0) {
+            return false;
+        }
+        if (deferredStreamCopies == null) {
+            deferredStreamCopies = Collections.newSetFromMap(new IdentityHashMap<PdfStream, Boolean>());
+        }
+        deferredStreamCopies.add(copy);
+        return true;
+    }
+
+    synchronized void releaseStreamContentCopy(PdfStream copy) {
+        if (deferredStreamCopies != null) {
+            deferredStreamCopies.remove(copy);
+        }
+    }
+
+    synchronized byte[] readStreamContent(long offset, int length) throws IOException {
+        RandomAccessFileOrArray file = tokens.getSafeFile();
+        try {
+            file.seek(offset);
+            byte[] bytes = new byte[length];
+            file.readFully(bytes);
+            return bytes;
+        } finally {
+            file.close();
+        }
+    }
+
+    synchronized void writeStreamContent(long offset, int length, java.io.OutputStream os) throws IOException {
+        RandomAccessFileOrArray file = tokens.getSafeFile();
+        try {
+            byte[] chunk = new byte[Math.min(length, 8192)];
+            java.nio.ByteBuffer buffer = file.getByteBuffer(offset, length);
+            if (buffer != null && buffer.remaining() == length) {
+                while (buffer.hasRemaining()) {
+                    int n = Math.min(chunk.length, buffer.remaining());
+                    buffer.get(chunk, 0, n);
+                    os.write(chunk, 0, n);
+                }
+            } else {
+                file.seek(offset);
+                for (int remaining = length; remaining > 0; ) {
+                    int n = Math.min(chunk.length, remaining);
+                    file.readFully(chunk, 0, n);
+                    os.write(chunk, 0, n);
+                    remaining -= n;
+                }
+            }
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Gets the listener which collects statistics about reading of the document.
+     *
+     * @return the listener defined in {@link ReaderProperties}, or a listener which does nothing.
+     */
+    IMetricsListener getMetricsListener() {
+        IMetricsListener metricsListener = properties.metricsListener;
+        return metricsListener != null ? metricsListener : NoOpMetricsListener.INSTANCE;
+    }
+
     private PdfObject readObject(PdfIndirectReference reference, boolean fixXref) {
         if (reference == null)
             return null;
@@ -1091,6 +1382,9 @@ public class PdfReader implements Closeable, Serializable {
             if (reference.getObjStreamNumber() > 0) {
                 PdfStream objectStream = (PdfStream) pdfDocument.getXref().
                         get(reference.getObjStreamNumber()).getRefersTo(false);
+                if (properties.lazyObjectStreamDecoding) {
+                    return readObjectFromObjectStream(objectStream, reference);
+                }
                 readObjectStream(objectStream);
                 return reference.refersTo;
             } else if (reference.getOffset() > 0) {
@@ -1104,6 +1398,7 @@ public class PdfReader implements Closeable, Serializable {
                         tokens.throwError(PdfException.InvalidOffsetForObject1, reference.toString());
                     }
                     object = readObject(false);
+                    getMetricsListener().onMetric(Metric.OBJECTS_READ, 1);
                 } catch (RuntimeException ex) {
                     if (fixXref && reference.getObjStreamNumber() == 0) {
                         fixXref();
@@ -1121,7 +1416,214 @@ public class PdfReader implements Closeable, Serializable {
         }
     }
 
-    private void checkPdfStreamLength(PdfStream pdfStream) throws IOException {
+    private byte[] getPrefetchedStreamBytes(PdfStream stream) {
+        Future<byte[]> decodedBytes = prefetchedStreams.remove(stream.getIndirectReference());
+        if (decodedBytes == null) {
+            return null;
+        }
+        try {
+            return decodedBytes.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.CannotGetPdfStreamBytes, e, stream);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new PdfException(PdfException.CannotGetPdfStreamBytes, e.getCause(), stream);
+        }
+    }
+
+    private static PdfArray getFilters(PdfDictionary streamDictionary) {
+        PdfObject filter = streamDictionary.get(PdfName.Filter);
+        PdfArray filters = new PdfArray();
+        if (filter != null) {
+            if (filter.getType() == PdfObject.NAME) {
+                filters.add(filter);
+            } else if (filter.getType() == PdfObject.ARRAY) {
+                filters = ((PdfArray) filter);
+            }
+        }
+        return filters;
+    }
+
+    private static PdfArray getDecodeParams(PdfDictionary streamDictionary) {
+        PdfArray dp = new PdfArray();
+        PdfObject dpo = streamDictionary.get(PdfName.DecodeParms);
+        if (dpo == null || (dpo.getType() != PdfObject.DICTIONARY && dpo.getType() != PdfObject.ARRAY)) {
+            if (dpo != null) dpo.release();
+            dpo = streamDictionary.get(PdfName.DP);
+        }
+        if (dpo != null) {
+            if (dpo.getType() == PdfObject.DICTIONARY) {
+                dp.add(dpo);
+            } else if (dpo.getType() == PdfObject.ARRAY) {
+                dp = ((PdfArray) dpo);
+            }
+            dpo.release();
+        }
+        return dp;
+    }
+
+    private static PdfDictionary getDecodeParams(PdfArray dp, int filterIndex) {
+        if (filterIndex < dp.size()) {
+            PdfObject dpEntry = dp.get(filterIndex, true);
+            if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
+                return null;
+            } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
+                return (PdfDictionary) dpEntry;
+            } else {
+                throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
+            }
+        }
+        return null;
+    }
+
+    private static IFilterHandler getFilterHandler(PdfName filterName, Map<PdfName, IFilterHandler> filterHandlers) {
+        IFilterHandler filterHandler = filterHandlers.get(filterName);
+        if (filterHandler == null)
+            throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+        return filterHandler;
+    }
+
+    /**
+     * Creates a detached copy of the stream dictionary, so that filter handlers, including custom ones,
+     * could decode the stream on another thread without reading any objects from the document.
+     * All the entries except /Length are copied, indirect objects are resolved. Streams met inside the entries,
+     * e.g. /JBIG2Globals of /DecodeParms, are copied together with their decoded bytes.
+     * Stream-valued entries of the stream dictionary itself, e.g. /SMask or /Metadata, don't describe decoding
+     * and are skipped, so that they are not read in advance.
+     */
+    private static PdfDictionary getDecodingDictionary(PdfStream stream) {
+        Map<PdfObject, PdfObject> copies = new IdentityHashMap<>();
+        PdfDictionary decodingDictionary = new PdfDictionary();
+        for (PdfName key : stream.keySet()) {
+            if (PdfName.Length.equals(key)) {
+                continue;
+            }
+            PdfObject value = stream.get(key, true);
+            if (value != null && value.getType() != PdfObject.STREAM) {
+                decodingDictionary.put(key, getDirectCopy(value, copies));
+            }
+        }
+        return decodingDictionary;
+    }
+
+    private static PdfObject getDirectCopy(PdfObject object, Map<PdfObject, PdfObject> copies) {
+        PdfObject copy = copies.get(object);
+        if (copy != null) {
+            return copy;
+        }
+        switch (object.getType()) {
+            case PdfObject.STREAM: {
+                PdfStream stream = (PdfStream) object;
+                PdfStream streamCopy = new PdfStream(stream.getBytes(true));
+                copies.put(object, streamCopy);
+                for (PdfName key : stream.keySet()) {
+                    if (PdfName.Length.equals(key) || PdfName.Filter.equals(key)
+                            || PdfName.DecodeParms.equals(key) || PdfName.DP.equals(key)) {
+                        continue;
+                    }
+                    PdfObject value = stream.get(key, true);
+                    if (value != null) {
+                        streamCopy.put(key, getDirectCopy(value, copies));
+                    }
+                }
+                return streamCopy;
+            }
+            case PdfObject.DICTIONARY: {
+                PdfDictionary dictionary = (PdfDictionary) object;
+                PdfDictionary dictionaryCopy = new PdfDictionary();
+                copies.put(object, dictionaryCopy);
+                for (PdfName key : dictionary.keySet()) {
+                    PdfObject value = dictionary.get(key, true);
+                    if (value != null) {
+                        dictionaryCopy.put(key, getDirectCopy(value, copies));
+                    }
+                }
+                return dictionaryCopy;
+            }
+            case PdfObject.ARRAY: {
+                PdfArray array = (PdfArray) object;
+                PdfArray arrayCopy = new PdfArray();
+                copies.put(object, arrayCopy);
+                for (int i = 0; i < array.size(); i++) {
+                    PdfObject value = array.get(i, true);
+                    arrayCopy.add(value != null ? getDirectCopy(value, copies) : new PdfNull());
+                }
+                return arrayCopy;
+            }
+            default:
+                return object;
+        }
+    }
+
+    private ObjectStreamCache.DecodedObjectStream getDecodedObjectStream(PdfStream objectStream) throws IOException {
+        if (objectStreamCache == null) {
+            objectStreamCache = new ObjectStreamCache(properties.objectStreamCacheSize);
+        }
+        int objectStreamNumber = objectStream.getIndirectReference().getObjNumber();
+        ObjectStreamCache.DecodedObjectStream decodedStream = objectStreamCache.get(objectStreamNumber);
+        if (decodedStream == null) {
+            int first = objectStream.getAsNumber(PdfName.First).intValue();
+            int n = objectStream.getAsNumber(PdfName.N).intValue();
+            byte[] bytes = readStreamBytes(objectStream, true);
+            int[] address = new int[n];
+            int[] objNumber = new int[n];
+            PdfTokenizer saveTokens = tokens;
+            try {
+                tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes)));
+                readObjectStreamOffsets(first, objNumber, address);
+            } finally {
+                tokens = saveTokens;
+            }
+            decodedStream = new ObjectStreamCache.DecodedObjectStream(bytes, objNumber, address);
+            objectStreamCache.put(objectStreamNumber, decodedStream);
+            objectStream.getIndirectReference().setState(PdfObject.ORIGINAL_OBJECT_STREAM);
+            getMetricsListener().onMetric(Metric.OBJECT_STREAMS_DECODED, 1);
+        } else {
+            getMetricsListener().onMetric(Metric.OBJECT_STREAM_CACHE_HITS, 1);
+        }
+        return decodedStream;
+    }
+
+    private void readObjectStreamOffsets(int first, int[] objNumber, int[] address) throws IOException {
+        boolean ok = true;
+        for (int k = 0; k < objNumber.length; ++k) {
+            ok = tokens.nextToken();
+            if (!ok)
+                break;
+            if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
+                ok = false;
+                break;
+            }
+            objNumber[k] = tokens.getIntValue();
+            ok = tokens.nextToken();
+            if (!ok)
+                break;
+            if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
+                ok = false;
+                break;
+            }
+            address[k] = tokens.getIntValue() + first;
+        }
+        if (!ok)
+            throw new PdfException(PdfException.ErrorWhileReadingObjectStream);
+    }
+
+    private PdfObject readObjectStreamEntry(int address) throws IOException {
+        tokens.seek(address);
+        tokens.nextToken();
+        if (tokens.getTokenType() == PdfTokenizer.TokenType.Number) {
+            return new PdfNumber(tokens.getByteContent());
+        } else {
+            tokens.seek(address);
+            return readObject(false, true);
+        }
+    }
+
+    // synchronized, since the tokens are used, see #getSafeFile()
+    private synchronized void checkPdfStreamLength(PdfStream pdfStream) throws IOException {
         if (!correctStreamLength)
             return;
         long fileLength = tokens.length();
@@ -1187,7 +1689,12 @@ public class PdfReader implements Closeable, Serializable {
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
         in.defaultReadObject();
         if (sourcePath != null && tokens == null) {
-            tokens = getOffsetTokeniser(new RandomAccessSourceFactory().setForceRead(false).createBestSource(sourcePath));
+            RandomAccessSourceFactory factory = new RandomAccessSourceFactory().setForceRead(false);
+            IRandomAccessSource byteSource = factory.createBestSource(sourcePath);
+            if (properties.concurrentReading) {
+                byteSource = factory.createThreadSafeSource(byteSource);
+            }
+            tokens = getOffsetTokeniser(byteSource);
         }
     }
 
@@ -1244,4 +1751,91 @@ public class PdfReader implements Closeable, Serializable {
             buffer = null;
         }
     }
+
+    /**
+     * Serves the incrementally decoded data of the stream. Streaming filters report corrupted data with an
+     * {@link IOException}, in this case the stream is decoded again at once by {@link #readStreamBytes(PdfStream, boolean)},
+     * which recovers as much of the corrupted data as possible, and the bytes following the already returned ones
+     * are served from the recovered data.
+     */
+    private class RecoveringDecodedInputStream extends InputStream {
+        private final PdfStream stream;
+        private InputStream decoded;
+        private long position;
+        private boolean recovered;
+
+        RecoveringDecodedInputStream(PdfStream stream, InputStream decoded) {
+            this.stream = stream;
+            this.decoded = decoded;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == 1 ? b[0] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n;
+            try {
+                n = decoded.read(b, off, len);
+            } catch (IOException e) {
+                recover(e);
+                n = decoded.read(b, off, len);
+            }
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return decoded.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            decoded.close();
+        }
+
+        private void recover(IOException cause) throws IOException {
+            if (recovered) {
+                throw cause;
+            }
+            recovered = true;
+            try {
+                decoded.close();
+            } catch (IOException ignored) {
+                // the data is read again anyway
+            }
+            byte[] bytes;
+            try {
+                bytes = readStreamBytes(stream, true);
+            } catch (RuntimeException e) {
+                throw cause;
+            }
+            if (bytes == null) {
+                throw cause;
+            }
+            int offset = (int) Math.min(position, bytes.length);
+            decoded = new ByteArrayInputStream(bytes, offset, bytes.length - offset);
+        }
+    }
+
+    private static class StreamDecodingTask implements Callable<byte[]> {
+        private final byte[] bytes;
+        private final PdfDictionary decodingDictionary;
+
+        StreamDecodingTask(byte[] bytes, PdfDictionary decodingDictionary) {
+            this.bytes = bytes;
+            this.decodingDictionary = decodingDictionary;
+        }
+
+        @Override
+        public byte[] call() {
+            return decodeBytes(bytes, decodingDictionary);
+        }
+    }
 }
@@ -70,6 +70,11 @@ public class PdfStream extends PdfDictionary {
     private long offset;
     private int length = -1;
 
+    // Reader of the document, from which the raw content of the copied stream is not loaded yet.
+    private PdfReader rawContentReader;
+    private long rawContentOffset;
+    private int rawContentLength;
+
     /**
      * Constructs a {@code PdfStream}-object.
      *
@@ -181,6 +186,7 @@ public class PdfStream extends PdfDictionary {
      * @return output stream
      */
     public PdfOutputStream getOutputStream() {
+        loadRawContent();
         return outputStream;
     }
 
@@ -235,6 +241,7 @@ public class PdfStream extends PdfDictionary {
                     "getBytes() always returns null in this case");
             return null;
         }
+        loadRawContent();
         byte[] bytes = null;
         if (outputStream != null && outputStream.getOutputStream() != null) {
             assert outputStream.getOutputStream() instanceof ByteArrayOutputStream
@@ -283,6 +290,11 @@ public class PdfStream extends PdfDictionary {
         if (inputStream != null) {
             throw new PdfException(PdfException.CannotSetDataToPdfstreamWhichWasCreatedByInputStream);
         }
+        if (append) {
+            loadRawContent();
+        } else {
+            releaseRawContent();
+        }
 
         boolean outputStreamIsUninitialized = outputStream == null;
         if (outputStreamIsUninitialized) {
@@ -394,14 +406,59 @@ public class PdfStream extends PdfDictionary {
         super.copyContent(from, document);
         PdfStream stream = (PdfStream) from;
         assert inputStream == null : "Try to copy the PdfStream that has been just created.";
-        byte[] bytes = stream.getBytes(false);
         try {
+            // unmodified content of the read stream is not loaded, but written directly from the source on flushing
+            PdfReader reader = stream.getIndirectReference() != null ? stream.getIndirectReference().getReader() : null;
+            if (stream.outputStream == null && stream.rawContentReader == null && reader != null
+                    && reader.deferStreamContentCopy(stream, this)) {
+                rawContentReader = reader;
+                rawContentOffset = stream.getOffset();
+                rawContentLength = stream.getLength();
+                outputStream = null;
+                return;
+            }
+            byte[] bytes = stream.getBytes(false);
             outputStream.write(bytes);
         } catch (IOException ioe) {
             throw new PdfException(PdfException.CannotCopyObjectContent, ioe, stream);
         }
     }
 
+    /**
+     * Checks whether the raw content of the stream copied from another document is not loaded yet.
+     * Such content is written to the output directly from the source document, unless it shall be
+     * compressed or encrypted.
+     */
+    boolean isRawContentDeferred() {
+        return rawContentReader != null;
+    }
+
+    int getRawContentLength() {
+        return rawContentLength;
+    }
+
+    void writeRawContent(java.io.OutputStream os) throws IOException {
+        rawContentReader.writeStreamContent(rawContentOffset, rawContentLength, os);
+    }
+
+    /**
+     * Loads the deferred raw content of the copied stream into memory, e.g. before the content is modified
+     * or the source document is closed.
+     */
+    void loadRawContent() {
+        if (rawContentReader != null) {
+            byte[] bytes;
+            try {
+                bytes = rawContentReader.readStreamContent(rawContentOffset, rawContentLength);
+            } catch (IOException ioe) {
+                throw new PdfException(PdfException.CannotGetPdfStreamBytes, ioe, this);
+            }
+            releaseRawContent();
+            outputStream = new PdfOutputStream(new ByteArrayOutputStream(bytes.length));
+            outputStream.writeBytes(bytes);
+        }
+    }
+
     protected void initOutputStream(java.io.OutputStream stream) {
         if (getOutputStream() == null && inputStream == null)
             outputStream = new PdfOutputStream(stream != null ? stream : new ByteArrayOutputStream());
@@ -412,6 +469,7 @@ public class PdfStream extends PdfDictionary {
      */
     protected void releaseContent() {
         super.releaseContent();
+        releaseRawContent();
         try {
             if (outputStream != null) {
                 outputStream.close();
@@ -426,7 +484,15 @@ public class PdfStream extends PdfDictionary {
         return inputStream;
     }
 
+    private void releaseRawContent() {
+        if (rawContentReader != null) {
+            rawContentReader.releaseStreamContentCopy(this);
+            rawContentReader = null;
+        }
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
+        loadRawContent();
         if (inputStream == null || inputStream instanceof Serializable) {
             out.defaultWriteObject();
         } else {
@@ -303,8 +303,7 @@ public class PdfString extends PdfPrimitiveObject {
             assert content != null : "No byte content to decrypt value";
             byte[] decodedContent = PdfTokenizer.decodeStringContent(content, hexWriting);
             content = null;
-            decrypt.setHashKeyForNextObject(decryptInfoNum, decryptInfoGen);
-            value = PdfEncodings.convertToString(decrypt.decryptByteArray(decodedContent), null);
+            value = PdfEncodings.convertToString(decrypt.decryptByteArray(decodedContent, decryptInfoNum, decryptInfoGen), null);
         }
         return this;
     }
@@ -45,8 +45,12 @@ package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.ParallelDeflater;
 import com.itextpdf.io.util.FileUtil;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.log.IMetricsListener;
+import com.itextpdf.kernel.log.Metric;
+import com.itextpdf.kernel.log.NoOpMetricsListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,10 +59,18 @@ import java.io.IOException;
 import java.io.NotSerializableException;
 import java.io.OutputStream;
 import java.io.Serializable;
-import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static com.itextpdf.io.source.ByteUtils.getIsoBytes;
 
@@ -88,10 +100,25 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
     private Map<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedObjects = new HashMap<>();
 
     /**
-     * Is used in smart mode to store serialized objects content.
+     * Is used in smart mode to find previously copied objects with the same content.
      */
-    private HashMap<SerializedPdfObject, PdfIndirectReference> serializedContentToObjectRef = new HashMap<>();
-    private HashMap<PdfDocument.IndirectRefDescription, byte[]> objectRefToSerializedContent = new HashMap<>();
+    private HashMap<PdfObjectDigester.Digest, PdfIndirectReference> digestToObjectRef = new HashMap<>();
+    private PdfObjectDigester smartModeDigester = new PdfObjectDigester();
+
+    /**
+     * The maximum number of streams which are compressed in advance at the same time.
+     */
+    private static final int MAX_PRECOMPRESSED_STREAMS = 64;
+
+    /**
+     * Streams which are being compressed in advance on the {@link WriterProperties#compressionExecutor}.
+     */
+    private transient Map<PdfStream, PrecompressedStream> precompressedStreams;
+
+    /**
+     * Streams which are waiting for a free slot to be compressed in advance.
+     */
+    private transient ArrayDeque<PdfStream> streamsToPrecompress;
 
     //forewarned is forearmed
     protected boolean isUserWarnedAboutAcroFormCopying;
@@ -111,6 +138,9 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             crypto = new PdfEncryption(encryptProps.publicCertificates,
                     encryptProps.publicKeyEncryptPermissions, encryptProps.encryptionAlgorithm);
         }
+        if (crypto != null) {
+            crypto.setJceCipherUsed(properties.jceCipher);
+        }
         if (properties.debugMode) {
             setDebugMode();
         }
@@ -133,6 +163,19 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         return properties.isFullCompression != null ? (boolean) properties.isFullCompression : false;
     }
 
+    /**
+     * Indicates if the tag structure is written page by page as the pages are flushed.
+     * Streaming pages tree mode implies this mode, because the released pages can't be revisited
+     * when the tag structure is written at closing.
+     *
+     * @return true if streaming tag structure mode is used, false otherwise.
+     * @see WriterProperties#useStreamingTagStructure()
+     * @see WriterProperties#useStreamingPageTree()
+     */
+    public boolean isStreamingTagStructure() {
+        return properties.streamingTagStructure || properties.streamingPageTree;
+    }
+
     /**
      * Gets default compression level for @see PdfStream.
      * For more details @see {@link java.util.zip.Deflater}.
@@ -197,6 +240,13 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         try {
             super.close();
         } finally {
+            if (precompressedStreams != null) {
+                for (PrecompressedStream precompressedStream : precompressedStreams.values()) {
+                    precompressedStream.compressedBytes.cancel(false);
+                }
+                precompressedStreams = null;
+            }
+            streamsToPrecompress = null;
             try {
                 if (duplicateStream != null) {
                     duplicateStream.close();
@@ -243,6 +293,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             writeToBody(pdfObject);
         }
         indirectReference.setState(PdfObject.FLUSHED).clearState(PdfObject.MUST_BE_FLUSHED);
+        getMetricsListener().onMetric(Metric.OBJECTS_WRITTEN, 1);
         switch (pdfObject.getType()) {
             case PdfObject.BOOLEAN:
             case PdfObject.NAME:
@@ -265,6 +316,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             case PdfObject.INDIRECT_REFERENCE:
                 markObjectToFlush(((PdfIndirectReference) pdfObject).getRefersTo(false));
         }
+        document.getXref().releaseFlushedReference(indirectReference);
     }
 
     protected PdfObject copyObject(PdfObject obj, PdfDocument document, boolean allowDuplicating) {
@@ -302,6 +354,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         if (properties.smartMode && tryToFindDuplicate && !checkTypeOfPdfDictionary(obj, PdfName.Page)) {
             PdfIndirectReference copiedObjectRef = tryToFindPreviouslyCopiedEqualObject(obj);
             if (copiedObjectRef != null) {
+                getMetricsListener().onMetric(Metric.SMART_MODE_DUPLICATES, 1);
                 PdfIndirectReference copiedIndirectReference = copiedObjects.get(new PdfDocument.IndirectRefDescription(copiedObjectRef));
                 copiedObjects.put(copiedObjectKey, copiedIndirectReference);
                 return copiedIndirectReference.getRefersTo();
@@ -355,7 +408,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         while (needFlush) {
             needFlush = false;
             for (int i = 1; i < xref.size(); i++) {
-                PdfIndirectReference indirectReference = xref.get(i);
+                PdfIndirectReference indirectReference = xref.getIfCreated(i);
                 if (indirectReference != null
                         && indirectReference.checkState(PdfObject.MUST_BE_FLUSHED)) {
                     PdfObject obj = indirectReference.getRefersTo(false);
@@ -377,8 +430,8 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     protected void flushModifiedWaitingObjects() {
         PdfXrefTable xref = document.getXref();
-        for (int i = 1; i < xref.size(); i++) {
-            PdfIndirectReference indirectReference = xref.get(i);
+        for (int i = xref.nextModifiedReference(1); i >= 0; i = xref.nextModifiedReference(i + 1)) {
+            PdfIndirectReference indirectReference = xref.getIfCreated(i);
             if (null != indirectReference) {
                 PdfObject obj = indirectReference.getRefersTo(false);
                 if (obj != null && !obj.equals(objectStream) && obj.isModified()) {
@@ -392,6 +445,95 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         }
     }
 
+    /**
+     * Starts compression of the given streams on the {@link WriterProperties#compressionExecutor}, one task per stream.
+     * Only streams, which content is kept in memory and is going to be compressed on writing, are taken into account.
+     * At most {@link #MAX_PRECOMPRESSED_STREAMS} streams are compressed in advance at the same time, the rest
+     * wait in the queue until the precompressed streams are written.
+     * The content is copied on the calling thread, so the streams could be safely modified afterwards:
+     * the precompressed bytes are used only if the stream content has not changed.
+     *
+     * @param streams the streams which are going to be written soon.
+     */
+    void precompressStreams(Collection<PdfStream> streams) {
+        if (properties.compressionExecutor == null) {
+            return;
+        }
+        if (streamsToPrecompress == null) {
+            streamsToPrecompress = new ArrayDeque<>();
+        }
+        for (PdfStream stream : streams) {
+            if (stream != null) {
+                streamsToPrecompress.add(stream);
+            }
+        }
+        submitPrecompressionTasks();
+    }
+
+    /**
+     * Starts compression of all the loaded streams which are waiting to be flushed.
+     *
+     * @param modifiedOnly {@code true} if only modified streams shall be taken into account, e.g. in append mode.
+     */
+    void precompressWaitingStreams(boolean modifiedOnly) {
+        if (properties.compressionExecutor == null) {
+            return;
+        }
+        PdfXrefTable xref = document.getXref();
+        List<PdfStream> streams = new ArrayList<>();
+        for (int i = modifiedOnly ? xref.nextModifiedReference(1) : 1; i >= 0 && i < xref.size();
+                i = modifiedOnly ? xref.nextModifiedReference(i + 1) : i + 1) {
+            PdfIndirectReference indirectReference = xref.getIfCreated(i);
+            if (indirectReference != null && !indirectReference.isFree() && !indirectReference.checkState(PdfObject.FLUSHED)) {
+                PdfObject obj = indirectReference.getRefersTo(false);
+                if (obj != null && obj.isStream() && (!modifiedOnly || obj.isModified())) {
+                    streams.add((PdfStream) obj);
+                }
+            }
+        }
+        precompressStreams(streams);
+    }
+
+    /**
+     * Gets the compressed content of the stream, either compressed in advance or split into blocks which are
+     * compressed concurrently. Returns {@code null} if the stream shall be compressed in the usual way.
+     *
+     * @param pdfStream the stream which content is going to be compressed.
+     * @return compressed bytes of the stream, or {@code null}.
+     */
+    byte[] getParallelCompressedBytes(PdfStream pdfStream) {
+        ExecutorService executor = properties.compressionExecutor;
+        if (executor == null || pdfStream instanceof PdfObjectStream || pdfStream.getOutputStream() == null
+                || !(pdfStream.getOutputStream().getOutputStream() instanceof ByteArrayOutputStream)) {
+            return null;
+        }
+        ByteArrayOutputStream content = (ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream();
+        PrecompressedStream precompressedStream = precompressedStreams != null ? precompressedStreams.remove(pdfStream) : null;
+        if (precompressedStream != null) {
+            submitPrecompressionTasks();
+            if (precompressedStream.compressionLevel == getEffectiveCompressionLevel(pdfStream)
+                    && Arrays.equals(precompressedStream.content, content.toByteArray())) {
+                return getPrecompressedBytes(precompressedStream);
+            }
+            precompressedStream.compressedBytes.cancel(false);
+        }
+        if (content.size() >= 2 * ParallelDeflater.DEFAULT_BLOCK_SIZE) {
+            return ParallelDeflater.deflate(content.toByteArray(), pdfStream.getCompressionLevel(), executor);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the listener which collects statistics about writing of the document.
+     *
+     * @return the listener defined in {@link WriterProperties}, or a listener which does nothing.
+     */
+    @Override
+    IMetricsListener getMetricsListener() {
+        IMetricsListener metricsListener = properties.metricsListener;
+        return metricsListener != null ? metricsListener : NoOpMetricsListener.INSTANCE;
+    }
+
     /**
      * Calculates hash code for the indirect reference taking into account the document it belongs to.
      *
@@ -427,14 +569,16 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      * @return indirect reference of the object with the same content, which already has a copy in the new document.
      */
     private PdfIndirectReference tryToFindPreviouslyCopiedEqualObject(PdfObject object) {
-        SerializedPdfObject objectKey;
         if (object.isStream() || object.isDictionary()) {
-            objectKey = new SerializedPdfObject(object, objectRefToSerializedContent);
-            PdfIndirectReference objectRef = serializedContentToObjectRef.get(objectKey);
+            PdfObjectDigester.Digest objectKey = smartModeDigester.digest(object);
+            if (objectKey == null) {
+                return null;
+            }
+            PdfIndirectReference objectRef = digestToObjectRef.get(objectKey);
             if (objectRef != null) {
                 return objectRef;
             }
-            serializedContentToObjectRef.put(objectKey, object.getIndirectReference());
+            digestToObjectRef.put(objectKey, object.getIndirectReference());
         }
 
         return null;
@@ -487,10 +631,61 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         }
     }
 
+    private int getEffectiveCompressionLevel(PdfStream stream) {
+        return stream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION ?
+                stream.getCompressionLevel() : getCompressionLevel();
+    }
+
     private static boolean checkTypeOfPdfDictionary(PdfObject dictionary, PdfName expectedType) {
         return dictionary.isDictionary() && expectedType.equals(((PdfDictionary) dictionary).getAsName(PdfName.Type));
     }
 
+    private void submitPrecompressionTasks() {
+        ExecutorService executor = properties.compressionExecutor;
+        if (executor == null || streamsToPrecompress == null) {
+            return;
+        }
+        while (!streamsToPrecompress.isEmpty()
+                && (precompressedStreams == null || precompressedStreams.size() < MAX_PRECOMPRESSED_STREAMS)) {
+            PdfStream stream = streamsToPrecompress.poll();
+            if (stream instanceof PdfObjectStream || stream.isFlushed() || !isContentCompressionRequired(stream)
+                    || precompressedStreams != null && precompressedStreams.containsKey(stream)) {
+                continue;
+            }
+            ByteArrayOutputStream content = (ByteArrayOutputStream) stream.getOutputStream().getOutputStream();
+            // large streams are split into blocks and compressed concurrently on writing
+            if (content.size() >= 2 * ParallelDeflater.DEFAULT_BLOCK_SIZE) {
+                continue;
+            }
+            if (precompressedStreams == null) {
+                precompressedStreams = new IdentityHashMap<>();
+            }
+            byte[] bytes = content.toByteArray();
+            int compressionLevel = getEffectiveCompressionLevel(stream);
+            StreamCompressionTask task = new StreamCompressionTask(bytes, compressionLevel);
+            precompressedStreams.put(stream, new PrecompressedStream(bytes, compressionLevel, task, executor.submit(task)));
+        }
+    }
+
+    /**
+     * Waits for the stream compressed in advance. If the task has not been started yet, e.g. because the
+     * writer itself is used on a thread of the busy compression executor, the stream is compressed
+     * on the calling thread instead of waiting for it.
+     */
+    private static byte[] getPrecompressedBytes(PrecompressedStream precompressedStream) {
+        if (precompressedStream.compressedBytes.cancel(false)) {
+            return precompressedStream.task.call();
+        }
+        try {
+            return precompressedStream.compressedBytes.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.IoException, e);
+        } catch (ExecutionException e) {
+            throw new PdfException(PdfException.IoException, e.getCause());
+        }
+    }
+
     /**
      * This method is invoked while deserialization
      */
@@ -514,123 +709,32 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         outputStream = tempOutputStream;
     }
 
-    static class SerializedPdfObject {
-        private final byte[] serializedContent;
-        private final int hash;
-
-        private MessageDigest md5;
-        private HashMap<PdfDocument.IndirectRefDescription, byte[]> objToSerializedContent;
-
-        SerializedPdfObject(PdfObject obj, HashMap<PdfDocument.IndirectRefDescription, byte[]> objToSerializedContent) {
-            assert obj.isDictionary() || obj.isStream();
-
-            this.objToSerializedContent = objToSerializedContent;
-            try {
-                md5 = MessageDigest.getInstance("MD5");
-            } catch (Exception e) {
-                throw new PdfException(e);
-            }
-            ByteBufferOutputStream bb = new ByteBufferOutputStream();
-            int level = 100;
-            serObject(obj, level, bb);
-            this.serializedContent = bb.toByteArray();
-            hash = calculateHash(this.serializedContent);
-            md5 = null;
-        }
-
-        // TODO 2: object is not checked if it was already serialized on start, double work could be done
-        // TODO 3: indirect objects often stored multiple times as parts of the other objects
-        private void serObject(PdfObject obj, int level, ByteBufferOutputStream bb) {
-            if (level <= 0)
-                return;
-            if (obj == null) {
-                bb.append("$Lnull");
-                return;
-            }
-            PdfIndirectReference reference = null;
-            ByteBufferOutputStream savedBb = null;
-            PdfDocument.IndirectRefDescription indRefKey = null;
-
-            if (obj.isIndirectReference()) {
-                reference = (PdfIndirectReference) obj;
-                indRefKey = new PdfDocument.IndirectRefDescription(reference);
-                byte[] cached = objToSerializedContent.get(indRefKey);
-                if (cached != null) {
-                    bb.append(cached);
-                    return;
-                } else {
-                    savedBb = bb;
-                    bb = new ByteBufferOutputStream();
-                    obj = reference.getRefersTo();
-                }
-            }
+    private static class PrecompressedStream {
+        private final byte[] content;
+        private final int compressionLevel;
+        private final StreamCompressionTask task;
+        private final Future<byte[]> compressedBytes;
 
-            if (obj.isStream()) {
-                bb.append("$B");
-                serDic((PdfDictionary) obj, level - 1, bb);
-                if (level > 0) {
-                    md5.reset();
-                    bb.append(md5.digest(((PdfStream) obj).getBytes(false)));
-                }
-            } else if (obj.isDictionary()) {
-                serDic((PdfDictionary) obj, level - 1, bb);
-            } else if (obj.isArray()) {
-                serArray((PdfArray) obj, level - 1, bb);
-            } else if (obj.isString()) {
-                bb.append("$S").append(obj.toString());
-            } else if (obj.isName()) {
-                bb.append("$N").append(obj.toString());
-            } else
-                bb.append("$L").append(obj.toString()); // PdfNull case is also here
-
-            if (savedBb != null) {
-                objToSerializedContent.put(indRefKey, bb.getBuffer());
-                savedBb.append(bb);
-            }
-        }
-
-        private void serDic(PdfDictionary dic, int level, ByteBufferOutputStream bb) {
-            bb.append("$D");
-            if (level <= 0)
-                return;
-            PdfName[] keys = new PdfName[dic.keySet().size()];
-            keys = dic.keySet().toArray(keys);
-            Arrays.sort(keys);
-            for (Object key : keys) {
-                if (key.equals(PdfName.P) && (dic.get((PdfName) key).isIndirectReference() || dic.get((PdfName) key).isDictionary()) || key.equals(PdfName.Parent)) // ignore recursive call
-                    continue;
-                serObject((PdfObject) key, level, bb);
-                serObject(dic.get((PdfName) key, false), level, bb);
-
-            }
-        }
-
-        private void serArray(PdfArray array, int level, ByteBufferOutputStream bb) {
-            bb.append("$A");
-            if (level <= 0)
-                return;
-            for (int k = 0; k < array.size(); ++k) {
-                serObject(array.get(k, false), level, bb);
-            }
+        PrecompressedStream(byte[] content, int compressionLevel, StreamCompressionTask task, Future<byte[]> compressedBytes) {
+            this.content = content;
+            this.compressionLevel = compressionLevel;
+            this.task = task;
+            this.compressedBytes = compressedBytes;
         }
+    }
 
-        private static int calculateHash(byte[] b) {
-            int hash = 0;
-            int len = b.length;
-            for (int k = 0; k < len; ++k) {
-                hash = hash * 31 + (b[k] & 0xff);
-            }
-            return hash;
-        }
+    private static class StreamCompressionTask implements Callable<byte[]> {
+        private final byte[] bytes;
+        private final int compressionLevel;
 
-        @Override
-        public boolean equals(Object obj) {
-            return obj instanceof SerializedPdfObject && hashCode() == obj.hashCode() && Arrays.equals(serializedContent, ((SerializedPdfObject) obj).serializedContent);
+        StreamCompressionTask(byte[] bytes, int compressionLevel) {
+            this.bytes = bytes;
+            this.compressionLevel = compressionLevel;
         }
 
         @Override
-        public int hashCode() {
-            return hash;
+        public byte[] call() {
+            return ParallelDeflater.deflate(bytes, compressionLevel, null);
         }
     }
 }
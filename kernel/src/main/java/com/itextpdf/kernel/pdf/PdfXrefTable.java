@@ -52,8 +52,8 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.TreeSet;
 
 class PdfXrefTable implements Serializable {
 
@@ -65,10 +65,31 @@ class PdfXrefTable implements Serializable {
     private static final byte[] freeXRefEntry = ByteUtils.getIsoBytes("f \n");
     private static final byte[] inUseXRefEntry = ByteUtils.getIsoBytes("n \n");
 
+    private static final int COMPACT_ENTRY = 0x80000000;
+    private static final int STATE_SHIFT = 16;
+
     private PdfIndirectReference[] xref;
     private int count = 0;
 
-    private final TreeSet<Integer> freeReferences;
+    private final BitSet freeReferences;
+
+    /**
+     * Numbers of the objects which references have been marked as modified. The modified state is never cleared,
+     * so the set lets the writer find modified objects, and append mode build its cross-reference section,
+     * without walking the whole table.
+     */
+    private final BitSet modifiedReferences;
+
+    /**
+     * Compact entries of the references which currently have no {@link PdfIndirectReference} instance:
+     * entries read from the cross-reference section of the document and references released after flushing.
+     * An instance is created on the first {@link #get(int)} call. The arrays are parallel to {@link #xref}
+     * and are allocated only when the first compact entry is added.
+     */
+    private long[] offsets;
+    private int[] objStreamNumbers;
+    private int[] generationsAndStates;
+    private PdfDocument document;
 
     public PdfXrefTable() {
         this(INITIAL_CAPACITY);
@@ -79,7 +100,8 @@ class PdfXrefTable implements Serializable {
             capacity = INITIAL_CAPACITY;
         }
         xref = new PdfIndirectReference[capacity];
-        freeReferences = new TreeSet<>();
+        freeReferences = new BitSet();
+        modifiedReferences = new BitSet();
         add(new PdfIndirectReference(null, 0, MAX_GENERATION, 0).setState(PdfObject.FREE));
     }
 
@@ -96,6 +118,7 @@ class PdfXrefTable implements Serializable {
         this.count = Math.max(this.count, objNr);
         ensureCount(objNr);
         xref[objNr] = reference;
+        removeCompactEntry(objNr);
         return reference;
     }
 
@@ -103,13 +126,136 @@ class PdfXrefTable implements Serializable {
         return count + 1;
     }
 
+    /**
+     * Gets the indirect reference by the object number, creating its instance if it doesn't exist yet.
+     * <p/>
+     * References are released after their objects have been flushed, see {@link #releaseFlushedReference}.
+     * A new instance is created for a released reference, so references of flushed objects are not stable
+     * identities: they shall be compared with {@link PdfIndirectReference#equals(Object)} rather than by identity.
+     *
+     * @param index the object number.
+     * @return the indirect reference, or {@code null} if there is no entry for the object number.
+     */
     public PdfIndirectReference get(int index) {
+        if (index > count) {
+            return null;
+        }
+        PdfIndirectReference reference = xref[index];
+        if (reference == null && hasCompactEntry(index)) {
+            reference = createReferenceFromCompactEntry(index);
+        }
+        return reference;
+    }
+
+    /**
+     * Gets the indirect reference only if its instance already exists. Unlike {@link #get(int)},
+     * no instance is created for the entries which have not been requested yet or have been released after flushing.
+     * Such entries are never loaded, modified or waiting to be flushed.
+     *
+     * @param index the object number.
+     * @return the indirect reference instance or {@code null}.
+     */
+    PdfIndirectReference getIfCreated(int index) {
         if (index > count) {
             return null;
         }
         return xref[index];
     }
 
+    /**
+     * Gets the indirect reference like {@link #get(int)} does, but doesn't keep the instances created for
+     * the references released after flushing in the table, so that iterating over the whole table
+     * doesn't restore all the released references.
+     *
+     * @param index the object number.
+     * @return the indirect reference, or {@code null} if there is no entry for the object number.
+     */
+    PdfIndirectReference getWithoutRestoring(int index) {
+        if (index > count) {
+            return null;
+        }
+        if (xref[index] == null && hasCompactEntry(index) && (getEntryState(index) & PdfObject.FLUSHED) != 0) {
+            return newReferenceFromCompactEntry(index);
+        }
+        return get(index);
+    }
+
+    /**
+     * Checks if the entry is free or its object has been flushed, without creating an indirect reference instance.
+     *
+     * @param index the object number.
+     * @return true if the entry is free or flushed, or if there is no entry for the object number.
+     */
+    boolean isFreeOrFlushed(int index) {
+        if (index > count) {
+            return true;
+        }
+        int state = getEntryState(index);
+        return state == -1 || (state & (PdfObject.FREE | PdfObject.FLUSHED)) != 0;
+    }
+
+    /**
+     * Gets the next object number, which reference might have been marked as modified, starting from the given one.
+     * Objects which are not in the returned sequence are never modified.
+     *
+     * @param fromIndex the object number to start from.
+     * @return the object number, or -1 if there are no more modified references.
+     */
+    int nextModifiedReference(int fromIndex) {
+        return modifiedReferences.nextSetBit(fromIndex);
+    }
+
+    void markModified(int objNr) {
+        modifiedReferences.set(objNr);
+    }
+
+    /**
+     * Checks if the table has an entry for the object number, either an indirect reference instance or a compact entry.
+     *
+     * @param index the object number.
+     * @return true if there is an entry for the object number.
+     */
+    boolean contains(int index) {
+        return index <= count && (xref[index] != null || hasCompactEntry(index));
+    }
+
+    /**
+     * Adds an entry read from the cross-reference section without creating an indirect reference instance.
+     *
+     * @param document          the document the entry belongs to.
+     * @param objNr             the object number.
+     * @param genNr             the generation number.
+     * @param offsetOrIndex     the offset of the object, or its index in the object stream.
+     * @param objStreamNumber   the number of the object stream containing the object, or 0.
+     * @param state             the state of the entry, either 0 or {@link PdfObject#FREE}.
+     */
+    void addCompactEntry(PdfDocument document, int objNr, int genNr, long offsetOrIndex, int objStreamNumber, short state) {
+        this.count = Math.max(this.count, objNr);
+        ensureCount(objNr);
+        xref[objNr] = null;
+        setCompactEntry(document, objNr, genNr, offsetOrIndex, objStreamNumber, state);
+        if ((state & PdfObject.FREE) != 0 && genNr < MAX_GENERATION) {
+            freeReferences.set(objNr);
+        }
+    }
+
+    /**
+     * Replaces the flushed indirect reference with a compact entry, so the reference instance and the object,
+     * it refers to, could be garbage collected if they are not used anymore.
+     * Only offset, generation, object stream number and state of the reference are kept.
+     * A subsequent {@link #get(int)} call creates a new instance, which is equal, but not identical, to the released one.
+     *
+     * @param reference the flushed indirect reference.
+     */
+    void releaseFlushedReference(PdfIndirectReference reference) {
+        int objNr = reference.getObjNumber();
+        if (reference.checkState(PdfObject.FLUSHED) && !reference.isFree() && objNr <= count && xref[objNr] == reference) {
+            xref[objNr] = null;
+            setCompactEntry(reference.getDocument(), objNr, reference.getGenNumber(), reference.offsetOrIndex,
+                    reference.getObjStreamNumber(), (short) (reference.getState() & (PdfObject.FLUSHED | PdfObject.MODIFIED)));
+        }
+    }
+
     /**
      * Creates next available indirect reference.
      *
@@ -117,9 +263,10 @@ class PdfXrefTable implements Serializable {
      */
     protected PdfIndirectReference createNextIndirectReference(PdfDocument document) {
         PdfIndirectReference reference;
-        if (freeReferences.size() > 0) {
-            int num = (int) freeReferences.pollFirst();
-            reference = xref[num];
+        if (!freeReferences.isEmpty()) {
+            int num = freeReferences.nextSetBit(0);
+            freeReferences.clear(num);
+            reference = get(num);
             if (reference == null) {
                 reference = new PdfIndirectReference(document, num);
                 xref[num] = reference;
@@ -149,11 +296,16 @@ class PdfXrefTable implements Serializable {
                 reference.refersTo = null;
             }
             if (reference.getGenNumber() < MAX_GENERATION) {
-                freeReferences.add(reference.getObjNumber());
+                freeReferences.set(reference.getObjNumber());
                 ensureCount(Math.max(this.count, reference.getObjNumber()));
                 xref[reference.getObjNumber()] = null;
+                removeCompactEntry(reference.getObjNumber());
             }
 
+        } else if (reference.getObjNumber() <= count && xref[reference.getObjNumber()] == null
+                && hasCompactEntry(reference.getObjNumber())) {
+            // the reference has been released after flushing
+            generationsAndStates[reference.getObjNumber()] |= PdfObject.FREE << STATE_SHIFT;
         }
     }
 
@@ -172,23 +324,27 @@ class PdfXrefTable implements Serializable {
         PdfWriter writer = document.getWriter();
         if (document.isAppendMode()) {
             // Increment generation number for all freed references.
-            for (Integer objNr : freeReferences) {
-                xref[(int) objNr].genNr++;
+            for (int objNr = freeReferences.nextSetBit(0); objNr >= 0; objNr = freeReferences.nextSetBit(objNr + 1)) {
+                PdfIndirectReference reference = get(objNr);
+                if (reference != null) {
+                    reference.genNr++;
+                }
             }
         } else {
-            for (Integer objNr : freeReferences) {
-                xref[(int) objNr] = null;
+            for (int objNr = freeReferences.nextSetBit(0); objNr >= 0; objNr = freeReferences.nextSetBit(objNr + 1)) {
+                xref[objNr] = null;
+                removeCompactEntry(objNr);
             }
         }
         freeReferences.clear();
 
 
         for (int i = count; i > 0; --i) {
-            PdfIndirectReference lastRef = xref[i];
-            if (lastRef == null
-                    || (lastRef.isFree() && lastRef.getGenNumber() == 0)
-                    || (!lastRef.checkState(PdfObject.FLUSHED)
-                            && !(document.properties.appendMode && !lastRef.checkState(PdfObject.MODIFIED)))) {
+            int state = getEntryState(i);
+            if (state < 0
+                    || ((state & PdfObject.FREE) != 0 && getEntryGeneration(i) == 0)
+                    || ((state & PdfObject.FLUSHED) == 0
+                            && !(document.properties.appendMode && (state & PdfObject.MODIFIED) == 0))) {
                 --count;
             } else {
                 break;
@@ -202,29 +358,31 @@ class PdfXrefTable implements Serializable {
             first = 1;
             len = 0;
         }
-        for (int i = 1; i < size(); i++) {
-            PdfIndirectReference reference = xref[i];
-            if (reference != null) {
-                if ((document.properties.appendMode && !reference.checkState(PdfObject.MODIFIED)) ||
-                        (reference.isFree() && reference.getGenNumber() == 0) ||
-                        (!reference.checkState(PdfObject.FLUSHED))) {
-                    reference = null;
-                }
-            }
-
-            if (reference == null) {
+        // In append mode only modified entries are written, so there is no need to check the rest of the table.
+        boolean modifiedOnly = document.properties.appendMode;
+        for (int i = modifiedOnly ? nextModifiedReference(1) : 1; i >= 0 && i < size();
+                i = modifiedOnly ? nextModifiedReference(i + 1) : i + 1) {
+            int state = getEntryState(i);
+            boolean skip = state < 0
+                    || (document.properties.appendMode && (state & PdfObject.MODIFIED) == 0)
+                    || ((state & PdfObject.FREE) != 0 && getEntryGeneration(i) == 0)
+                    || (state & PdfObject.FLUSHED) == 0;
+
+            if (skip) {
                 if (len > 0) {
                     sections.add(first);
                     sections.add(len);
                 }
                 len = 0;
+            } else if (len > 0 && first + len == i) {
+                len++;
             } else {
                 if (len > 0) {
-                    len++;
-                } else {
-                    first = i;
-                    len = 1;
+                    sections.add(first);
+                    sections.add(len);
                 }
+                first = i;
+                len = 1;
             }
         }
         if (len > 0) {
@@ -233,6 +391,7 @@ class PdfXrefTable implements Serializable {
         }
         if (document.properties.appendMode && sections.size() == 0) { // no modifications.
             xref = null;
+            releaseCompactEntries();
             return;
         }
 
@@ -261,48 +420,45 @@ class PdfXrefTable implements Serializable {
                 xrefStream.put(PdfName.Prev, lastXref);
             }
             xrefStream.put(PdfName.Index, index);
-            PdfXrefTable xrefTable = document.getXref();
             for (int k = 0; k < sections.size(); k += 2) {
                 first = (int) sections.get(k);
                 len = (int) sections.get(k + 1);
                 for (int i = first; i < first + len; i++) {
-                    PdfIndirectReference reference = xrefTable.get(i);
-                    if (reference == null) {
+                    int state = getEntryState(i);
+                    if (state < 0) {
                         continue;
                     }
-                    if (reference.isFree()) {
+                    if ((state & PdfObject.FREE) != 0) {
                         xrefStream.getOutputStream().write(0);
                         //NOTE The object number of the next free object should be at this position due to spec.
                         xrefStream.getOutputStream().write(intToBytes(0));
-                        xrefStream.getOutputStream().write(shortToBytes(reference.getGenNumber()));
-                    } else if (reference.getObjStreamNumber() == 0) {
+                        xrefStream.getOutputStream().write(shortToBytes(getEntryGeneration(i)));
+                    } else if (getEntryObjStreamNumber(i) == 0) {
                         xrefStream.getOutputStream().write(1);
-                        assert reference.getOffset() < Integer.MAX_VALUE;
-                        xrefStream.getOutputStream().write(intToBytes((int) reference.getOffset()));
-                        xrefStream.getOutputStream().write(shortToBytes(reference.getGenNumber()));
+                        assert getEntryOffset(i) < Integer.MAX_VALUE;
+                        xrefStream.getOutputStream().write(intToBytes((int) getEntryOffset(i)));
+                        xrefStream.getOutputStream().write(shortToBytes(getEntryGeneration(i)));
                     } else {
                         xrefStream.getOutputStream().write(2);
-                        xrefStream.getOutputStream().write(intToBytes(reference.getObjStreamNumber()));
-                        xrefStream.getOutputStream().write(shortToBytes(reference.getIndex()));
+                        xrefStream.getOutputStream().write(intToBytes(getEntryObjStreamNumber(i)));
+                        xrefStream.getOutputStream().write(shortToBytes((int) getEntryOffset(i)));
                     }
                 }
             }
             xrefStream.flush();
         } else {
             writer.writeString("xref\n");
-            PdfXrefTable xrefTable = document.getXref();
             for (int k = 0; k < sections.size(); k += 2) {
                 first = (int) sections.get(k);
                 len = (int) sections.get(k + 1);
                 writer.writeInteger(first).writeSpace().writeInteger(len).writeByte((byte) '\n');
                 for (int i = first; i < first + len; i++) {
-                    PdfIndirectReference reference = xrefTable.get(i);
-
-                    StringBuilder off = new StringBuilder("0000000000").append(reference.getOffset());
-                    StringBuilder gen = new StringBuilder("00000").append(reference.getGenNumber());
+                    boolean free = (getEntryState(i) & PdfObject.FREE) != 0;
+                    StringBuilder off = new StringBuilder("0000000000").append(free ? 0 : getEntryOffset(i));
+                    StringBuilder gen = new StringBuilder("00000").append(getEntryGeneration(i));
                     writer.writeString(off.substring(off.length() - 10, off.length())).writeSpace().
                             writeString(gen.substring(gen.length() - 5, gen.length())).writeSpace();
-                    if (reference.isFree()) {
+                    if (free) {
                         writer.writeBytes(freeXRefEntry);
                     } else {
                         writer.writeBytes(inUseXRefEntry);
@@ -332,14 +488,17 @@ class PdfXrefTable implements Serializable {
                 writeLong(startxref).
                 writeString("\n%%EOF\n");
         xref = null;
+        releaseCompactEntries();
     }
 
     void clear() {
         for (int i = 1; i <= count; i++) {
-            if (xref[i] != null && xref[i].isFree()) {
+            if (xref[i] != null && xref[i].isFree()
+                    || xref[i] == null && hasCompactEntry(i) && (getEntryState(i) & PdfObject.FREE) != 0) {
                 continue;
             }
             xref[i] = null;
+            removeCompactEntry(i);
         }
         count = 1;
     }
@@ -364,6 +523,91 @@ class PdfXrefTable implements Serializable {
         PdfIndirectReference[] newXref = new PdfIndirectReference[capacity];
         System.arraycopy(xref, 0, newXref, 0, xref.length);
         xref = newXref;
+        if (generationsAndStates != null) {
+            extendCompactEntries(capacity);
+        }
+    }
+
+    private void extendCompactEntries(int capacity) {
+        long[] newOffsets = new long[capacity];
+        int[] newObjStreamNumbers = new int[capacity];
+        int[] newGenerationsAndStates = new int[capacity];
+        if (generationsAndStates != null) {
+            System.arraycopy(offsets, 0, newOffsets, 0, offsets.length);
+            System.arraycopy(objStreamNumbers, 0, newObjStreamNumbers, 0, objStreamNumbers.length);
+            System.arraycopy(generationsAndStates, 0, newGenerationsAndStates, 0, generationsAndStates.length);
+        }
+        offsets = newOffsets;
+        objStreamNumbers = newObjStreamNumbers;
+        generationsAndStates = newGenerationsAndStates;
+    }
+
+    private void releaseCompactEntries() {
+        offsets = null;
+        objStreamNumbers = null;
+        generationsAndStates = null;
+        document = null;
+    }
+
+    private boolean hasCompactEntry(int index) {
+        return generationsAndStates != null && (generationsAndStates[index] & COMPACT_ENTRY) != 0;
+    }
+
+    private void setCompactEntry(PdfDocument document, int objNr, int genNr, long offsetOrIndex, int objStreamNumber, short state) {
+        if (generationsAndStates == null) {
+            extendCompactEntries(xref.length);
+        }
+        this.document = document;
+        offsets[objNr] = offsetOrIndex;
+        objStreamNumbers[objNr] = objStreamNumber;
+        generationsAndStates[objNr] = COMPACT_ENTRY | (state << STATE_SHIFT) | (genNr & MAX_GENERATION);
+    }
+
+    private void removeCompactEntry(int index) {
+        if (generationsAndStates != null && index < generationsAndStates.length) {
+            generationsAndStates[index] = 0;
+        }
+    }
+
+    private PdfIndirectReference createReferenceFromCompactEntry(int index) {
+        PdfIndirectReference reference = newReferenceFromCompactEntry(index);
+        xref[index] = reference;
+        removeCompactEntry(index);
+        return reference;
+    }
+
+    private PdfIndirectReference newReferenceFromCompactEntry(int index) {
+        PdfIndirectReference reference = new PdfIndirectReference(document, index, getEntryGeneration(index), offsets[index]);
+        reference.setObjStreamNumber(objStreamNumbers[index]);
+        reference.setState((short) getEntryState(index));
+        return reference;
+    }
+
+    /**
+     * Gets the state of the entry without creating an indirect reference instance.
+     *
+     * @return the state of the entry, or -1 if there is no entry for the object number.
+     */
+    private int getEntryState(int index) {
+        if (xref[index] != null) {
+            return xref[index].getState();
+        }
+        if (hasCompactEntry(index)) {
+            return (generationsAndStates[index] & ~COMPACT_ENTRY) >>> STATE_SHIFT;
+        }
+        return -1;
+    }
+
+    private int getEntryGeneration(int index) {
+        return xref[index] != null ? xref[index].getGenNumber() : generationsAndStates[index] & MAX_GENERATION;
+    }
+
+    private long getEntryOffset(int index) {
+        return xref[index] != null ? xref[index].offsetOrIndex : offsets[index];
+    }
+
+    private int getEntryObjStreamNumber(int index) {
+        return xref[index] != null ? xref[index].getObjStreamNumber() : objStreamNumbers[index];
     }
 
     private static byte[] shortToBytes(int n) {
@@ -43,13 +43,20 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.kernel.log.IMetricsListener;
 import com.itextpdf.kernel.security.IExternalDecryptionProcess;
 import java.io.Serializable;
 import java.security.Key;
 import java.security.cert.Certificate;
+import java.util.concurrent.ExecutorService;
 
 public class ReaderProperties implements Serializable {
 
+    /**
+     * Default limit of decoded object stream bytes kept in memory in lazy object stream decoding mode.
+     */
+    public static final long DEFAULT_OBJECT_STREAM_CACHE_SIZE = 16 * 1024 * 1024;
+
     private static final long serialVersionUID = 5569118801793215916L;
 
     protected byte[] password; //added by ujihara for decryption
@@ -59,6 +66,15 @@ public class ReaderProperties implements Serializable {
     protected String certificateKeyProvider; //added by Aiken Sam for certificate decryption
     protected IExternalDecryptionProcess externalDecryptionProcess;
 
+    protected boolean lazyObjectStreamDecoding;
+    protected long objectStreamCacheSize = DEFAULT_OBJECT_STREAM_CACHE_SIZE;
+    protected boolean concurrentReading;
+    protected boolean lazyTagStructure;
+    protected boolean jceCipher;
+
+    protected transient ExecutorService streamDecodingExecutor;
+    protected transient IMetricsListener metricsListener;
+
     /**
      * Defines the password which will be used if the document is encrypted with standard encryption.
      * This could be either user or owner password.
@@ -94,6 +110,110 @@ public class ReaderProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Enables lazy object stream decoding.
+     * <p/>
+     * By default, the first time an object placed in an object stream is requested, all objects
+     * of that object stream are parsed. In lazy mode only the requested object is parsed,
+     * while the decoded object stream and the offsets of its objects are kept in a cache,
+     * so that the next objects of the same object stream could be read without decoding it again.
+     * The size of the cache is defined by {@link #setObjectStreamCacheSize(long)}.
+     *
+     * @return this {@code ReaderProperties} instance
+     */
+    public ReaderProperties useLazyObjectStreamDecoding() {
+        this.lazyObjectStreamDecoding = true;
+        return this;
+    }
+
+    /**
+     * Defines the maximum total size of decoded object streams, which are kept in memory
+     * in lazy object stream decoding mode. Least recently used object streams are evicted first.
+     * Default value is {@link #DEFAULT_OBJECT_STREAM_CACHE_SIZE}.
+     *
+     * @param objectStreamCacheSize the maximum number of decoded bytes to keep.
+     * @return this {@code ReaderProperties} instance
+     */
+    public ReaderProperties setObjectStreamCacheSize(long objectStreamCacheSize) {
+        this.objectStreamCacheSize = objectStreamCacheSize;
+        return this;
+    }
+
+    /**
+     * Enables concurrent reading mode.
+     * <p/>
+     * In this mode a document opened for reading only could be accessed from several threads at once,
+     * e.g. in order to get pages and to process their contents concurrently. Objects are parsed
+     * one at a time and are published safely to the other threads, while stream bytes are read through
+     * separate views of the source, so reading and decoding of different streams runs concurrently.
+     * Sources which keep reading state, e.g. those which read the file in pages, are shared via a lock.
+     * The document shall not be modified, and the same page shall not be processed by several threads at once.
+     *
+     * @return this {@code ReaderProperties} instance
+     */
+    public ReaderProperties useConcurrentReading() {
+        this.concurrentReading = true;
+        return this;
+    }
+
+    /**
+     * Enables lazy tag structure mode.
+     * <p/>
+     * By default, when a tagged document is opened, the whole structure parent tree is read and the marked content
+     * references of all the pages are registered. In lazy mode, the parent tree entries of a page are looked up
+     * and its marked content references are read only when the tags of the page are requested, changed or copied
+     * for the first time. This reduces the time and memory needed to stamp or to copy a few pages of a large
+     * tagged document.
+     * <p/>
+     * A corrupted tag structure might then be found only when the tags of a page are read. If this happens
+     * while the pages are copied, flushed or the document is closed, the document is treated as not tagged,
+     * just like a document which tag structure fails to be read when it's opened.
+     *
+     * @return this {@code ReaderProperties} instance
+     */
+    public ReaderProperties useLazyTagStructure() {
+        this.lazyTagStructure = true;
+        return this;
+    }
+
+    /**
+     * Makes AES decryption use the {@link javax.crypto.Cipher} of the JCE instead of the BouncyCastle engine.
+     * <p/>
+     * The JCE cipher uses the hardware AES instructions where available, which makes reading of AES encrypted
+     * documents considerably faster. Older Java runtimes without the unlimited strength policy files installed
+     * don't allow 256 bit keys for the JCE cipher. Has no effect for RC4 encryption.
+     *
+     * @return this {@code ReaderProperties} instance
+     */
+    public ReaderProperties useJceCipher() {
+        this.jceCipher = true;
+        return this;
+    }
+
+    /**
+     * Defines the executor which is used to decode streams concurrently in {@link PdfReader#prefetchStreams(java.util.Collection)}.
+     * The executor is not shut down by the reader.
+     *
+     * @param streamDecodingExecutor the executor to run stream decoding tasks, or {@code null} to disable prefetching.
+     * @return this {@code ReaderProperties} instance
+     */
+    public ReaderProperties setStreamDecodingExecutor(ExecutorService streamDecodingExecutor) {
+        this.streamDecodingExecutor = streamDecodingExecutor;
+        return this;
+    }
+
+    /**
+     * Defines the listener which collects statistics about reading of the document: parsed objects,
+     * decoded streams and bytes, object stream cache hits and the time spent on reading the cross-reference table.
+     *
+     * @param metricsListener the listener to report the metrics to, or {@code null} to disable reporting.
+     * @return this {@code ReaderProperties} instance
+     */
+    public ReaderProperties setMetricsListener(IMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        return this;
+    }
+
     private void clearEncryptionParams() {
         this.password = null;
         this.certificate = null;
@@ -43,8 +43,11 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.kernel.log.IMetricsListener;
+
 import java.io.Serializable;
 import java.security.cert.Certificate;
+import java.util.concurrent.ExecutorService;
 
 public class WriterProperties implements Serializable {
 
@@ -64,8 +67,22 @@ public class WriterProperties implements Serializable {
     protected boolean smartMode;
     protected boolean debugMode;
     protected boolean addXmpMetadata;
+
+    /**
+     * Indicates if the nodes of the pages tree are written as soon as they are filled with flushed pages.
+     */
+    protected boolean streamingPageTree;
+
+    /**
+     * Indicates if the parent tree leaves and the completed structure elements are written as soon as
+     * the pages they belong to are flushed.
+     */
+    protected boolean streamingTagStructure;
     protected PdfVersion pdfVersion;
     protected EncryptionProperties encryptionProperties;
+    protected boolean jceCipher;
+    protected transient ExecutorService compressionExecutor;
+    protected transient IMetricsListener metricsListener;
 
     public WriterProperties() {
         smartMode = false;
@@ -101,6 +118,45 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Enables streaming pages tree mode for the new documents.
+     * <p/>
+     * In this mode the {@code /Pages} nodes of the pages tree are written as soon as they are filled
+     * with pages, which all have been flushed already, so only the last branch of the tree is kept in memory.
+     * This reduces memory footprint and closing time of the documents with a very large number of pages,
+     * if the pages are flushed right after they are completed.
+     * <p/>
+     * The pages, which have been written together with their pages tree node, are not available anymore:
+     * they cannot be got, removed, or used as insertion positions for new pages.
+     * <p/>
+     * For tagged documents this mode also enables streaming tag structure mode,
+     * see {@link #useStreamingTagStructure()}.
+     *
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useStreamingPageTree() {
+        this.streamingPageTree = true;
+        return this;
+    }
+
+    /**
+     * Enables streaming tag structure mode for the new tagged documents.
+     * <p/>
+     * In this mode, when a page is flushed, the leaves of the structure parent tree which can't be changed anymore
+     * are written right away, and so are the structure elements which are not connected to the layout model anymore
+     * and all of whose content lies on the flushed pages. Only the parent tree entries and the structure elements
+     * of the pages which are still open are kept in memory. This bounds the memory footprint of the large tagged
+     * documents, if the pages are flushed right after they are completed.
+     * <p/>
+     * The structure elements, which have been written, cannot be modified anymore.
+     *
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useStreamingTagStructure() {
+        this.streamingTagStructure = true;
+        return this;
+    }
+
     /**
      * If true, default XMPMetadata based on {@link PdfDocumentInfo} will be added.
      * @return this {@code WriterProperties} instance
@@ -132,6 +188,54 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Defines the executor which is used to compress streams concurrently.
+     * <p/>
+     * When the document is closed, contents of the streams which are waiting to be written are compressed
+     * in advance on the executor, one task per stream. To bound the memory, only a limited number of streams
+     * is compressed in advance at the same time, the next ones are submitted as the previous ones are written.
+     * Large streams are split into blocks, which are compressed concurrently at the moment the stream is written.
+     * The order of the objects in the resultant document is the same as without the executor.
+     * The executor is not shut down by the writer.
+     * <p/>
+     * The writer waits for the tasks it has submitted. Tasks which the executor has not started yet are run
+     * on the writing thread instead, so the document could also be written on a thread of the executor, e.g.
+     * of a bounded pool shared by several documents. However, the executor shall not reject the submitted tasks.
+     *
+     * @param compressionExecutor the executor to run compression tasks, or {@code null} to compress streams serially.
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties setCompressionExecutor(ExecutorService compressionExecutor) {
+        this.compressionExecutor = compressionExecutor;
+        return this;
+    }
+
+    /**
+     * Defines the listener which collects statistics about writing of the document: flushed objects,
+     * compressed bytes, smart mode duplicates and the timings of the phases of closing the document.
+     *
+     * @param metricsListener the listener to report the metrics to, or {@code null} to disable reporting.
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties setMetricsListener(IMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        return this;
+    }
+
+    /**
+     * Makes AES encryption use the {@link javax.crypto.Cipher} of the JCE instead of the BouncyCastle engine.
+     * <p/>
+     * The JCE cipher uses the hardware AES instructions where available, which makes writing of AES encrypted
+     * documents considerably faster. Older Java runtimes without the unlimited strength policy files installed
+     * don't allow 256 bit keys for the JCE cipher. Has no effect for RC4 encryption.
+     *
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useJceCipher() {
+        this.jceCipher = true;
+        return this;
+    }
+
     /**
      * Sets the encryption options for the document. The userPassword and the
      * ownerPassword can be null or have zero length. In this case the ownerPassword
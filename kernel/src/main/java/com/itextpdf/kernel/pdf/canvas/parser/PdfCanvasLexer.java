@@ -0,0 +1,367 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfResources;
+import com.itextpdf.kernel.pdf.canvas.parser.util.InlineImageParsingUtils;
+import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits the content stream into the operators and their operands, the same way {@link PdfCanvasParser#parse(List)} does.
+ * <br>
+ * The numbers and the operators, which make up the most of the content, are read directly from the content bytes:
+ * the numbers are kept as primitive values and the operators are identified by integer codes,
+ * so that no objects are created for them unless {@link #getOperands(List)} is called.
+ * The other operands (names, strings, arrays, dictionaries) and the inline images are read by {@link PdfCanvasParser}.
+ */
+final class PdfCanvasLexer {
+
+    /**
+     * The code of the operators which are longer than {@link #MAX_OPERATOR_CODE_LENGTH} bytes.
+     */
+    static final int NO_OPERATOR_CODE = -1;
+
+    private static final int MAX_OPERATOR_CODE_LENGTH = 3;
+
+    private static final int INLINE_IMAGE_BEGIN_CODE = getOperatorCode(new byte[] {'B', 'I'});
+
+    private static final byte[] INLINE_IMAGE_END = {'E', 'I'};
+
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    // the long mantissa is exact as a double if it has no more than 15 digits
+    private static final int MAX_FAST_PARSED_DIGITS = 15;
+
+    private final byte[] content;
+    private final PdfResources resources;
+    private int position;
+
+    private PdfTokenizer tokeniser;
+    private PdfCanvasParser parser;
+
+    private int operandsCount;
+    // the operand is a number if the object is null
+    private PdfObject[] objects = new PdfObject[16];
+    private double[] numbers = new double[16];
+    private int[] numberStarts = new int[16];
+    private int[] numberEnds = new int[16];
+
+    private byte[] operatorContent;
+    private int operatorStart;
+    private int operatorEnd;
+    private int operatorCode;
+
+    PdfCanvasLexer(byte[] content, PdfResources resources) {
+        this.content = content;
+        this.resources = resources;
+    }
+
+    /**
+     * Reads the next operator along with its operands.
+     *
+     * @return {@code false} if the end of the content was reached
+     * @throws IOException on error
+     */
+    boolean nextOperator() throws IOException {
+        operandsCount = 0;
+        while (true) {
+            int ch = nextNonWhitespace();
+            if (ch == -1) {
+                return false;
+            }
+            if (ch == '%') {
+                while (position < content.length && content[position] != '\r' && content[position] != '\n') {
+                    position++;
+                }
+            } else if (ch == '-' || ch == '+' || ch == '.' || (ch >= '0' && ch <= '9')) {
+                readNumber(ch);
+            } else if (ch == '[' || ch == ']' || ch == '/' || ch == '<' || ch == '>' || ch == '(') {
+                pushOperand(readObject(position - 1));
+            } else {
+                readOperator();
+                if (operatorCode == INLINE_IMAGE_BEGIN_CODE) {
+                    readInlineImage();
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gets the code of the current operator, see {@link #getOperatorCode(byte[])}.
+     *
+     * @return the code of the operator
+     */
+    int getOperatorCode() {
+        return operatorCode;
+    }
+
+    /**
+     * Creates the literal of the current operator.
+     *
+     * @return the operator literal
+     */
+    PdfLiteral createOperator() {
+        return new PdfLiteral(Arrays.copyOfRange(operatorContent, operatorStart, operatorEnd));
+    }
+
+    /**
+     * Checks if the current operator is preceded by at least the specified count of numbers.
+     *
+     * @param count the count of the numeric operands
+     * @return {@code true} if the first {@code count} operands are numbers
+     */
+    boolean hasNumericOperands(int count) {
+        if (operandsCount < count) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (objects[i] != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the values of the numeric operands. The array is reused for the subsequent operators
+     * and may be longer than the count of the operands.
+     *
+     * @return the values of the numeric operands
+     */
+    double[] getNumericOperands() {
+        return numbers;
+    }
+
+    /**
+     * Adds the operands of the current operator to the list. The numbers are materialized as {@link PdfNumber}s.
+     *
+     * @param operands the list to add the operands to
+     * @return the same list
+     */
+    List<PdfObject> getOperands(List<PdfObject> operands) {
+        for (int i = 0; i < operandsCount; i++) {
+            PdfObject operand = objects[i];
+            if (operand == null) {
+                // same content as the PdfTokenizer number token has, the value is parsed on demand
+                operand = numberStarts[i] < 0 ? new PdfNumber(new byte[] {'0'})
+                        : new PdfNumber(Arrays.copyOfRange(content, numberStarts[i], numberEnds[i]));
+            }
+            operands.add(operand);
+        }
+        return operands;
+    }
+
+    /**
+     * Packs the operator into an integer code, so that the operators can be identified without creating strings.
+     *
+     * @param operator the operator bytes
+     * @return the code of the operator, or {@link #NO_OPERATOR_CODE} if the operator is too long
+     */
+    static int getOperatorCode(byte[] operator) {
+        return getOperatorCode(operator, 0, operator.length);
+    }
+
+    private static int getOperatorCode(byte[] operator, int start, int end) {
+        int length = end - start;
+        if (length > MAX_OPERATOR_CODE_LENGTH) {
+            return NO_OPERATOR_CODE;
+        }
+        int code = length;
+        for (int i = start; i < end; i++) {
+            code = (code << 8) | (operator[i] & 0xff);
+        }
+        return code;
+    }
+
+    private int nextNonWhitespace() {
+        while (position < content.length) {
+            int ch = content[position++] & 0xff;
+            if (!PdfTokenizer.isWhitespace(ch)) {
+                return ch;
+            }
+        }
+        return -1;
+    }
+
+    private void readOperator() {
+        operatorStart = position - 1;
+        // the first character is always a part of the token, see PdfTokenizer#nextToken()
+        while (position < content.length && !PdfTokenizer.delims[(content[position] & 0xff) + 1]) {
+            position++;
+        }
+        operatorContent = content;
+        operatorEnd = position;
+        operatorCode = getOperatorCode(content, operatorStart, operatorEnd);
+    }
+
+    private void readNumber(int ch) {
+        int start = position - 1;
+        int minusesCount = 0;
+        if (ch == '-') {
+            while (position < content.length && content[position] == '-') {
+                position++;
+            }
+            // the number like "--234" is read as "-234"
+            minusesCount = position - start;
+            start = position - 1;
+        }
+        boolean isReal = false;
+        while (position < content.length) {
+            byte b = content[position];
+            if (b == '.') {
+                isReal = true;
+            } else if (b < '0' || b > '9') {
+                break;
+            }
+            position++;
+        }
+        int index = pushOperand(null);
+        if (minusesCount > 1 && !isReal) {
+            // integers with more than one minus are interpreted as zero
+            numbers[index] = 0;
+            numberStarts[index] = -1;
+        } else {
+            numbers[index] = parseNumber(start, position);
+            numberStarts[index] = start;
+            numberEnds[index] = position;
+        }
+    }
+
+    /**
+     * Gets the same value as {@link PdfNumber#getValue()} gets for the number token.
+     */
+    private double parseNumber(int start, int end) {
+        int i = start;
+        boolean negative = content[i] == '-';
+        if (negative || content[i] == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int digitsCount = 0;
+        int fractionDigitsCount = -1;
+        for (; i < end; i++) {
+            byte b = content[i];
+            if (b == '.') {
+                if (fractionDigitsCount >= 0) {
+                    return parseNumberSlowly(start, end);
+                }
+                fractionDigitsCount = 0;
+            } else {
+                mantissa = mantissa * 10 + (b - '0');
+                digitsCount++;
+                if (fractionDigitsCount >= 0) {
+                    fractionDigitsCount++;
+                }
+            }
+        }
+        if (digitsCount == 0) {
+            return Double.NaN;
+        }
+        if (digitsCount > MAX_FAST_PARSED_DIGITS || fractionDigitsCount >= POWERS_OF_TEN.length) {
+            return parseNumberSlowly(start, end);
+        }
+        // both the mantissa and the power of ten are exact, so the division is rounded correctly
+        double value = fractionDigitsCount > 0 ? mantissa / POWERS_OF_TEN[fractionDigitsCount] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private double parseNumberSlowly(int start, int end) {
+        try {
+            return Double.parseDouble(new String(content, start, end - start));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private PdfObject readObject(int start) throws IOException {
+        PdfObject object = getParser(start).readObject();
+        position = (int) tokeniser.getPosition();
+        return object;
+    }
+
+    private void readInlineImage() throws IOException {
+        PdfObject inlineImage = InlineImageParsingUtils.parse(getParser(position), resources.getResource(PdfName.ColorSpace));
+        position = (int) tokeniser.getPosition();
+        operandsCount = 0;
+        pushOperand(inlineImage);
+        operatorContent = INLINE_IMAGE_END;
+        operatorStart = 0;
+        operatorEnd = INLINE_IMAGE_END.length;
+        operatorCode = getOperatorCode(INLINE_IMAGE_END);
+    }
+
+    private PdfCanvasParser getParser(int start) throws IOException {
+        if (parser == null) {
+            tokeniser = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(content)));
+            parser = new PdfCanvasParser(tokeniser, resources);
+        }
+        tokeniser.seek(start);
+        return parser;
+    }
+
+    private int pushOperand(PdfObject object) {
+        if (operandsCount == objects.length) {
+            int length = objects.length * 2;
+            objects = Arrays.copyOf(objects, length);
+            numbers = Arrays.copyOf(numbers, length);
+            numberStarts = Arrays.copyOf(numberStarts, length);
+            numberEnds = Arrays.copyOf(numberEnds, length);
+        }
+        objects[operandsCount] = object;
+        return operandsCount++;
+    }
+}
@@ -43,9 +43,6 @@
  */
 package com.itextpdf.kernel.pdf.canvas.parser;
 
-import com.itextpdf.io.source.PdfTokenizer;
-import com.itextpdf.io.source.RandomAccessFileOrArray;
-import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.color.CalGray;
 import com.itextpdf.kernel.color.CalRgb;
@@ -70,7 +67,6 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
-import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
 import com.itextpdf.kernel.pdf.PdfArray;
 import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfIndirectReference;
@@ -106,6 +102,8 @@ public class PdfCanvasProcessor {
 
     public static final String DEFAULT_OPERATOR = "DefaultOperator";
 
+    private static final int RESOLVED_OPERATORS_CAPACITY = 256;
+
     /**
      * Listener that will be notified of render events
      */
@@ -166,6 +164,19 @@ public class PdfCanvasProcessor {
      */
     private Stack<CanvasTag> markedContentStack = new Stack<>();
 
+    /**
+     * The registered operators looked up by the operator codes, see {@link PdfCanvasLexer#getOperatorCode()}.
+     * Open addressing hash table which is cleared when an operator is registered.
+     */
+    private ResolvedOperator[] resolvedOperators = new ResolvedOperator[RESOLVED_OPERATORS_CAPACITY];
+    private int resolvedOperatorsCount;
+
+    /**
+     * If {@link #invokeOperator(PdfLiteral, List)} is overridden, it is called for every operator
+     * and the operands are always passed as {@link PdfObject}s.
+     */
+    private final boolean invokeOperatorOverridden = isInvokeOperatorOverridden(getClass());
+
     /**
      * Creates a new PDF Content Stream Processor that will send its output to the
      * designated render listener.
@@ -198,6 +209,16 @@ public class PdfCanvasProcessor {
         }
     }
 
+    /**
+     * Makes the processor use the given font cache instead of its own one, so that the fonts are created only once
+     * for all the pages of a document. The cache shall be thread-safe if it is shared between several threads.
+     *
+     * @param fontCache the font cache, the fonts are mapped by the object numbers of their dictionaries
+     */
+    void setFontCache(Map<Integer, PdfFont> fontCache) {
+        this.cachedFonts = fontCache;
+    }
+
     /**
      * Registers a Do handler that will be called when Do for the provided XObject subtype is encountered during content processing.
      * <br>
@@ -223,6 +244,7 @@ public class PdfCanvasProcessor {
      * @return the existing registered operator, if any
      */
     public IContentOperator registerContentOperator(String operatorString, IContentOperator operator) {
+        clearResolvedOperators();
         return operators.put(operatorString, operator);
     }
 
@@ -269,13 +291,24 @@ public class PdfCanvasProcessor {
             throw new PdfException(PdfException.ResourcesCannotBeNull);
         }
         this.resourcesStack.push(resources);
-        PdfTokenizer tokeniser = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(contentBytes)));
-        PdfCanvasParser ps = new PdfCanvasParser(tokeniser, resources);
+        PdfCanvasLexer lexer = new PdfCanvasLexer(contentBytes, resources);
         List<PdfObject> operands = new ArrayList<>();
         try {
-            while (ps.parse(operands).size() > 0) {
-                PdfLiteral operator = (PdfLiteral) operands.get(operands.size() - 1);
-                invokeOperator(operator, operands);
+            while (lexer.nextOperator()) {
+                ResolvedOperator resolved = resolveOperator(lexer);
+                if (!invokeOperatorOverridden && resolved.operator instanceof NumericOperator
+                        && lexer.hasNumericOperands(((NumericOperator) resolved.operator).operandsCount)) {
+                    // the built-in operators which take numbers only are invoked without creating the operand objects
+                    ((NumericOperator) resolved.operator).invoke(this, lexer.getNumericOperands());
+                } else {
+                    operands.clear();
+                    lexer.getOperands(operands).add(resolved.literal);
+                    if (invokeOperatorOverridden) {
+                        invokeOperator(resolved.literal, operands);
+                    } else {
+                        resolved.operator.invoke(this, resolved.literal, operands);
+                    }
+                }
             }
         } catch (IOException e) {
             throw new PdfException(PdfException.CannotParseContentStream, e);
@@ -443,10 +476,59 @@ public class PdfCanvasProcessor {
      * @param operands a list with operands
      */
     protected void invokeOperator(PdfLiteral operator, List<PdfObject> operands) {
+        getOperator(operator).invoke(this, operator, operands);
+    }
+
+    private IContentOperator getOperator(PdfLiteral operator) {
         IContentOperator op = operators.get(operator.toString());
         if (op == null)
             op = operators.get(DEFAULT_OPERATOR);
-        op.invoke(this, operator, operands);
+        return op;
+    }
+
+    private ResolvedOperator resolveOperator(PdfCanvasLexer lexer) {
+        int code = lexer.getOperatorCode();
+        if (code == PdfCanvasLexer.NO_OPERATOR_CODE) {
+            PdfLiteral literal = lexer.createOperator();
+            return new ResolvedOperator(code, literal, getOperator(literal));
+        }
+        int mask = resolvedOperators.length - 1;
+        int index = (code * 0x9E3779B9) >>> 24 & mask;
+        ResolvedOperator resolved;
+        while ((resolved = resolvedOperators[index]) != null) {
+            if (resolved.code == code) {
+                return resolved;
+            }
+            index = (index + 1) & mask;
+        }
+        PdfLiteral literal = lexer.createOperator();
+        resolved = new ResolvedOperator(code, literal, getOperator(literal));
+        if (resolvedOperatorsCount >= resolvedOperators.length * 3 / 4) {
+            // malformed content may contain lots of different unknown operators
+            clearResolvedOperators();
+            return resolved;
+        }
+        resolvedOperators[index] = resolved;
+        resolvedOperatorsCount++;
+        return resolved;
+    }
+
+    private void clearResolvedOperators() {
+        if (resolvedOperatorsCount > 0) {
+            Arrays.fill(resolvedOperators, null);
+            resolvedOperatorsCount = 0;
+        }
+    }
+
+    private static boolean isInvokeOperatorOverridden(Class<?> processorClass) {
+        for (Class<?> cls = processorClass; cls != PdfCanvasProcessor.class; cls = cls.getSuperclass()) {
+            try {
+                cls.getDeclaredMethod("invokeOperator", PdfLiteral.class, List.class);
+                return true;
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        return false;
     }
 
     protected PdfStream getXObjectStream(PdfName xobjectName) {
@@ -478,8 +560,15 @@ public class PdfCanvasProcessor {
         int n = fontDict.getIndirectReference().getObjNumber();
         PdfFont font = cachedFonts.get(n);
         if (font == null) {
-            font = PdfFontFactory.createFont(fontDict);
-            cachedFonts.put(n, font);
+            // font dictionaries are shared between the processors working on the pages of the same document
+            // and are modified on font creation
+            synchronized (fontDict) {
+                font = cachedFonts.get(n);
+                if (font == null) {
+                    font = PdfFontFactory.createFont(fontDict);
+                    cachedFonts.put(n, font);
+                }
+            }
         }
         return font;
     }
@@ -578,6 +667,57 @@ public class PdfCanvasProcessor {
         getGraphicsState().setClippingPath(clippingPath);
     }
 
+    /**
+     * The registered operator along with the literal passed to it.
+     */
+    private static class ResolvedOperator {
+        final int code;
+        final PdfLiteral literal;
+        final IContentOperator operator;
+
+        ResolvedOperator(int code, PdfLiteral literal, IContentOperator operator) {
+            this.code = code;
+            this.literal = literal;
+            this.operator = operator;
+        }
+    }
+
+    /**
+     * A handler of an operator which operands are numbers only. Such handler may be invoked with the values
+     * read by the {@link PdfCanvasLexer}, without creating {@link PdfNumber} objects for them.
+     */
+    private static abstract class NumericOperator implements IContentOperator {
+        private final int operandsCount;
+
+        /**
+         * Creates the new instance of this handler.
+         *
+         * @param operandsCount the count of the operands the operator takes
+         */
+        NumericOperator(int operandsCount) {
+            this.operandsCount = operandsCount;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+            double[] values = new double[operandsCount];
+            for (int i = 0; i < operandsCount; i++) {
+                values[i] = ((PdfNumber) operands.get(i)).getValue();
+            }
+            invoke(processor, values);
+        }
+
+        /**
+         * Invokes the operator.
+         *
+         * @param processor the processor that is dealing with the PDF content stream
+         * @param operands  the values of the operands, the array may be longer than the count of the operands
+         */
+        abstract void invoke(PdfCanvasProcessor processor, double[] operands);
+    }
+
     /**
      * A handler that implements operator (unregistered).
      */
@@ -700,38 +840,40 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (T*). For more information see Table 51 ISO-32000-1
      */
-    private static class TextMoveNextLineOperator implements IContentOperator {
+    private static class TextMoveNextLineOperator extends NumericOperator {
         private final TextMoveStartNextLineOperator moveStartNextLine;
 
         public TextMoveNextLineOperator(TextMoveStartNextLineOperator moveStartNextLine) {
+            super(0);
             this.moveStartNextLine = moveStartNextLine;
         }
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            List<PdfObject> tdoperands = new ArrayList<PdfObject>(2);
-            tdoperands.add(0, new PdfNumber(0));
-            tdoperands.add(1, new PdfNumber(-processor.getGraphicsState().getLeading()));
-            moveStartNextLine.invoke(processor, null, tdoperands);
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            moveStartNextLine.invoke(processor, new double[] {0, -processor.getGraphicsState().getLeading()});
         }
     }
 
     /**
      * A handler that implements operator (Tm). For more information see Table 51 ISO-32000-1
      */
-    private static class TextSetTextMatrixOperator implements IContentOperator {
+    private static class TextSetTextMatrixOperator extends NumericOperator {
+        TextSetTextMatrixOperator() {
+            super(6);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float a = ((PdfNumber) operands.get(0)).floatValue();
-            float b = ((PdfNumber) operands.get(1)).floatValue();
-            float c = ((PdfNumber) operands.get(2)).floatValue();
-            float d = ((PdfNumber) operands.get(3)).floatValue();
-            float e = ((PdfNumber) operands.get(4)).floatValue();
-            float f = ((PdfNumber) operands.get(5)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float a = (float) operands[0];
+            float b = (float) operands[1];
+            float c = (float) operands[2];
+            float d = (float) operands[3];
+            float e = (float) operands[4];
+            float f = (float) operands[5];
 
             processor.textLineMatrix = new Matrix(a, b, c, d, e, f);
             processor.textMatrix = processor.textLineMatrix;
@@ -741,11 +883,12 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (TD). For more information see Table 51 ISO-32000-1
      */
-    private static class TextMoveStartNextLineWithLeadingOperator implements IContentOperator {
+    private static class TextMoveStartNextLineWithLeadingOperator extends NumericOperator {
         private final TextMoveStartNextLineOperator moveStartNextLine;
         private final SetTextLeadingOperator setTextLeading;
 
         public TextMoveStartNextLineWithLeadingOperator(TextMoveStartNextLineOperator moveStartNextLine, SetTextLeadingOperator setTextLeading) {
+            super(2);
             this.moveStartNextLine = moveStartNextLine;
             this.setTextLeading = setTextLeading;
         }
@@ -753,26 +896,28 @@ public class PdfCanvasProcessor {
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float ty = ((PdfNumber) operands.get(1)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float ty = (float) operands[1];
 
-            List<PdfObject> tlOperands = new ArrayList<PdfObject>(1);
-            tlOperands.add(0, new PdfNumber(-ty));
-            setTextLeading.invoke(processor, null, tlOperands);
-            moveStartNextLine.invoke(processor, null, operands);
+            setTextLeading.invoke(processor, new double[] {-ty});
+            moveStartNextLine.invoke(processor, operands);
         }
     }
 
     /**
      * A handler that implements operator (Td). For more information see Table 51 ISO-32000-1
      */
-    private static class TextMoveStartNextLineOperator implements IContentOperator {
+    private static class TextMoveStartNextLineOperator extends NumericOperator {
+        TextMoveStartNextLineOperator() {
+            super(2);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float tx = ((PdfNumber) operands.get(0)).floatValue();
-            float ty = ((PdfNumber) operands.get(1)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float tx = (float) operands[0];
+            float ty = (float) operands[1];
 
             Matrix translationMatrix = new Matrix(tx, ty);
             processor.textMatrix = translationMatrix.multiply(processor.textLineMatrix);
@@ -805,78 +950,96 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (Tr). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextRenderModeOperator implements IContentOperator {
+    private static class SetTextRenderModeOperator extends NumericOperator {
+        SetTextRenderModeOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber render = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setTextRenderingMode(render.intValue());
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            processor.getGraphicsState().setTextRenderingMode((int) operands[0]);
         }
     }
 
     /**
      * A handler that implements operator (Ts). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextRiseOperator implements IContentOperator {
+    private static class SetTextRiseOperator extends NumericOperator {
+        SetTextRiseOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber rise = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setTextRise(rise.floatValue());
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            processor.getGraphicsState().setTextRise((float) operands[0]);
         }
     }
 
     /**
      * A handler that implements operator (TL). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextLeadingOperator implements IContentOperator {
+    private static class SetTextLeadingOperator extends NumericOperator {
+        SetTextLeadingOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber leading = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setLeading(leading.floatValue());
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            processor.getGraphicsState().setLeading((float) operands[0]);
         }
     }
 
     /**
      * A handler that implements operator (Tz). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextHorizontalScalingOperator implements IContentOperator {
+    private static class SetTextHorizontalScalingOperator extends NumericOperator {
+        SetTextHorizontalScalingOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber scale = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setHorizontalScaling(scale.floatValue());
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            processor.getGraphicsState().setHorizontalScaling((float) operands[0]);
         }
     }
 
     /**
      * A handler that implements operator (Tc). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextCharacterSpacingOperator implements IContentOperator {
+    private static class SetTextCharacterSpacingOperator extends NumericOperator {
+        SetTextCharacterSpacingOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber charSpace = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setCharSpacing(charSpace.floatValue());
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            processor.getGraphicsState().setCharSpacing((float) operands[0]);
         }
     }
 
     /**
      * A handler that implements operator (Tw). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextWordSpacingOperator implements IContentOperator {
+    private static class SetTextWordSpacingOperator extends NumericOperator {
+        SetTextWordSpacingOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber wordSpace = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setWordSpacing(wordSpace.floatValue());
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            processor.getGraphicsState().setWordSpacing((float) operands[0]);
         }
     }
 
@@ -925,17 +1088,21 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (cm). For more information see Table 51 ISO-32000-1
      */
-    private static class ModifyCurrentTransformationMatrixOperator implements IContentOperator {
+    private static class ModifyCurrentTransformationMatrixOperator extends NumericOperator {
+        ModifyCurrentTransformationMatrixOperator() {
+            super(6);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float a = ((PdfNumber) operands.get(0)).floatValue();
-            float b = ((PdfNumber) operands.get(1)).floatValue();
-            float c = ((PdfNumber) operands.get(2)).floatValue();
-            float d = ((PdfNumber) operands.get(3)).floatValue();
-            float e = ((PdfNumber) operands.get(4)).floatValue();
-            float f = ((PdfNumber) operands.get(5)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float a = (float) operands[0];
+            float b = (float) operands[1];
+            float c = (float) operands[2];
+            float d = (float) operands[3];
+            float e = (float) operands[4];
+            float f = (float) operands[5];
             Matrix matrix = new Matrix(a, b, c, d, e, f);
             processor.getGraphicsState().updateCtm(matrix);
         }
@@ -1004,10 +1171,10 @@ public class PdfCanvasProcessor {
     /**
      * Gets a color based on a list of operands.
      */
-    private static Color getColor(int nOperands, List<PdfObject> operands) {
+    private static Color getColor(int nOperands, double[] operands) {
         float[] c = new float[nOperands];
         for (int i = 0; i < nOperands; i++) {
-            c[i] = ((PdfNumber) operands.get(i)).floatValue();
+            c[i] = (float) operands[i];
         }
 
         switch (nOperands) {
@@ -1046,11 +1213,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (g). For more information see Table 51 ISO-32000-1
      */
-    private static class SetGrayFillOperator implements IContentOperator {
+    private static class SetGrayFillOperator extends NumericOperator {
+        SetGrayFillOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.getGraphicsState().setFillColor(getColor(1, operands));
         }
     }
@@ -1058,11 +1229,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (G). For more information see Table 51 ISO-32000-1
      */
-    private static class SetGrayStrokeOperator implements IContentOperator {
+    private static class SetGrayStrokeOperator extends NumericOperator {
+        SetGrayStrokeOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.getGraphicsState().setStrokeColor(getColor(1, operands));
         }
     }
@@ -1070,11 +1245,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (rg). For more information see Table 51 ISO-32000-1
      */
-    private static class SetRGBFillOperator implements IContentOperator {
+    private static class SetRGBFillOperator extends NumericOperator {
+        SetRGBFillOperator() {
+            super(3);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.getGraphicsState().setFillColor(getColor(3, operands));
         }
     }
@@ -1082,11 +1261,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (RG). For more information see Table 51 ISO-32000-1
      */
-    private static class SetRGBStrokeOperator implements IContentOperator {
+    private static class SetRGBStrokeOperator extends NumericOperator {
+        SetRGBStrokeOperator() {
+            super(3);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.getGraphicsState().setStrokeColor(getColor(3, operands));
         }
     }
@@ -1094,11 +1277,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (k). For more information see Table 51 ISO-32000-1
      */
-    private static class SetCMYKFillOperator implements IContentOperator {
+    private static class SetCMYKFillOperator extends NumericOperator {
+        SetCMYKFillOperator() {
+            super(4);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.getGraphicsState().setFillColor(getColor(4, operands));
         }
     }
@@ -1106,11 +1293,15 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (K). For more information see Table 51 ISO-32000-1
      */
-    private static class SetCMYKStrokeOperator implements IContentOperator {
+    private static class SetCMYKStrokeOperator extends NumericOperator {
+        SetCMYKStrokeOperator() {
+            super(4);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
             processor.getGraphicsState().setStrokeColor(getColor(4, operands));
         }
     }
@@ -1292,12 +1483,16 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (w). For more information see Table 51 ISO-32000-1
      */
-    private static class SetLineWidthOperator implements IContentOperator {
+    private static class SetLineWidthOperator extends NumericOperator {
+        SetLineWidthOperator() {
+            super(1);
+        }
+
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            float lineWidth = ((PdfNumber) operands.get(0)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float lineWidth = (float) operands[0];
             processor.getGraphicsState().setLineWidth(lineWidth);
         }
     }
@@ -1305,13 +1500,16 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (J). For more information see Table 51 ISO-32000-1
      */
-    private class SetLineCapOperator implements IContentOperator {
+    private class SetLineCapOperator extends NumericOperator {
+        SetLineCapOperator() {
+            super(1);
+        }
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            int lineCap = ((PdfNumber) operands.get(0)).intValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            int lineCap = (int) operands[0];
             processor.getGraphicsState().setLineCapStyle(lineCap);
         }
     }
@@ -1319,13 +1517,16 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (j). For more information see Table 51 ISO-32000-1
      */
-    private class SetLineJoinOperator implements IContentOperator {
+    private class SetLineJoinOperator extends NumericOperator {
+        SetLineJoinOperator() {
+            super(1);
+        }
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            int lineJoin = ((PdfNumber) operands.get(0)).intValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            int lineJoin = (int) operands[0];
             processor.getGraphicsState().setLineJoinStyle(lineJoin);
         }
     }
@@ -1333,13 +1534,16 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (M). For more information see Table 51 ISO-32000-1
      */
-    private class SetMiterLimitOperator implements IContentOperator {
+    private class SetMiterLimitOperator extends NumericOperator {
+        SetMiterLimitOperator() {
+            super(1);
+        }
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            float miterLimit = ((PdfNumber) operands.get(0)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float miterLimit = (float) operands[0];
             processor.getGraphicsState().setMiterLimit(miterLimit);
         }
     }
@@ -1421,14 +1625,17 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (m). For more information see Table 51 ISO-32000-1
      */
-    private static class MoveToOperator implements IContentOperator {
+    private static class MoveToOperator extends NumericOperator {
+        MoveToOperator() {
+            super(2);
+        }
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x = ((PdfNumber) operands.get(0)).floatValue();
-            float y = ((PdfNumber) operands.get(1)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float x = (float) operands[0];
+            float y = (float) operands[1];
             processor.currentPath.moveTo(x, y);
         }
     }
@@ -1436,14 +1643,17 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (l). For more information see Table 51 ISO-32000-1
      */
-    private static class LineToOperator implements IContentOperator {
+    private static class LineToOperator extends NumericOperator {
+        LineToOperator() {
+            super(2);
+        }
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x = ((PdfNumber) operands.get(0)).floatValue();
-            float y = ((PdfNumber) operands.get(1)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float x = (float) operands[0];
+            float y = (float) operands[1];
             processor.currentPath.lineTo(x, y);
         }
     }
@@ -1451,18 +1661,21 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (c). For more information see Table 51 ISO-32000-1
      */
-    private static class CurveOperator implements IContentOperator {
+    private static class CurveOperator extends NumericOperator {
+        CurveOperator() {
+            super(6);
+        }
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x1 = ((PdfNumber) operands.get(0)).floatValue();
-            float y1 = ((PdfNumber) operands.get(1)).floatValue();
-            float x2 = ((PdfNumber) operands.get(2)).floatValue();
-            float y2 = ((PdfNumber) operands.get(3)).floatValue();
-            float x3 = ((PdfNumber) operands.get(4)).floatValue();
-            float y3 = ((PdfNumber) operands.get(5)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float x1 = (float) operands[0];
+            float y1 = (float) operands[1];
+            float x2 = (float) operands[2];
+            float y2 = (float) operands[3];
+            float x3 = (float) operands[4];
+            float y3 = (float) operands[5];
             processor.currentPath.curveTo(x1, y1, x2, y2, x3, y3);
         }
     }
@@ -1470,16 +1683,19 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (v). For more information see Table 51 ISO-32000-1
      */
-    private static class CurveFirstPointDuplicatedOperator implements IContentOperator {
+    private static class CurveFirstPointDuplicatedOperator extends NumericOperator {
+        CurveFirstPointDuplicatedOperator() {
+            super(4);
+        }
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x2 = ((PdfNumber) operands.get(0)).floatValue();
-            float y2 = ((PdfNumber) operands.get(1)).floatValue();
-            float x3 = ((PdfNumber) operands.get(2)).floatValue();
-            float y3 = ((PdfNumber) operands.get(3)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float x2 = (float) operands[0];
+            float y2 = (float) operands[1];
+            float x3 = (float) operands[2];
+            float y3 = (float) operands[3];
             processor.currentPath.curveTo(x2, y2, x3, y3);
         }
     }
@@ -1487,16 +1703,19 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (y). For more information see Table 51 ISO-32000-1
      */
-    private static class CurveFourhPointDuplicatedOperator implements IContentOperator {
+    private static class CurveFourhPointDuplicatedOperator extends NumericOperator {
+        CurveFourhPointDuplicatedOperator() {
+            super(4);
+        }
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x1 = ((PdfNumber) operands.get(0)).floatValue();
-            float y1 = ((PdfNumber) operands.get(1)).floatValue();
-            float x3 = ((PdfNumber) operands.get(2)).floatValue();
-            float y3 = ((PdfNumber) operands.get(3)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float x1 = (float) operands[0];
+            float y1 = (float) operands[1];
+            float x3 = (float) operands[2];
+            float y3 = (float) operands[3];
             processor.currentPath.curveFromTo(x1, y1, x3, y3);
         }
     }
@@ -1517,16 +1736,19 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (re). For more information see Table 51 ISO-32000-1
      */
-    private static class RectangleOperator implements IContentOperator {
+    private static class RectangleOperator extends NumericOperator {
+        RectangleOperator() {
+            super(4);
+        }
 
         /**
          * {@inheritDoc}
          */
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x = ((PdfNumber) operands.get(0)).floatValue();
-            float y = ((PdfNumber) operands.get(1)).floatValue();
-            float w = ((PdfNumber) operands.get(2)).floatValue();
-            float h = ((PdfNumber) operands.get(3)).floatValue();
+        void invoke(PdfCanvasProcessor processor, double[] operands) {
+            float x = (float) operands[0];
+            float y = (float) operands[1];
+            float w = (float) operands[2];
+            float h = (float) operands[3];
             processor.currentPath.rectangle(x, y, w, h);
         }
     }
@@ -0,0 +1,192 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Extracts text from the pages of a {@link PdfDocument}. Unlike {@link PdfTextExtractor}, the fonts
+ * (together with their ToUnicode CMaps) are created only once and are shared by all the processed pages.
+ * <p>
+ * If an executor is set, the pages are processed concurrently; the document shall be opened for reading only
+ * in concurrent reading mode, see {@link com.itextpdf.kernel.pdf.ReaderProperties#useConcurrentReading()}.
+ * The text of the pages is passed to the {@link IPageTextListener} on the calling thread in the order of the pages,
+ * and no more than {@link #setMaxPagesInProgress(int)} pages are processed or kept in memory at once.
+ */
+public class PdfDocumentTextExtractor {
+
+    private static final int DEFAULT_MAX_PAGES_IN_PROGRESS = 64;
+
+    private final PdfDocument pdfDocument;
+    private final Map<Integer, PdfFont> fontCache = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private int maxPagesInProgress = DEFAULT_MAX_PAGES_IN_PROGRESS;
+
+    public PdfDocumentTextExtractor(PdfDocument pdfDocument) {
+        this.pdfDocument = pdfDocument;
+    }
+
+    /**
+     * Defines the executor which is used to process the pages concurrently, one task per page.
+     * The executor is not shut down by the extractor.
+     *
+     * @param executor the executor to run the page processing tasks, or {@code null} to process the pages serially.
+     * @return this {@code PdfDocumentTextExtractor} instance
+     */
+    public PdfDocumentTextExtractor setExecutor(ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Defines how many pages may be submitted to the executor ahead of the page which text is passed
+     * to the listener next. Defaults to 64.
+     *
+     * @param maxPagesInProgress the maximum number of pages being processed or waiting for the listener.
+     * @return this {@code PdfDocumentTextExtractor} instance
+     */
+    public PdfDocumentTextExtractor setMaxPagesInProgress(int maxPagesInProgress) {
+        this.maxPagesInProgress = Math.max(1, maxPagesInProgress);
+        return this;
+    }
+
+    /**
+     * Extracts text from all the pages of the document.
+     *
+     * @param listener the listener which receives the text of the pages in the order of the pages
+     */
+    public void extractText(IPageTextListener listener) {
+        extractText(1, pdfDocument.getNumberOfPages(), listener);
+    }
+
+    /**
+     * Extracts text from the pages in the specified range.
+     *
+     * @param fromPage the one-based number of the first page to process
+     * @param toPage   the one-based number of the last page to process, inclusive
+     * @param listener the listener which receives the text of the pages in the order of the pages
+     */
+    public void extractText(int fromPage, int toPage, IPageTextListener listener) {
+        if (executor == null) {
+            for (int pageNumber = fromPage; pageNumber <= toPage; pageNumber++) {
+                listener.pageTextExtracted(pageNumber, extractPageText(pageNumber));
+            }
+            return;
+        }
+
+        PdfReader reader = pdfDocument.getReader();
+        if (reader == null || pdfDocument.getWriter() != null || !reader.isConcurrentReading()) {
+            throw new PdfException(PdfException.DocumentIsNotOpenedInConcurrentReadingMode);
+        }
+        Deque<Future<String>> tasks = new ArrayDeque<>();
+        int nextPage = fromPage;
+        try {
+            for (int pageNumber = fromPage; pageNumber <= toPage; pageNumber++) {
+                while (nextPage <= toPage && tasks.size() < maxPagesInProgress) {
+                    tasks.add(submitPage(nextPage++));
+                }
+                listener.pageTextExtracted(pageNumber, tasks.poll().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.CannotExtractText, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new PdfException(PdfException.CannotExtractText, e.getCause());
+        } finally {
+            for (Future<String> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Creates the strategy used to extract text from the page. A new strategy is created for every page,
+     * by default it's {@link LocationTextExtractionStrategy}. If an executor is set, the method is called
+     * on the executor threads.
+     *
+     * @param pageNumber the number of the page to be processed
+     * @return the text extraction strategy
+     */
+    protected ITextExtractionStrategy createStrategy(int pageNumber) {
+        return new LocationTextExtractionStrategy();
+    }
+
+    private Future<String> submitPage(final int pageNumber) {
+        return executor.submit(new Callable<String>() {
+            @Override
+            public String call() {
+                return extractPageText(pageNumber);
+            }
+        });
+    }
+
+    private String extractPageText(int pageNumber) {
+        ITextExtractionStrategy strategy = createStrategy(pageNumber);
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(strategy);
+        processor.setFontCache(fontCache);
+        processor.processPageContent(pdfDocument.getPage(pageNumber));
+        return strategy.getResultantText();
+    }
+
+    public interface IPageTextListener {
+        void pageTextExtracted(int pageNumber, String text);
+    }
+}
@@ -44,11 +44,13 @@
 package com.itextpdf.kernel.pdf.canvas.parser.util;
 
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.io.source.ByteBuffer;
 import com.itextpdf.io.source.PdfTokenizer;
 import com.itextpdf.kernel.pdf.PdfArray;
 import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfLiteral;
 import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNamePool;
 import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfResources;
@@ -72,6 +74,8 @@ public class PdfCanvasParser {
 
     private PdfResources currentResources;
 
+    private PdfNamePool namePool;
+
     /**
      * Creates a new instance of PdfContentParser
      * @param tokeniser the tokeniser with the content
@@ -157,7 +161,7 @@ public class PdfCanvasParser {
                 break;
             if (tokeniser.getTokenType() != PdfTokenizer.TokenType.Name)
                 tokeniser.throwError(PdfException.DictionaryKey1IsNotAName, tokeniser.getStringValue());
-            PdfName name = new PdfName(tokeniser.getStringValue());
+            PdfName name = readDictionaryKey();
             PdfObject obj = readObject();
             dic.put(name, obj);
         }
@@ -202,7 +206,7 @@ public class PdfCanvasParser {
                 PdfString str = new PdfString(tokeniser.getDecodedStringContent()).setHexWriting(tokeniser.isHexString());
                 return str;
             case Name:
-                return new PdfName(tokeniser.getByteContent());
+                return readName();
             case Number:
                 //use PdfNumber(byte[]) here, as in this case number parsing won't happen until it's needed.
                 return new PdfNumber(tokeniser.getByteContent());
@@ -211,6 +215,24 @@ public class PdfCanvasParser {
         }
     }
 
+    private PdfName readDictionaryKey() {
+        ByteBuffer buffer = tokeniser.getByteBuffer();
+        for (int i = 0; i < buffer.size(); i++) {
+            if (buffer.get(i) == '#') {
+                // unlike the other names, the dictionary keys have never been decoded
+                return new PdfName(tokeniser.getStringValue());
+            }
+        }
+        return readName();
+    }
+
+    private PdfName readName() {
+        if (namePool == null) {
+            namePool = new PdfNamePool();
+        }
+        return namePool.get(tokeniser.getByteBuffer());
+    }
+
     /**
      * Reads the next token skipping over the comments.
      * @return <CODE>true</CODE> if a token was read, <CODE>false</CODE> if the end of content was reached
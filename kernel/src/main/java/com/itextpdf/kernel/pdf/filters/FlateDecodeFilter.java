@@ -43,6 +43,7 @@
  */
 package com.itextpdf.kernel.pdf.filters;
 
+import com.itextpdf.io.source.ZlibCodecPool;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfName;
@@ -53,12 +54,14 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 /**
  * Handles FlateDecode filter.
  */
-public class FlateDecodeFilter implements IFilterHandler {
+public class FlateDecodeFilter implements IFilterHandler, IStreamingFilterHandler {
 
     @Override
     public byte[] decode(byte[] b, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
@@ -69,6 +72,30 @@ public class FlateDecodeFilter implements IFilterHandler {
         return b;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The data is inflated on demand and PNG predictors are applied row by row. Unlike
+     * {@link #decode(byte[], PdfName, PdfObject, PdfDictionary)}, which recovers as much of a corrupted stream
+     * as possible, reading of corrupted data throws an {@link java.io.IOException} after the data preceding the error.
+     * {@link com.itextpdf.kernel.pdf.PdfReader#readStream(com.itextpdf.kernel.pdf.PdfStream, boolean)} falls back
+     * to the array decoding in this case.
+     */
+    @Override
+    public InputStream decode(InputStream in, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
+        InputStream inflated = new FlateDecodeInputStream(in);
+        PdfDictionary dic = decodeParams != null && decodeParams.getType() == PdfObject.DICTIONARY ? (PdfDictionary) decodeParams : null;
+        PdfNumber predictor = dic != null ? dic.getAsNumber(PdfName.Predictor) : null;
+        if (predictor == null || predictor.intValue() < 10 && predictor.intValue() != 2) {
+            return inflated;
+        }
+        PdfNumber columns = dic.getAsNumber(PdfName.Columns);
+        PdfNumber colors = dic.getAsNumber(PdfName.Colors);
+        PdfNumber bpc = dic.getAsNumber(PdfName.BitsPerComponent);
+        return new PredictorInputStream(inflated, predictor.intValue(), columns != null ? columns.intValue() : 1,
+                colors != null ? colors.intValue() : 1, bpc != null ? bpc.intValue() : 8);
+    }
+
     /**
      * A helper to flateDecode.
      *
@@ -78,7 +105,8 @@ public class FlateDecodeFilter implements IFilterHandler {
      */
     public static byte[] flateDecode(byte[] in, boolean strict) {
         ByteArrayInputStream stream = new ByteArrayInputStream(in);
-        InflaterInputStream zip = new InflaterInputStream(stream);
+        Inflater inflater = ZlibCodecPool.acquireInflater();
+        InflaterInputStream zip = new InflaterInputStream(stream, inflater);
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         byte[] b = new byte[strict ? 4092 : 1];
         try {
@@ -95,6 +123,9 @@ public class FlateDecodeFilter implements IFilterHandler {
                 return null;
             return out.toByteArray();
         }
+        finally {
+            ZlibCodecPool.releaseInflater(inflater);
+        }
     }
 
     /**
@@ -156,58 +187,7 @@ public class FlateDecodeFilter implements IFilterHandler {
                 return fout.toByteArray();
             }
 
-            switch (filter) {
-                case 0: //PNG_FILTER_NONE
-                    break;
-                case 1: //PNG_FILTER_SUB
-                    for (int i = bytesPerPixel; i < bytesPerRow; i++) {
-                        curr[i] += curr[i - bytesPerPixel];
-                    }
-                    break;
-                case 2: //PNG_FILTER_UP
-                    for (int i = 0; i < bytesPerRow; i++) {
-                        curr[i] += prior[i];
-                    }
-                    break;
-                case 3: //PNG_FILTER_AVERAGE
-                    for (int i = 0; i < bytesPerPixel; i++) {
-                        curr[i] += (byte) (prior[i] / 2);
-                    }
-                    for (int i = bytesPerPixel; i < bytesPerRow; i++) {
-                        curr[i] += (byte) (((curr[i - bytesPerPixel] & 0xff) + (prior[i] & 0xff))/2);
-                    }
-                    break;
-                case 4: //PNG_FILTER_PAETH
-                    for (int i = 0; i < bytesPerPixel; i++) {
-                        curr[i] += prior[i];
-                    }
-
-                    for (int i = bytesPerPixel; i < bytesPerRow; i++) {
-                        int a = curr[i - bytesPerPixel] & 0xff;
-                        int b = prior[i] & 0xff;
-                        int c = prior[i - bytesPerPixel] & 0xff;
-
-                        int p = a + b - c;
-                        int pa = Math.abs(p - a);
-                        int pb = Math.abs(p - b);
-                        int pc = Math.abs(p - c);
-
-                        int ret;
-
-                        if (pa <= pb && pa <= pc) {
-                            ret = a;
-                        } else if (pb <= pc) {
-                            ret = b;
-                        } else {
-                            ret = c;
-                        }
-                        curr[i] += (byte)ret;
-                    }
-                    break;
-                default:
-                    // Error -- unknown filter type
-                    throw new PdfException(PdfException.PngFilterUnknown);
-            }
+            decodePngRow(filter, curr, prior, bytesPerRow, bytesPerPixel);
             try {
                 fout.write(curr);
             }
@@ -222,4 +202,68 @@ public class FlateDecodeFilter implements IFilterHandler {
             curr = tmp;
         }
     }
+
+    /**
+     * Reverses the PNG prediction of a single row.
+     *
+     * @param filter        the PNG filter type of the row.
+     * @param curr          the row to decode in place.
+     * @param prior         the previous decoded row, or zero bytes for the first row.
+     * @param bytesPerRow   the number of bytes in the row.
+     * @param bytesPerPixel the number of bytes per pixel.
+     */
+    static void decodePngRow(int filter, byte[] curr, byte[] prior, int bytesPerRow, int bytesPerPixel) {
+        switch (filter) {
+            case 0: //PNG_FILTER_NONE
+                break;
+            case 1: //PNG_FILTER_SUB
+                for (int i = bytesPerPixel; i < bytesPerRow; i++) {
+                    curr[i] += curr[i - bytesPerPixel];
+                }
+                break;
+            case 2: //PNG_FILTER_UP
+                for (int i = 0; i < bytesPerRow; i++) {
+                    curr[i] += prior[i];
+                }
+                break;
+            case 3: //PNG_FILTER_AVERAGE
+                for (int i = 0; i < bytesPerPixel; i++) {
+                    curr[i] += (byte) (prior[i] / 2);
+                }
+                for (int i = bytesPerPixel; i < bytesPerRow; i++) {
+                    curr[i] += (byte) (((curr[i - bytesPerPixel] & 0xff) + (prior[i] & 0xff))/2);
+                }
+                break;
+            case 4: //PNG_FILTER_PAETH
+                for (int i = 0; i < bytesPerPixel; i++) {
+                    curr[i] += prior[i];
+                }
+
+                for (int i = bytesPerPixel; i < bytesPerRow; i++) {
+                    int a = curr[i - bytesPerPixel] & 0xff;
+                    int b = prior[i] & 0xff;
+                    int c = prior[i - bytesPerPixel] & 0xff;
+
+                    int p = a + b - c;
+                    int pa = Math.abs(p - a);
+                    int pb = Math.abs(p - b);
+                    int pc = Math.abs(p - c);
+
+                    int ret;
+
+                    if (pa <= pb && pa <= pc) {
+                        ret = a;
+                    } else if (pb <= pc) {
+                        ret = b;
+                    } else {
+                        ret = c;
+                    }
+                    curr[i] += (byte)ret;
+                }
+                break;
+            default:
+                // Error -- unknown filter type
+                throw new PdfException(PdfException.PngFilterUnknown);
+        }
+    }
 }
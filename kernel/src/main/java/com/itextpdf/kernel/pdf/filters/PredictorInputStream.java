@@ -0,0 +1,176 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reverses PNG and TIFF predictors row by row, so only two rows of the image are kept in memory.
+ * The result is the same as the one of {@link FlateDecodeFilter#decodePredictor(byte[], com.itextpdf.kernel.pdf.PdfObject)}.
+ */
+class PredictorInputStream extends FilterInputStream {
+
+    private final int predictor;
+    private final int bpc;
+    private final int bytesPerPixel;
+    private final int bytesPerRow;
+
+    private byte[] curr;
+    private byte[] prior;
+    private int position;
+    private int rowLength;
+    private boolean finished;
+
+    PredictorInputStream(InputStream in, int predictor, int columns, int colors, int bpc) {
+        super(in);
+        this.predictor = predictor;
+        this.bpc = bpc;
+        this.bytesPerPixel = colors * bpc / 8;
+        this.bytesPerRow = (colors * columns * bpc + 7) / 8;
+        this.curr = new byte[bytesPerRow];
+        this.prior = new byte[bytesPerRow];
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == rowLength && !readRow()) {
+            return -1;
+        }
+        return curr[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position == rowLength && !readRow()) {
+            return -1;
+        }
+        int n = Math.min(len, rowLength - position);
+        System.arraycopy(curr, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && (position < rowLength || readRow())) {
+            int count = (int) Math.min(n - skipped, rowLength - position);
+            position += count;
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return rowLength - position;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    private boolean readRow() throws IOException {
+        if (finished) {
+            return false;
+        }
+        if (predictor == 2) {
+            // TIFF predictor: incomplete rows are kept as is
+            int n = readFully(curr, bytesPerRow);
+            if (n < bytesPerRow) {
+                finished = true;
+            } else if (bpc == 8) {
+                for (int col = bytesPerPixel; col < bytesPerRow; col++) {
+                    curr[col] = (byte) (curr[col] + curr[col - bytesPerPixel]);
+                }
+            }
+            return setRow(n);
+        }
+        // Swap curr and prior
+        byte[] tmp = prior;
+        prior = curr;
+        curr = tmp;
+        int filter = in.read();
+        // PNG predictors: an incomplete row ends the data
+        if (filter < 0 || readFully(curr, bytesPerRow) < bytesPerRow) {
+            finished = true;
+            return setRow(0);
+        }
+        FlateDecodeFilter.decodePngRow(filter, curr, prior, bytesPerRow, bytesPerPixel);
+        return setRow(bytesPerRow);
+    }
+
+    private boolean setRow(int length) {
+        position = 0;
+        rowLength = length;
+        return length > 0;
+    }
+
+    private int readFully(byte[] b, int len) throws IOException {
+        int total = 0;
+        while (total < len) {
+            int n = in.read(b, total, len - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+}
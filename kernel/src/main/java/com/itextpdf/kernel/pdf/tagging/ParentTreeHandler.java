@@ -55,9 +55,14 @@ import com.itextpdf.kernel.pdf.PdfNumTree;
 import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -96,33 +101,78 @@ class ParentTreeHandler implements Serializable {
     private Map<PdfIndirectReference, TreeMap<Integer, PdfMcr>> pageToPageMcrs;
 
     /**
-     * Init ParentTreeHandler. On init the parent tree is read and stored in this instance.
+     * The parent tree of the document, as it was read. In lazy tag structure mode the entries of this tree are
+     * looked up page by page, when the marked content references of a page are needed for the first time.
+     * It is null if the document didn't have parent tree or if all the marked content references were registered
+     * on init.
+     */
+    private PdfNumTree sourceParentTree;
+
+    /**
+     * Pages, which marked content references were already read from the {@link #sourceParentTree}.
+     */
+    private Set<PdfIndirectReference> loadedPages;
+
+    /**
+     * Struct parent indexes of the {@link #sourceParentTree} entries, which belong to the loaded pages. Entries
+     * for these indexes are created anew from the registered marked content references, while all the other
+     * entries (e.g. the ones of the form XObjects) are copied from the source parent tree as they are.
+     */
+    private Set<Integer> loadedStructParentIndexes;
+
+    /**
+     * Struct parent indexes, for which no more parent tree entries could be created. Used only in streaming
+     * tag structure mode to find out which leaves of the parent tree could be flushed, otherwise it is null.
+     */
+    private BitSet finishedStructParentIndexes;
+
+    /**
+     * Init ParentTreeHandler. On init the parent tree is read and stored in this instance,
+     * unless the document is read in lazy tag structure mode.
      */
     ParentTreeHandler(PdfStructTreeRoot structTreeRoot) {
         this.structTreeRoot = structTreeRoot;
         parentTree = new PdfNumTree(structTreeRoot.getDocument().getCatalog(), PdfName.ParentTree);
-        registerAllMcrs();
+        PdfWriter writer = structTreeRoot.getDocument().getWriter();
+        if (writer != null && writer.isStreamingTagStructure()) {
+            finishedStructParentIndexes = new BitSet();
+        }
+        PdfReader reader = structTreeRoot.getDocument().getReader();
+        if (reader != null && reader.isLazyTagStructure()) {
+            initSourceParentTree();
+        } else {
+            registerAllMcrs();
+        }
     }
 
     /**
      * Gets a list of marked content references on page.
      */
     public Map<Integer, PdfMcr> getPageMarkedContentReferences(PdfPage page) {
-        return pageToPageMcrs.get(page.getPdfObject().getIndirectReference());
+        return getPageMcrs(page.getPdfObject());
     }
 
     public PdfMcr findMcrByMcid(PdfDictionary pageDict, int mcid) {
-        Map<Integer, PdfMcr> pageMcrs = pageToPageMcrs.get(pageDict.getIndirectReference());
+        Map<Integer, PdfMcr> pageMcrs = getPageMcrs(pageDict);
         return pageMcrs != null ? pageMcrs.get(mcid) : null;
     }
 
     public PdfObjRef findObjRefByStructParentIndex(PdfDictionary pageDict, int structParentIndex) {
-        Map<Integer, PdfMcr> pageMcrs = pageToPageMcrs.get(pageDict.getIndirectReference());
+        Map<Integer, PdfMcr> pageMcrs = getPageMcrs(pageDict);
+        if (sourceParentTree != null && !loadedStructParentIndexes.contains(structParentIndex)) {
+            // the annotation might be already removed from the page, so it wasn't found when the page was loaded
+            Set<PdfDictionary> mcrParents = new HashSet<>();
+            addMcrParents(structParentIndex, mcrParents);
+            for (PdfDictionary mcrParent : mcrParents) {
+                registerObjRefs(mcrParent, structParentIndex);
+            }
+            pageMcrs = pageToPageMcrs.get(pageDict.getIndirectReference());
+        }
         return pageMcrs != null ? (PdfObjRef) pageMcrs.get(structParentIndexIntoKey(structParentIndex)) : null;
     }
 
     public int getNextMcidForPage(PdfPage page) {
-        TreeMap<Integer, PdfMcr> pageMcrs = pageToPageMcrs.get(page.getPdfObject().getIndirectReference());
+        TreeMap<Integer, PdfMcr> pageMcrs = getPageMcrs(page.getPdfObject());
         if (pageMcrs == null || pageMcrs.size() == 0) {
             return 0;
         } else {
@@ -142,17 +192,75 @@ class ParentTreeHandler implements Serializable {
      */
     public void createParentTreeEntryForPage(PdfPage page) {
         Map<Integer, PdfMcr> mcrs = getPageMarkedContentReferences(page);
-        if (mcrs == null) {
-            return;
+        if (mcrs != null) {
+            pageToPageMcrs.remove(page.getPdfObject().getIndirectReference());
+            updateStructParentTreeEntries(page.getStructParentIndex(), mcrs);
+        }
+        if (isStreaming()) {
+            PdfNumber structParents = page.getPdfObject().getAsNumber(PdfName.StructParents);
+            if (structParents != null) {
+                finishedStructParentIndexes.set(structParents.intValue());
+            }
+            parentTree.flushLeaves(finishedStructParentIndexes.nextClearBit(0));
         }
-        pageToPageMcrs.remove(page.getPdfObject().getIndirectReference());
-        updateStructParentTreeEntries(page.getStructParentIndex(), mcrs);
+    }
+
+    /**
+     * Creates parent tree entries for the pages, which marked content references are still registered.
+     * In streaming tag structure mode this is used instead of going through all the pages of the document,
+     * because the flushed pages might not be available anymore.
+     */
+    public void createParentTreeEntriesForRemainingPages() {
+        List<PdfIndirectReference> pages = new ArrayList<>(pageToPageMcrs.keySet());
+        for (PdfIndirectReference pageRef : pages) {
+            PdfObject pageObject = pageRef.getRefersTo();
+            PdfPage page = pageObject instanceof PdfDictionary
+                    ? structTreeRoot.getDocument().getPage((PdfDictionary) pageObject) : null;
+            if (page != null) {
+                createParentTreeEntryForPage(page);
+            }
+        }
+    }
+
+    /**
+     * Indicates if the parent tree is written page by page, as the pages are flushed.
+     */
+    public boolean isStreaming() {
+        return finishedStructParentIndexes != null;
     }
 
     public PdfDictionary buildParentTree() {
+        if (sourceParentTree != null) {
+            for (Map.Entry<Integer, PdfObject> entry : sourceParentTree.getNumbers().entrySet()) {
+                if (!loadedStructParentIndexes.contains(entry.getKey())) {
+                    parentTree.addEntry(entry.getKey(), entry.getValue());
+                }
+            }
+            // the rest of the pages won't be loaded anymore, because their entries are already in the new tree
+            sourceParentTree = null;
+        }
         return parentTree.buildTree().makeIndirect(structTreeRoot.getDocument());
     }
 
+    /**
+     * Reads the marked content references of the pages the kids of the given structure element belong to,
+     * if they weren't read yet. This shall be done before the element is flushed, because the marked content
+     * references of a page can't be found in the flushed elements.
+     */
+    public void loadPagesOfKids(PdfStructElem structElem) {
+        if (sourceParentTree == null) {
+            return;
+        }
+        for (IPdfStructElem kid : structElem.getKids()) {
+            if (kid instanceof PdfMcr) {
+                PdfDictionary mcrPageObject = ((PdfMcr) kid).getPageObject();
+                if (mcrPageObject != null) {
+                    getPageMcrs(mcrPageObject);
+                }
+            }
+        }
+    }
+
     public void registerMcr(PdfMcr mcr) {
         PdfDictionary mcrPageObject = mcr.getPageObject();
         if (mcrPageObject == null || (!(mcr instanceof PdfObjRef) && mcr.getMcid() < 0)) {
@@ -160,7 +268,7 @@ class ParentTreeHandler implements Serializable {
             logger.error(LogMessageConstant.ENCOUNTERED_INVALID_MCR);
             return;
         }
-        TreeMap<Integer, PdfMcr> pageMcrs = pageToPageMcrs.get(mcrPageObject.getIndirectReference());
+        TreeMap<Integer, PdfMcr> pageMcrs = getPageMcrs(mcrPageObject);
         if (pageMcrs == null) {
             pageMcrs = new TreeMap<>();
             pageToPageMcrs.put(mcrPageObject.getIndirectReference(), pageMcrs);
@@ -189,7 +297,7 @@ class ParentTreeHandler implements Serializable {
         if (pageDict.isFlushed()) {
             throw new PdfException(PdfException.CannotRemoveMarkedContentReferenceBecauseItsPageWasAlreadyFlushed);
         }
-        Map<Integer, PdfMcr> pageMcrs = pageToPageMcrs.get(pageDict.getIndirectReference());
+        Map<Integer, PdfMcr> pageMcrs = getPageMcrs(pageDict);
         if (pageMcrs != null) {
             if (mcrToUnregister instanceof PdfObjRef) {
 
@@ -198,6 +306,7 @@ class ParentTreeHandler implements Serializable {
                     PdfNumber n = obj.getAsNumber(PdfName.StructParent);
                     if (n != null) {
                         pageMcrs.remove(structParentIndexIntoKey(n.intValue()));
+                        markStructParentIndexFinished(n.intValue());
                         return;
                     }
                 }
@@ -205,6 +314,7 @@ class ParentTreeHandler implements Serializable {
                 for (Map.Entry<Integer, PdfMcr> entry : pageMcrs.entrySet()) {
                     if (entry.getValue().getPdfObject() == mcrToUnregister.getPdfObject()) {
                         pageMcrs.remove(entry.getKey());
+                        markStructParentIndexFinished(keyIntoStructParentIndex((int) entry.getKey()));
                         break;
                     }
                 }
@@ -222,6 +332,12 @@ class ParentTreeHandler implements Serializable {
         return -key - 1;
     }
 
+    private void markStructParentIndexFinished(int structParentIndex) {
+        if (isStreaming()) {
+            finishedStructParentIndexes.set(structParentIndex);
+        }
+    }
+
     private void registerAllMcrs() {
         pageToPageMcrs = new HashMap<>();
         // we create new number tree and not using parentTree, because we want parentTree to be empty
@@ -257,6 +373,105 @@ class ParentTreeHandler implements Serializable {
         }
     }
 
+    private void initSourceParentTree() {
+        pageToPageMcrs = new HashMap<>();
+        // we create new number tree and not using parentTree, because we want parentTree to be empty
+        PdfNumTree tree = new PdfNumTree(structTreeRoot.getDocument().getCatalog(), PdfName.ParentTree);
+        int maxStructParentIndex = tree.getMaxKey();
+        if (maxStructParentIndex >= 0) {
+            sourceParentTree = tree;
+            loadedPages = new HashSet<>();
+            loadedStructParentIndexes = new HashSet<>();
+        }
+        structTreeRoot.getPdfObject().put(PdfName.ParentTreeNextKey, new PdfNumber(maxStructParentIndex + 1));
+    }
+
+    /**
+     * Gets the marked content references of the page, reading them from the source parent tree first, if
+     * the page is requested for the first time. If the tag structure of the page turns out to be corrupted,
+     * an exception with {@link PdfException#TagStructureReadingFailedItMightBeCorrupted} message is thrown,
+     * so that the document could be treated as not tagged.
+     */
+    private TreeMap<Integer, PdfMcr> getPageMcrs(PdfDictionary pageDict) {
+        PdfIndirectReference pageRef = pageDict.getIndirectReference();
+        if (sourceParentTree != null && pageRef != null && loadedPages.add(pageRef) && !pageDict.isFlushed()) {
+            try {
+                registerPageMcrs(pageDict);
+            } catch (RuntimeException ex) {
+                throw new PdfException(PdfException.TagStructureReadingFailedItMightBeCorrupted, ex);
+            }
+        }
+        return pageToPageMcrs.get(pageRef);
+    }
+
+    private void registerPageMcrs(PdfDictionary pageDict) {
+        Set<PdfDictionary> mcrParents = new HashSet<>();
+        PdfNumber structParents = pageDict.getAsNumber(PdfName.StructParents);
+        if (structParents != null) {
+            addMcrParents(structParents.intValue(), mcrParents);
+        }
+        PdfArray annots = pageDict.getAsArray(PdfName.Annots);
+        if (annots != null) {
+            for (int i = 0; i < annots.size(); ++i) {
+                PdfDictionary annot = annots.getAsDictionary(i);
+                PdfNumber structParent = annot != null ? annot.getAsNumber(PdfName.StructParent) : null;
+                if (structParent != null) {
+                    addMcrParents(structParent.intValue(), mcrParents);
+                }
+            }
+        }
+
+        for (PdfDictionary mcrParent : mcrParents) {
+            if (mcrParent.isFlushed()) {
+                continue;
+            }
+            for (IPdfStructElem kid : new PdfStructElem(mcrParent).getKids()) {
+                if (kid instanceof PdfMcr) {
+                    PdfDictionary mcrPageObject = ((PdfMcr) kid).getPageObject();
+                    // the kids, which belong to other pages, are registered when those pages are loaded;
+                    // the ones without page are invalid, they are passed further only to be reported
+                    if (mcrPageObject == null || pageDict.getIndirectReference().equals(mcrPageObject.getIndirectReference())) {
+                        registerMcr((PdfMcr) kid);
+                    }
+                }
+            }
+        }
+    }
+
+    private void registerObjRefs(PdfDictionary mcrParent, int structParentIndex) {
+        if (mcrParent.isFlushed()) {
+            return;
+        }
+        for (IPdfStructElem kid : new PdfStructElem(mcrParent).getKids()) {
+            if (kid instanceof PdfObjRef) {
+                PdfDictionary obj = ((PdfDictionary) ((PdfObjRef) kid).getPdfObject()).getAsDictionary(PdfName.Obj);
+                PdfNumber n = obj != null ? obj.getAsNumber(PdfName.StructParent) : null;
+                if (n != null && n.intValue() == structParentIndex) {
+                    registerMcr((PdfMcr) kid);
+                }
+            }
+        }
+    }
+
+    private void addMcrParents(int structParentIndex, Set<PdfDictionary> mcrParents) {
+        PdfObject entryValue = sourceParentTree.getEntry(structParentIndex);
+        if (entryValue == null) {
+            return;
+        }
+        loadedStructParentIndexes.add(structParentIndex);
+        if (entryValue.isDictionary()) {
+            mcrParents.add((PdfDictionary) entryValue);
+        } else if (entryValue.isArray()) {
+            PdfArray parentsArray = (PdfArray) entryValue;
+            for (int i = 0; i < parentsArray.size(); ++i) {
+                PdfDictionary parent = parentsArray.getAsDictionary(i);
+                if (parent != null) {
+                    mcrParents.add(parent);
+                }
+            }
+        }
+    }
+
     private void updateStructParentTreeEntries(Integer pageStructParentIndex, Map<Integer, PdfMcr> mcrs) {
         // element indexes in parentsOfPageMcrs shall be the same as mcid of one of their kids.
         // See "Finding Structure Elements from Content Items" in pdf spec.
@@ -267,6 +482,7 @@ class ParentTreeHandler implements Serializable {
             if (mcr instanceof PdfObjRef) {
                 int structParent = keyIntoStructParentIndex((int) entry.getKey());
                 parentTree.addEntry(structParent, ((PdfStructElem) mcr.getParent()).getPdfObject());
+                markStructParentIndexFinished(structParent);
             } else {
                 // if for some reason some mcr where not registered or don't exist, we ensure that the rest
                 // of the parent objects were placed at correct index
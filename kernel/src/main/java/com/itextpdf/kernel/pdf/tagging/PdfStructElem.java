@@ -361,6 +361,10 @@ public class PdfStructElem extends PdfObjectWrapper<PdfDictionary> implements IP
 
     @Override
     public void flush() {
+        PdfStructTreeRoot structTreeRoot = getDocument().getStructTreeRoot();
+        if (structTreeRoot != null) {
+            structTreeRoot.getParentTreeHandler().loadPagesOfKids(this);
+        }
         getDocument().checkIsoConformance(getPdfObject(), IsoKey.TAG_STRUCTURE_ELEMENT);
         super.flush();
     }
@@ -50,6 +50,7 @@ import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfVersion;
+import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.annot.PdfAnnotation;
 import com.itextpdf.kernel.pdf.tagging.IPdfStructElem;
 import com.itextpdf.kernel.pdf.tagging.PdfMcr;
@@ -99,6 +100,12 @@ public class TagStructureContext implements Serializable {
     private PdfVersion tagStructureTargetVersion;
     private boolean forbidUnknownRoles;
 
+    /**
+     * Indicates if the tags are flushed as soon as they are disconnected from the model elements
+     * and all their content belongs to the flushed pages.
+     */
+    private boolean streaming;
+
     /**
      * These two fields define the connections between tags ({@code PdfStructElem}) and
      * layout model elements ({@code IAccessibleElement}). This connection is used as
@@ -133,6 +140,8 @@ public class TagStructureContext implements Serializable {
 
         this.tagStructureTargetVersion = tagStructureTargetVersion;
         forbidUnknownRoles = true;
+        PdfWriter writer = document.getWriter();
+        streaming = writer != null && writer.isStreamingTagStructure();
 
         normalizeDocumentRootTag();
     }
@@ -435,6 +444,8 @@ public class TagStructureContext implements Serializable {
             }
             if (structElem.getParent() == null) { // is flushed
                 flushStructElementAndItKids(structElem);
+            } else if (streaming && !structElem.isFlushed() && structElem.getKids().size() > 0) {
+                flushParentIfBelongsToPage(structElem, null);
             }
         }
     }
@@ -461,6 +472,12 @@ public class TagStructureContext implements Serializable {
         }
     }
 
+    /**
+     * Flushes the given tag and then its parents, if all their content belongs either to the current page
+     * or to the already flushed pages.
+     *
+     * @param currentPage the page which is being flushed, or null if only the flushed pages shall be considered.
+     */
     private void flushParentIfBelongsToPage(PdfStructElem parent, PdfPage currentPage) {
         if (parent.isFlushed() || connectedStructToModel.containsKey(parent.getPdfObject())
                 || parent.getPdfObject() == rootTagElement.getPdfObject()) {
@@ -472,7 +489,7 @@ public class TagStructureContext implements Serializable {
         for (IPdfStructElem kid : kids) {
             if (kid instanceof PdfMcr) {
                 PdfDictionary kidPage = ((PdfMcr) kid).getPageObject();
-                if (!kidPage.isFlushed() && !kidPage.equals(currentPage.getPdfObject())) {
+                if (!kidPage.isFlushed() && (currentPage == null || !kidPage.equals(currentPage.getPdfObject()))) {
                     allKidsBelongToPage = false;
                     break;
                 }
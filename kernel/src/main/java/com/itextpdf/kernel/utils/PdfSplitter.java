@@ -52,16 +52,27 @@ import com.itextpdf.kernel.pdf.PdfOutline;
 import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfWriter;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class PdfSplitter {
 
+    private static final int DEFAULT_MAX_RANGES_IN_PROGRESS = 8;
+
     private PdfDocument pdfDocument;
     private boolean preserveTagged;
     private boolean preserveOutlines;
+    private ExecutorService splittingExecutor;
+    private int maxRangesInProgress = DEFAULT_MAX_RANGES_IN_PROGRESS;
 
     /**
      * Creates a new instance of PdfSplitter class.
@@ -95,6 +106,34 @@ public class PdfSplitter {
         this.preserveOutlines = preserveOutlines;
     }
 
+    /**
+     * Defines the executor which is used to create the resultant documents concurrently, one task per document.
+     * The source document is not thread-safe, so the resultant documents are created and the pages are copied
+     * to them one document at a time; only the {@link IDocumentReadyListener}, e.g. flushing and closing
+     * of the resultant documents, runs concurrently. The listener is called on the executor threads as soon as
+     * each document is ready, so it shall be thread-safe; the splitting methods return when all the documents
+     * are ready. {@link #getNextPdfWriter(PageRange)} is called on the executor threads too, one call at a time,
+     * but not necessarily in the order of the page ranges. The executor is not shut down by the splitter.
+     * If a task fails, the resultant documents which have not been passed to the listener or returned are closed.
+     *
+     * @param splittingExecutor the executor to run the splitting tasks, or {@code null} to split the document serially.
+     * @see #setMaxRangesInProgress(int)
+     */
+    public void setSplittingExecutor(ExecutorService splittingExecutor) {
+        this.splittingExecutor = splittingExecutor;
+    }
+
+    /**
+     * Defines how many page ranges may be submitted to the {@link #setSplittingExecutor(ExecutorService) executor}
+     * ahead of the first range which document isn't ready yet. This bounds the number of the resultant documents
+     * which are open and being created at once, if the listener closes them. Defaults to 8.
+     *
+     * @param maxRangesInProgress the maximum number of page ranges being split at once.
+     */
+    public void setMaxRangesInProgress(int maxRangesInProgress) {
+        this.maxRangesInProgress = Math.max(1, maxRangesInProgress);
+    }
+
     /**
      * Splits the document basing on the given size.
      *
@@ -126,6 +165,10 @@ public class PdfSplitter {
      *                      You can close this document in this listener, for instance.
      */
     public void splitByPageNumbers(List<Integer> pageNumbers, IDocumentReadyListener documentReady) {
+        if (splittingExecutor != null) {
+            splitConcurrently(getPageRangesByPageNumbers(pageNumbers), documentReady);
+            return;
+        }
         int currentPageNumber = 1;
 
         for (int ind = 0; ind <= pageNumbers.size(); ind++) {
@@ -150,6 +193,9 @@ public class PdfSplitter {
      * @return the list of resultant documents. By warned that they are not closed.
      */
     public List<PdfDocument> splitByPageNumbers(List<Integer> pageNumbers) {
+        if (splittingExecutor != null) {
+            return splitConcurrently(getPageRangesByPageNumbers(pageNumbers), null);
+        }
         final List<PdfDocument> splitDocuments = new ArrayList<>();
 
         splitByPageNumbers(pageNumbers, new IDocumentReadyListener() {
@@ -170,6 +216,10 @@ public class PdfSplitter {
      *                      You can close this document in this listener, for instance.
      */
     public void splitByPageCount(int pageCount, IDocumentReadyListener documentReady) {
+        if (splittingExecutor != null) {
+            splitConcurrently(getPageRangesByPageCount(pageCount), documentReady);
+            return;
+        }
         for (int startPage = 1; startPage <= pdfDocument.getNumberOfPages(); startPage += pageCount) {
             int endPage = Math.min(startPage + pageCount - 1, pdfDocument.getNumberOfPages());
 
@@ -187,6 +237,9 @@ public class PdfSplitter {
      * @return the list of resultant documents. By warned that they are not closed.
      */
     public List<PdfDocument> splitByPageCount(int pageCount) {
+        if (splittingExecutor != null) {
+            return splitConcurrently(getPageRangesByPageCount(pageCount), null);
+        }
         final List<PdfDocument> splitDocuments = new ArrayList<>();
 
         splitByPageCount(pageCount, new IDocumentReadyListener() {
@@ -207,6 +260,9 @@ public class PdfSplitter {
      * Be warned that these documents are not closed.
      */
     public List<PdfDocument> extractPageRanges(List<PageRange> pageRanges) {
+        if (splittingExecutor != null) {
+            return splitConcurrently(pageRanges, null);
+        }
         List<PdfDocument> splitDocuments = new ArrayList<>();
 
         for (PageRange currentPageRange : pageRanges) {
@@ -318,6 +374,118 @@ public class PdfSplitter {
         return toDocument;
     }
 
+    /**
+     * Copies the page ranges to the new documents on the {@link #splittingExecutor}, with no more than
+     * {@link #maxRangesInProgress} ranges submitted at once. The source document and its reader are not
+     * thread-safe, so creation of the documents and copying of the pages are serialized on the reader,
+     * which also guards reading of the raw content of the copied streams, while the listener runs concurrently.
+     * If splitting fails, the documents which have been created but not passed to the listener are closed.
+     *
+     * @return the resultant documents in the order of the page ranges, or {@code null} if the listener is given.
+     */
+    private List<PdfDocument> splitConcurrently(List<PageRange> pageRanges, IDocumentReadyListener documentReady) {
+        List<PdfDocument> splitDocuments = documentReady == null ? new ArrayList<PdfDocument>(pageRanges.size()) : null;
+        Deque<Future<PdfDocument>> tasks = new ArrayDeque<>();
+        Iterator<PageRange> nextRange = pageRanges.iterator();
+        boolean completed = false;
+        try {
+            while (nextRange.hasNext() || !tasks.isEmpty()) {
+                while (nextRange.hasNext() && tasks.size() < maxRangesInProgress) {
+                    tasks.add(submitPageRange(nextRange.next(), documentReady));
+                }
+                PdfDocument splitDocument = tasks.poll().get();
+                if (splitDocuments != null) {
+                    splitDocuments.add(splitDocument);
+                }
+            }
+            completed = true;
+            return splitDocuments;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.CannotSplitDocument, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new PdfException(PdfException.CannotSplitDocument, e.getCause());
+        } finally {
+            if (!completed) {
+                closeAbandonedDocuments(tasks, splitDocuments);
+            }
+        }
+    }
+
+    /**
+     * Cancels the tasks which have not started yet and closes the documents which the caller won't get
+     * after a failure: the ones already split and the ones created by the tasks still running.
+     * The documents passed to the listener are owned by the listener.
+     */
+    private static void closeAbandonedDocuments(Deque<Future<PdfDocument>> tasks, List<PdfDocument> splitDocuments) {
+        List<PdfDocument> abandoned = splitDocuments != null ? splitDocuments : new ArrayList<PdfDocument>();
+        for (Future<PdfDocument> task : tasks) {
+            if (task.cancel(false) || splitDocuments == null) {
+                continue;
+            }
+            try {
+                abandoned.add(task.get());
+            } catch (InterruptedException e) {
+                // the remaining documents are left to the garbage collector
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException ignored) {
+                // the task hasn't created a document
+            }
+        }
+        for (PdfDocument document : abandoned) {
+            try {
+                document.close();
+            } catch (RuntimeException ignored) {
+                // the failure of the splitting is more relevant
+            }
+        }
+    }
+
+    private Future<PdfDocument> submitPageRange(final PageRange pageRange, final IDocumentReadyListener documentReady) {
+        // the reader also serializes reading of the raw stream content, which happens when the copies are flushed
+        final Object sourceLock = pdfDocument.getReader() != null ? pdfDocument.getReader() : pdfDocument;
+        return splittingExecutor.submit(new Callable<PdfDocument>() {
+            @Override
+            public PdfDocument call() {
+                PdfDocument currentDocument;
+                synchronized (sourceLock) {
+                    currentDocument = createPdfDocument(pageRange);
+                    pdfDocument.copyPagesTo(pageRange.getAllPages(), currentDocument);
+                }
+                if (documentReady != null) {
+                    documentReady.documentReady(currentDocument, pageRange);
+                }
+                return currentDocument;
+            }
+        });
+    }
+
+    private List<PageRange> getPageRangesByPageNumbers(List<Integer> pageNumbers) {
+        List<PageRange> pageRanges = new ArrayList<>();
+        int currentPageNumber = 1;
+        for (int ind = 0; ind <= pageNumbers.size(); ind++) {
+            int nextPageNumber = ind == pageNumbers.size() ? pdfDocument.getNumberOfPages() + 1 : (int) pageNumbers.get(ind);
+            if (ind == 0 && nextPageNumber == 1)
+                continue;
+            pageRanges.add(new PageRange().addPageSequence(currentPageNumber, nextPageNumber - 1));
+            currentPageNumber = nextPageNumber;
+        }
+        return pageRanges;
+    }
+
+    private List<PageRange> getPageRangesByPageCount(int pageCount) {
+        List<PageRange> pageRanges = new ArrayList<>();
+        for (int startPage = 1; startPage <= pdfDocument.getNumberOfPages(); startPage += pageCount) {
+            int endPage = Math.min(startPage + pageCount - 1, pdfDocument.getNumberOfPages());
+            pageRanges.add(new PageRange().addPageSequence(startPage, endPage));
+        }
+        return pageRanges;
+    }
+
     private PdfPage getPageByOutline(int fromPage, PdfOutline outline) {
         int size = pdfDocument.getNumberOfPages();
         for (int i = fromPage; i <= size; i++) {
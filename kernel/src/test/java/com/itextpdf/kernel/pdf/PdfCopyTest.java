@@ -16,7 +16,9 @@ import java.io.IOException;
 import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @Category(IntegrationTest.class)
 public class PdfCopyTest extends ExtendedITextTest {
@@ -195,4 +197,43 @@ public class PdfCopyTest extends ExtendedITextTest {
         assertNull(new CompareTool().compareByContent(destinationFolder + "copySamePageWithAnnotationsSeveralTimes.pdf", sourceFolder + "cmp_copySamePageWithAnnotationsSeveralTimes.pdf", destinationFolder, "diff_"));
     }
 
+    @Test
+    public void copyStreamsWithoutLoadingTest() throws IOException {
+        PdfDocument pdfDoc1 = new PdfDocument(new PdfWriter(destinationFolder + "copyStreamsWithoutLoading_1.pdf"));
+        for (int i = 0; i < 4; i++) {
+            PdfPage page1 = pdfDoc1.addNewPage();
+            page1.getContentStream(0).getOutputStream().write(ByteUtils.getIsoBytes("%page " + String.valueOf(i + 1) + "\n"));
+            page1.flush();
+        }
+        pdfDoc1.close();
+
+        pdfDoc1 = new PdfDocument(new PdfReader(destinationFolder + "copyStreamsWithoutLoading_1.pdf"));
+        PdfDocument pdfDoc2 = new PdfDocument(new PdfWriter(destinationFolder + "copyStreamsWithoutLoading_2.pdf"));
+        pdfDoc1.copyPagesTo(1, 4, pdfDoc2);
+        for (int i = 1; i <= 4; i++) {
+            assertTrue(pdfDoc2.getPage(i).getFirstContentStream().isRawContentDeferred());
+        }
+        // the first page is written directly from the source
+        pdfDoc2.getPage(1).flush();
+        // the content of the second page is replaced without loading
+        pdfDoc2.getPage(2).getFirstContentStream().setData(ByteUtils.getIsoBytes("%modified\n"));
+        assertFalse(pdfDoc2.getPage(2).getFirstContentStream().isRawContentDeferred());
+        // the content of the third page is loaded on request
+        assertEquals(pdfDoc1.getPage(3).getFirstContentStream().getBytes(false).length,
+                pdfDoc2.getPage(3).getFirstContentStream().getBytes(false).length);
+        assertFalse(pdfDoc2.getPage(3).getFirstContentStream().isRawContentDeferred());
+        // the content of the last page is loaded, when the source document is closed
+        pdfDoc1.close();
+        assertFalse(pdfDoc2.getPage(4).getFirstContentStream().isRawContentDeferred());
+        pdfDoc2.close();
+
+        PdfReader reader = new PdfReader(destinationFolder + "copyStreamsWithoutLoading_2.pdf");
+        PdfDocument pdfDocument = new PdfDocument(reader);
+        assertEquals("Rebuilt", false, reader.hasRebuiltXref());
+        for (int i = 1; i <= 4; i++) {
+            String expected = i == 2 ? "%modified\n" : "%page " + String.valueOf(i) + "\n";
+            assertEquals(expected, new String(pdfDocument.getPage(i).getContentBytes()));
+        }
+        pdfDocument.close();
+    }
 }
@@ -1,13 +1,17 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.ByteUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 public class PdfDictionaryTest {
 
@@ -420,4 +424,60 @@ public class PdfDictionaryTest {
         Assert.assertEquals(0, dict.values().size());
         Assert.assertEquals(0, dict.size());
     }
+
+    @Test
+    public void testLargeDictionaryKeysOrderAndLookup() {
+        PdfDictionary dict = new PdfDictionary();
+        List<Integer> nums = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            nums.add(i);
+        }
+        Collections.shuffle(nums, new Random(42));
+        for (Integer num : nums) {
+            dict.put(new PdfName("Key" + (char) ('A' + num)), new PdfNumber(num));
+        }
+        Assert.assertEquals(40, dict.size());
+
+        PdfName previous = null;
+        for (PdfName key : dict.keySet()) {
+            if (previous != null) {
+                Assert.assertTrue(previous.compareTo(key) < 0);
+            }
+            previous = key;
+        }
+        for (int i = 0; i < 40; i++) {
+            PdfName byContent = new PdfName(ByteUtils.getIsoBytes("Key" + (char) ('A' + i)));
+            Assert.assertEquals(i, dict.getAsNumber(byContent).intValue());
+        }
+
+        for (int i = 0; i < 40; i += 2) {
+            Assert.assertNotNull(dict.remove(new PdfName("Key" + (char) ('A' + i))));
+        }
+        Assert.assertEquals(20, dict.size());
+        for (int i = 0; i < 40; i++) {
+            Assert.assertEquals(i % 2 == 1, dict.containsKey(new PdfName("Key" + (char) ('A' + i))));
+        }
+
+        Iterator<Map.Entry<PdfName, PdfObject>> iterator = dict.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (((PdfNumber) iterator.next().getValue()).intValue() > 5) {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(3, dict.size());
+        Assert.assertEquals(3, dict.getAsNumber(new PdfName("KeyD")).intValue());
+        Assert.assertNull(dict.get(new PdfName("KeyH")));
+    }
+
+    @Test
+    public void testNameHashCodeByContent() {
+        PdfName escaped = new PdfName(ByteUtils.getIsoBytes("A#20B#23"));
+        Assert.assertEquals(new PdfName("A B#").hashCode(), escaped.hashCode());
+        Assert.assertEquals("A B#", escaped.getValue());
+
+        PdfDictionary dict = new PdfDictionary();
+        dict.put(PdfName.Type, PdfName.Page);
+        Assert.assertEquals(PdfName.Page, dict.get(new PdfName(ByteUtils.getIsoBytes("Type"))));
+        Assert.assertEquals(PdfName.Page, dict.get(new PdfName("Type")));
+    }
 }
@@ -26,6 +26,7 @@ import java.security.PrivateKey;
 import java.security.Security;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.fail;
 
@@ -275,6 +276,74 @@ public class PdfEncryptionTest extends ExtendedITextTest{
         doc.close();
     }
 
+    @Test
+    public void encryptWithPasswordAes128Jce() throws IOException {
+        encryptAndDecryptWithJceCipher("encryptWithPasswordAes128Jce.pdf", EncryptionConstants.ENCRYPTION_AES_128);
+    }
+
+    @Test
+    public void encryptWithPasswordAes256Jce() throws IOException {
+        ITextTest.removeCryptographyRestrictions();
+        encryptAndDecryptWithJceCipher("encryptWithPasswordAes256Jce.pdf", EncryptionConstants.ENCRYPTION_AES_256);
+    }
+
+    @Test
+    public void decryptObjectsConcurrently() throws IOException, InterruptedException {
+        String filename = "decryptObjectsConcurrently.pdf";
+        encryptAndDecryptWithJceCipher(filename, EncryptionConstants.ENCRYPTION_AES_128);
+
+        PdfReader reader = new PdfReader(destinationFolder + filename, new ReaderProperties().setPassword(OWNER).useJceCipher());
+        PdfDocument document = new PdfDocument(reader);
+        final PdfEncryption encryption = reader.decrypt;
+        final int objectsCount = 200;
+        final byte[][] encrypted = new byte[objectsCount][];
+        for (int i = 0; i < objectsCount; i++) {
+            encrypted[i] = encryption.encryptByteArray(("Object " + i).getBytes(StandardCharsets.ISO_8859_1), i + 1, 0);
+        }
+        final AtomicInteger failures = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int shift = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int k = 0; k < objectsCount; k++) {
+                        int i = (k + shift * 50) % objectsCount;
+                        byte[] decrypted = encryption.decryptByteArray(encrypted[i], i + 1, 0);
+                        if (!("Object " + i).equals(new String(decrypted, StandardCharsets.ISO_8859_1))) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        document.close();
+        Assert.assertEquals(0, failures.get());
+    }
+
+    private void encryptAndDecryptWithJceCipher(String filename, int encryptionType) throws IOException {
+        String outFileName = destinationFolder + filename;
+        PdfWriter writer = new PdfWriter(outFileName, new WriterProperties()
+                .setStandardEncryption(USER, OWNER, EncryptionConstants.ALLOW_SCREENREADERS, encryptionType)
+                .useJceCipher());
+        PdfDocument document = new PdfDocument(writer);
+        document.getDocumentInfo().setAuthor(author).setCreator(creator);
+        String textContent = "Hello world!";
+        writeTextBytesOnPageContent(document.addNewPage(), textContent);
+        document.close();
+
+        checkDecryptedWithPasswordContent(filename, USER, textContent);
+
+        document = new PdfDocument(new PdfReader(outFileName, new ReaderProperties().setPassword(OWNER).useJceCipher()));
+        Assert.assertTrue(new String(document.getPage(1).getStreamBytes(0)).contains(textContent));
+        Assert.assertEquals(author, document.getDocumentInfo().getAuthor());
+        document.close();
+    }
+
     public void encryptWithPassword(String filename, int encryptionType, int compression) throws XMPException, IOException, InterruptedException {
         String outFileName = destinationFolder + filename;
         int permissions = EncryptionConstants.ALLOW_SCREENREADERS;
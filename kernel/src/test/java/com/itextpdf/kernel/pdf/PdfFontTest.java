@@ -26,11 +26,20 @@ import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -1380,5 +1389,92 @@ public class PdfFontTest extends ExtendedITextTest {
         Assert.assertTrue(list2.size() == 5);
     }
 
+    @Test
+    public void subsetReuseTest() throws IOException {
+        TrueTypeFont ttf = (TrueTypeFont) FontProgramFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf");
+        Set<Integer> helloGlyphs = getGlyphCodes(ttf, "Hello world");
+        byte[] hello = ttf.getSubset(new HashSet<>(helloGlyphs), true);
+        Assert.assertSame(hello, ttf.getSubset(new HashSet<>(helloGlyphs), true));
+        byte[] helloWor = ttf.getSubset(getGlyphCodes(ttf, "Hello wor"), true);
+        Assert.assertNotSame(hello, helloWor);
+        ttf.setSupersetSubsetsReused(true);
+        // the smallest subset, which covers the requested glyphs and is not much larger, is reused
+        Assert.assertSame(helloWor, ttf.getSubset(getGlyphCodes(ttf, "Hello wo"), true));
+        Assert.assertSame(hello, ttf.getSubset(getGlyphCodes(ttf, "Hello wd"), true));
+        Assert.assertNotSame(hello, ttf.getSubset(getGlyphCodes(ttf, "H"), true));
+        Assert.assertNotSame(hello, ttf.getSubset(getGlyphCodes(ttf, "Hello world!"), true));
+        Assert.assertNotSame(hello, ttf.getSubset(new HashSet<>(helloGlyphs), false));
+
+        TrueTypeFont otf = (TrueTypeFont) FontProgramFactory.createFont(fontsFolder + "Puritan2.otf");
+        Assert.assertTrue(otf.isCff());
+        otf.setSupersetSubsetsReused(true);
+        byte[] cffHello = otf.getCffSubset(getGlyphCodes(otf, "Hello world"));
+        Assert.assertSame(cffHello, otf.getCffSubset(getGlyphCodes(otf, "world")));
+        Assert.assertNotSame(cffHello, otf.getCffSubset(getGlyphCodes(otf, "Hello world!")));
+
+        // the documents created with the same font program embed the same subset
+        byte[][] fontFiles = new byte[2][];
+        for (int i = 0; i < fontFiles.length; i++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+            PdfFont font = PdfFontFactory.createFont(ttf, PdfEncodings.IDENTITY_H);
+            new PdfCanvas(pdfDoc.addNewPage()).beginText().setFontAndSize(font, 12).showText(i == 0 ? "Hello world" : "world").endText();
+            pdfDoc.close();
+
+            pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+            PdfDictionary fontDict = pdfDoc.getPage(1).getResources().getResource(PdfName.Font).getAsDictionary(new PdfName("F1"));
+            fontFiles[i] = fontDict.getAsArray(PdfName.DescendantFonts).getAsDictionary(0)
+                    .getAsDictionary(PdfName.FontDescriptor).getAsStream(PdfName.FontFile2).getBytes();
+            pdfDoc.close();
+        }
+        Assert.assertArrayEquals(fontFiles[0], fontFiles[1]);
+    }
+
+    private static Set<Integer> getGlyphCodes(TrueTypeFont font, String text) {
+        Set<Integer> glyphs = new LinkedHashSet<>();
+        for (int i = 0; i < text.length(); i++) {
+            glyphs.add(font.getGlyph(text.charAt(i)).getCode());
+        }
+        return glyphs;
+    }
+
+    @Test
+    public void openTypeTablesReadOnFirstUseTest() throws Exception {
+        String fontPath = fontsFolder + "LobsterTwo-Regular.ttf";
+        TrueTypeFont expected = (TrueTypeFont) FontProgramFactory.createFont(fontPath);
+        final int expectedKerning = expected.getKerning(expected.getGlyph('T'), expected.getGlyph('o'));
+        final int expectedLookupsCount = expected.getGsubTable().getFeatureRecords().size();
+        Assert.assertNotEquals(0, expectedKerning);
+        Assert.assertNotNull(expected.getGposTable());
+
+        // the tables of the shared font program are read concurrently, on the first use
+        final TrueTypeFont font = (TrueTypeFont) FontProgramFactory.createFont(fontPath);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<Object[]>() {
+                    @Override
+                    public Object[] call() {
+                        int kerning = font.getKerning(font.getGlyph('T'), font.getGlyph('o'));
+                        return new Object[] {kerning, font.getGsubTable(), font.getGposTable(), font.getGdefTable()};
+                    }
+                }));
+            }
+            Object[] first = futures.get(0).get();
+            for (Future<Object[]> future : futures) {
+                Object[] result = future.get();
+                Assert.assertEquals(expectedKerning, result[0]);
+                for (int i = 1; i < result.length; i++) {
+                    Assert.assertNotNull(result[i]);
+                    Assert.assertSame(first[i], result[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(expectedLookupsCount, font.getGsubTable().getFeatureRecords().size());
+    }
+
 
 }
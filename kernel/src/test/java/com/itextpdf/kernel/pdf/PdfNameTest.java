@@ -1,8 +1,17 @@
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
 import com.itextpdf.test.ITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -20,4 +29,64 @@ public class PdfNameTest extends ITextTest {
         Assert.assertEquals(str2, createStringByEscaped(name2.getInternalContent()));
     }
 
+    @Test
+    public void namePoolTest() {
+        PdfNamePool pool = new PdfNamePool(2);
+        byte[] buffer = ByteUtils.getIsoBytes("/Type /F1 /F1 /Im3 /GS0 /GS0");
+        Assert.assertSame(PdfName.Type, pool.get(buffer, 1, 4));
+
+        PdfName f1 = pool.get(buffer, 7, 2);
+        Assert.assertEquals(new PdfName("F1"), f1);
+        Assert.assertSame(f1, pool.get(buffer, 11, 2));
+        Assert.assertSame(f1, pool.get(ByteUtils.getIsoBytes("F1"), 0, 2));
+        Assert.assertEquals(new PdfName("Im3"), pool.get(buffer, 15, 3));
+        Assert.assertEquals(2, pool.size());
+
+        PdfName gs0 = pool.get(buffer, 20, 3);
+        Assert.assertEquals(new PdfName("GS0"), gs0);
+        Assert.assertNotSame(gs0, pool.get(buffer, 25, 3));
+        Assert.assertEquals(2, pool.size());
+    }
+
+    @Test
+    public void canvasParserEscapedNamesTest() throws IOException {
+        byte[] content = ByteUtils.getIsoBytes("<</A#42 /D#45 /F1 /F#31>>");
+        PdfCanvasParser parser = new PdfCanvasParser(new PdfTokenizer(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().createSource(content))));
+        parser.nextValidToken();
+        PdfDictionary dic = parser.readDictionary();
+
+        // the escapes in the dictionary keys are kept, while the other names are decoded
+        Assert.assertEquals(2, dic.size());
+        Assert.assertEquals("DE", dic.getAsName(new PdfName("A#42")).getValue());
+        Assert.assertEquals("F1", dic.getAsName(new PdfName("F1")).getValue());
+    }
+
+    @Test
+    public void readerInternsNamesTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        for (int i = 0; i < 2; i++) {
+            pdfDoc.addNewPage().getPdfObject().put(new PdfName("Custom"), new PdfName("CustomValue"));
+        }
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        PdfDictionary page1 = pdfDoc.getPage(1).getPdfObject();
+        PdfDictionary page2 = pdfDoc.getPage(2).getPdfObject();
+        Assert.assertSame(PdfName.Page, page1.getAsName(PdfName.Type));
+        Assert.assertSame(page1.getAsName(new PdfName("Custom")), page2.getAsName(new PdfName("Custom")));
+        Assert.assertSame(getKey(page1, "Custom"), getKey(page2, "Custom"));
+        Assert.assertSame(PdfName.Type, getKey(page1, "Type"));
+        pdfDoc.close();
+    }
+
+    private static PdfName getKey(PdfDictionary dictionary, String value) {
+        for (PdfName key : dictionary.keySet()) {
+            if (key.getValue().equals(value)) {
+                return key;
+            }
+        }
+        return null;
+    }
 }
@@ -46,6 +46,43 @@ public class PdfPagesTest extends ExtendedITextTest{
         verifyPagesOrder(destinationFolder + filename, pageCount);
     }
 
+    @Test
+    public void streamingPagesTreeTest() throws IOException {
+        String filename = "streamingPagesTreeTest.pdf";
+        int pageCount = 1234;
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(destinationFolder + filename,
+                new WriterProperties().useStreamingPageTree()));
+
+        for (int i = 0; i < pageCount; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            page.getPdfObject().put(PageNum, new PdfNumber(i + 1));
+            page.flush();
+        }
+        // the last leaf is not full, so its pages are still available
+        Assert.assertEquals(pageCount - 4, pdfDoc.getCatalog().getPageTree().getNumberOfReleasedPages());
+        Assert.assertEquals(pageCount, pdfDoc.getNumberOfPages());
+        Assert.assertTrue(pdfDoc.getPage(pageCount).isFlushed());
+        boolean error = false;
+        try {
+            pdfDoc.getPage(1);
+        } catch (PdfException e) {
+            error = true;
+        }
+        Assert.assertTrue(error);
+
+        PdfPage lastPage = pdfDoc.addNewPage();
+        lastPage.getPdfObject().put(PageNum, new PdfNumber(pageCount + 1));
+        pdfDoc.close();
+        verifyPagesOrder(destinationFolder + filename, pageCount + 1);
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(destinationFolder + filename));
+        PdfDictionary root = resultDoc.getCatalog().getPdfObject().getAsDictionary(PdfName.Pages);
+        Assert.assertEquals(pageCount + 1, root.getAsNumber(PdfName.Count).intValue());
+        Assert.assertEquals(pageCount + 1, countPages(root));
+        resultDoc.close();
+    }
+
 //    @Test
 //    public void simpleClonePagesTest() throws IOException {
 //        String filename = "simpleClonePagesTest.pdf";
@@ -270,6 +307,21 @@ public class PdfPagesTest extends ExtendedITextTest{
         pdfDocument.close();
     }
 
+    int countPages(PdfDictionary pages) {
+        PdfArray kids = pages.getAsArray(PdfName.Kids);
+        if (kids == null) {
+            return 1;
+        }
+        int count = 0;
+        for (int i = 0; i < kids.size(); i++) {
+            PdfDictionary kid = kids.getAsDictionary(i);
+            Assert.assertEquals(pages, kid.getAsDictionary(PdfName.Parent));
+            count += countPages(kid);
+        }
+        Assert.assertEquals(count, pages.getAsNumber(PdfName.Count).intValue());
+        return count;
+    }
+
     int verifyIntegrity(PdfPagesTree pagesTree) {
         List<PdfPages> parents = pagesTree.getParents();
         int from = 0;
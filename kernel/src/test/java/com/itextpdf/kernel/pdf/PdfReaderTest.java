@@ -3,7 +3,12 @@ package com.itextpdf.kernel.pdf;
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.source.DeflaterOutputStream;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.log.Metric;
+import com.itextpdf.kernel.log.MetricsAccumulator;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
@@ -15,11 +20,21 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Category(IntegrationTest.class)
 public class PdfReaderTest extends ExtendedITextTest{
@@ -133,6 +148,289 @@ public class PdfReaderTest extends ExtendedITextTest{
         document.close();
     }
 
+    @Test
+    public void prefetchStreamsTest() throws IOException {
+        String filename = sourceFolder + "100PagesDocumentWithFlateFilter.pdf";
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        PdfReader reader = new PdfReader(filename, new ReaderProperties().setStreamDecodingExecutor(executor));
+        PdfDocument document = new PdfDocument(reader);
+
+        List<PdfStream> contentStreams = new ArrayList<>();
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            contentStreams.add(document.getPage(i).getFirstContentStream());
+        }
+        reader.prefetchStreams(contentStreams);
+
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            byte[] content = document.getPage(i).getFirstContentStream().getBytes();
+            Assert.assertEquals("Page content " + i, getFlateFilterPageContent(i), new String(content));
+        }
+
+        document.close();
+        executor.shutdown();
+    }
+
+    @Test
+    public void concurrentReadingTest() throws Exception {
+        String filename = sourceFolder + "100PagesDocumentWithFlateFilter.pdf";
+        PdfReader reader = new PdfReader(filename, new ReaderProperties().useConcurrentReading());
+        final PdfDocument document = new PdfDocument(reader);
+
+        final int threadsCount = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < threadsCount; i++) {
+            final int firstPage = i + 1;
+            results.add(executor.submit(new Callable<List<String>>() {
+                @Override
+                public List<String> call() throws Exception {
+                    List<String> texts = new ArrayList<>();
+                    for (int pageNum = firstPage; pageNum <= document.getNumberOfPages(); pageNum += threadsCount) {
+                        PdfPage page = document.getPage(pageNum);
+                        texts.add(new String(page.getContentBytes()) + PdfTextExtractor.getTextFromPage(page));
+                    }
+                    return texts;
+                }
+            }));
+        }
+
+        for (int i = 0; i < threadsCount; i++) {
+            List<String> texts = results.get(i).get();
+            for (int j = 0; j < texts.size(); j++) {
+                int pageNum = i + 1 + j * threadsCount;
+                Assert.assertEquals("Page content " + pageNum, getFlateFilterPageContent(pageNum) + pageNum, texts.get(j));
+            }
+        }
+        executor.shutdown();
+        document.close();
+    }
+
+    @Test
+    public void concurrentReadingSameInstanceTest() throws Exception {
+        String filename = sourceFolder + "100PagesDocumentWithFlateFilter.pdf";
+        final int threadsCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+        try {
+            for (int round = 0; round < 100; round++) {
+                final PdfDocument document = new PdfDocument(new PdfReader(filename, new ReaderProperties().useConcurrentReading()));
+                final CyclicBarrier start = new CyclicBarrier(threadsCount);
+                List<Future<PdfObject[]>> results = new ArrayList<>();
+                for (int i = 0; i < threadsCount; i++) {
+                    results.add(executor.submit(new Callable<PdfObject[]>() {
+                        @Override
+                        public PdfObject[] call() throws Exception {
+                            PdfObject[] objects = new PdfObject[document.getNumberOfPdfObjects()];
+                            // all the threads resolve the same references at once
+                            start.await();
+                            for (int objNum = 1; objNum < objects.length; objNum++) {
+                                objects[objNum] = document.getPdfObject(objNum);
+                            }
+                            return objects;
+                        }
+                    }));
+                }
+                PdfObject[] expected = results.get(0).get();
+                for (int i = 1; i < threadsCount; i++) {
+                    PdfObject[] objects = results.get(i).get();
+                    for (int objNum = 1; objNum < objects.length; objNum++) {
+                        Assert.assertSame("Object " + objNum, expected[objNum], objects[objNum]);
+                    }
+                }
+                document.close();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void readStreamTest() throws IOException {
+        String filename = sourceFolder + "styledLineArts_Redacted.pdf";
+        PdfReader reader = new PdfReader(filename);
+        PdfDocument document = new PdfDocument(reader);
+
+        int predictorStreamsCount = 0;
+        for (int i = 1; i < document.getNumberOfPdfObjects(); i++) {
+            PdfObject object = document.getPdfObject(i);
+            if (object == null || !object.isStream()) {
+                continue;
+            }
+            PdfStream stream = (PdfStream) object;
+            for (boolean decode : new boolean[] {false, true}) {
+                InputStream is = reader.readStream(stream, decode);
+                byte[] bytes;
+                try {
+                    bytes = StreamUtil.inputStreamToArray(is);
+                } finally {
+                    is.close();
+                }
+                Assert.assertArrayEquals("Stream " + i, reader.readStreamBytes(stream, decode), bytes);
+            }
+            PdfDictionary decodeParams = stream.getAsDictionary(PdfName.DecodeParms);
+            if (decodeParams != null && decodeParams.containsKey(PdfName.Predictor)) {
+                predictorStreamsCount++;
+            }
+        }
+        Assert.assertTrue(predictorStreamsCount > 0);
+
+        document.close();
+    }
+
+    @Test
+    public void readCorruptedStreamTest() throws IOException {
+        String filename = destinationFolder + "readCorruptedStream.pdf";
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            content.append(i % 500).append(' ').append(i % 300).append(" m ").append(i % 200).append(" 10 l S\n");
+        }
+        ByteArrayOutputStream compressedContent = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(compressedContent);
+        zip.write(content.toString().getBytes());
+        zip.close();
+        byte[] compressed = compressedContent.toByteArray();
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+        byte[] damaged = compressed.clone();
+        for (int i = compressed.length / 3; i < compressed.length / 3 + 16; i++) {
+            damaged[i] = (byte) 0xff;
+        }
+
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(filename));
+        for (byte[] data : new byte[][] {truncated, damaged}) {
+            PdfStream stream = new PdfStream(data);
+            stream.put(PdfName.Filter, PdfName.FlateDecode);
+            pdfDocument.addNewPage().getPdfObject().put(PdfName.Contents, stream);
+        }
+        pdfDocument.close();
+
+        PdfReader reader = new PdfReader(filename);
+        PdfDocument document = new PdfDocument(reader);
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            PdfStream stream = document.getPage(i).getContentStream(0);
+            InputStream is = reader.readStream(stream, true);
+            byte[] bytes;
+            try {
+                bytes = StreamUtil.inputStreamToArray(is);
+            } finally {
+                is.close();
+            }
+            // the recovered part of the corrupted stream is the same as with array decoding
+            byte[] expected = reader.readStreamBytes(stream, true);
+            Assert.assertTrue(expected.length > 0);
+            Assert.assertArrayEquals("Page " + i, expected, bytes);
+        }
+        document.close();
+    }
+
+    @Test
+    public void readStreamByteBufferTest() throws IOException {
+        String filename = sourceFolder + "100PagesDocumentWithFlateFilter.pdf";
+        PdfReader reader = new PdfReader(filename);
+        PdfDocument document = new PdfDocument(reader);
+
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            PdfStream stream = document.getPage(i).getContentStream(0);
+            java.nio.ByteBuffer buffer = reader.readStreamByteBuffer(stream);
+            // the file is memory mapped, so the buffer is a slice of the mapping
+            Assert.assertTrue(buffer.isDirect());
+            Assert.assertTrue(buffer.isReadOnly());
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            Assert.assertArrayEquals(reader.readStreamBytesRaw(stream), bytes);
+            String content = new String(stream.getBytes());
+            Assert.assertTrue(content.contains("(" + i + ")"));
+        }
+
+        document.close();
+    }
+
+    @Test
+    public void openDocWithLazyObjectStreamDecoding() throws IOException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompression.pdf";
+        ReaderProperties properties = new ReaderProperties()
+                .useLazyObjectStreamDecoding()
+                .setObjectStreamCacheSize(1024);
+        MetricsAccumulator metrics = new MetricsAccumulator();
+        properties.setMetricsListener(metrics);
+        PdfReader reader = new PdfReader(filename, properties);
+        PdfDocument document = new PdfDocument(reader);
+        int pageCount = document.getNumberOfPages();
+        Assert.assertEquals(1000, pageCount);
+
+        // find an object stream, none of whose objects has been read while opening the document
+        PdfXrefTable xref = document.getXref();
+        Map<Integer, List<PdfIndirectReference>> unreadObjects = new HashMap<>();
+        Set<Integer> touchedStreams = new HashSet<>();
+        for (int i = 1; i < xref.size(); i++) {
+            PdfIndirectReference ref = xref.get(i);
+            if (ref == null || ref.getObjStreamNumber() == 0) {
+                continue;
+            }
+            if (ref.refersTo != null) {
+                touchedStreams.add(ref.getObjStreamNumber());
+            } else {
+                if (!unreadObjects.containsKey(ref.getObjStreamNumber())) {
+                    unreadObjects.put(ref.getObjStreamNumber(), new ArrayList<PdfIndirectReference>());
+                }
+                unreadObjects.get(ref.getObjStreamNumber()).add(ref);
+            }
+        }
+        List<PdfIndirectReference> untouchedStreamObjects = null;
+        for (Map.Entry<Integer, List<PdfIndirectReference>> entry : unreadObjects.entrySet()) {
+            if (!touchedStreams.contains(entry.getKey()) && entry.getValue().size() > 1) {
+                untouchedStreamObjects = entry.getValue();
+                break;
+            }
+        }
+        Assert.assertNotNull("Expected object stream, which has not been decoded yet", untouchedStreamObjects);
+
+        // nothing is decoded until the first object of the stream is accessed, then only that object is read
+        long decodedStreams = metrics.get(Metric.OBJECT_STREAMS_DECODED);
+        Assert.assertNotNull(untouchedStreamObjects.get(0).getRefersTo());
+        Assert.assertEquals(decodedStreams + 1, metrics.get(Metric.OBJECT_STREAMS_DECODED));
+        for (int i = 1; i < untouchedStreamObjects.size(); i++) {
+            Assert.assertNull(untouchedStreamObjects.get(i).refersTo);
+        }
+
+        Random rnd = new Random(42);
+        for (int i = 1; i < pageCount + 1; i++) {
+            int pageNum = rnd.nextInt(pageCount) + 1;
+            PdfPage page = document.getPage(pageNum);
+            String content = new String(page.getContentStream(0).getBytes());
+            Assert.assertTrue(content.contains("(" + pageNum + ")"));
+        }
+
+        Assert.assertFalse("No need in rebuildXref()", reader.hasRebuiltXref());
+        document.close();
+    }
+
+    @Test
+    public void xrefEntriesCreatedLazilyTest() throws IOException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompression.pdf";
+        PdfReader reader = new PdfReader(filename);
+        PdfDocument document = new PdfDocument(reader);
+        PdfXrefTable xref = document.getXref();
+
+        int created = 0;
+        for (int i = 1; i < xref.size(); i++) {
+            Assert.assertTrue(xref.contains(i));
+            if (xref.getIfCreated(i) != null) {
+                created++;
+            }
+        }
+        Assert.assertTrue("Only the objects required to open the document are expected", created < xref.size() / 10);
+
+        PdfPage page = document.getPage(500);
+        String content = new String(page.getContentStream(0).getBytes());
+        Assert.assertTrue(content.contains("(500)"));
+        PdfIndirectReference reference = page.getPdfObject().getIndirectReference();
+        Assert.assertSame(reference, xref.getIfCreated(reference.getObjNumber()));
+        Assert.assertSame(reference, xref.get(reference.getObjNumber()));
+        Assert.assertTrue(reference.getObjStreamNumber() > 0);
+
+        Assert.assertFalse("No need in rebuildXref()", reader.hasRebuiltXref());
+        document.close();
+    }
+
     @Test
     public void primitivesRead() throws IOException {
         String filename = destinationFolder + "primitivesRead.pdf";
@@ -1500,4 +1798,17 @@ public class PdfReaderTest extends ExtendedITextTest{
         tmpMap.put(new PdfName("b"), new PdfName("c"));
         return new PdfDictionary(tmpMap);
     }
+
+    private static String getFlateFilterPageContent(int pageNumber) {
+        String contentTemplate = "q\n" +
+                "BT\n" +
+                "36 700 Td\n" +
+                "/F1 72 Tf\n" +
+                "({0})Tj\n" +
+                "ET\n" +
+                "Q\n" +
+                "100 500 100 100 re\n" +
+                "f\n";
+        return MessageFormat.format(contentTemplate, pageNumber);
+    }
 }
@@ -2,6 +2,7 @@ package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.util.DateTimeUtil;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.xmp.XMPException;
 import com.itextpdf.kernel.xmp.XMPMetaFactory;
 import com.itextpdf.test.ExtendedITextTest;
@@ -12,6 +13,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Calendar;
 
@@ -1141,6 +1143,47 @@ public class PdfStampingTest extends ExtendedITextTest {
         pdfDocument.close();
     }
 
+    @Test
+    public void stampingAppendModifiedObjectsOnly() throws IOException {
+        String filename1 = destinationFolder + "stampingAppendModifiedObjectsOnly_1.pdf";
+        String filename2 = destinationFolder + "stampingAppendModifiedObjectsOnly_2.pdf";
+        int pageCount = 100;
+
+        PdfDocument pdfDoc1 = new PdfDocument(new PdfWriter(filename1, new WriterProperties().setFullCompressionMode(false)));
+        for (int i = 1; i <= pageCount; i++) {
+            PdfPage page = pdfDoc1.addNewPage();
+            page.getContentStream(0).getOutputStream().write(ByteUtils.getIsoBytes("%page " + i + "\n"));
+            page.flush();
+        }
+        pdfDoc1.close();
+
+        PdfDocument pdfDoc2 = new PdfDocument(new PdfReader(filename1),
+                new PdfWriter(filename2, new WriterProperties().setFullCompressionMode(false)), new StampingProperties().useAppendMode());
+        PdfPage page = pdfDoc2.getPage(50);
+        int pageObjNr = page.getPdfObject().getIndirectReference().getObjNumber();
+        page.setRotation(90);
+        page.getPdfObject().put(new PdfName("PieceInfo"), new PdfDictionary().makeIndirect(pdfDoc2));
+        page.setModified();
+        pdfDoc2.close();
+
+        byte[] original = StreamUtil.inputStreamToArray(new FileInputStream(filename1));
+        byte[] updated = StreamUtil.inputStreamToArray(new FileInputStream(filename2));
+        String update = new String(updated, original.length, updated.length - original.length, "ISO-8859-1");
+        // only the page and the new dictionary are written, the rest of the objects are taken from the original file
+        assertTrue(update.contains(pageObjNr + " 0 obj"));
+        assertTrue(update.contains("xref\n" + pageObjNr + " 1\n"));
+        assertEquals(2, update.split(" 0 obj").length - 1);
+        assertEquals(2, update.split(" n \n").length - 1);
+
+        PdfDocument pdfDoc3 = new PdfDocument(new PdfReader(filename2));
+        assertEquals(pageCount, pdfDoc3.getNumberOfPages());
+        assertEquals(90, pdfDoc3.getPage(50).getRotation());
+        assertNotNull(pdfDoc3.getPage(50).getPdfObject().getAsDictionary(new PdfName("PieceInfo")));
+        assertEquals(0, pdfDoc3.getPage(51).getRotation());
+        assertEquals("%page 100\n", new String(pdfDoc3.getPage(100).getContentBytes()));
+        pdfDoc3.close();
+    }
+
     @Test
     public void stampingVersionTest01() throws IOException {
         // By default the version of the output file should be the same as the original one
@@ -8,6 +8,7 @@ import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.annot.PdfLinkAnnotation;
 import com.itextpdf.kernel.pdf.canvas.CanvasTag;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.tagging.PdfMcr;
 import com.itextpdf.kernel.pdf.tagging.PdfMcrDictionary;
 import com.itextpdf.kernel.pdf.tagging.PdfMcrNumber;
 import com.itextpdf.kernel.pdf.tagging.PdfObjRef;
@@ -22,6 +23,9 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.junit.Assert;
@@ -32,6 +36,8 @@ import org.xml.sax.SAXException;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -589,6 +595,164 @@ public class PdfStructElemTest extends ExtendedITextTest {
         }
     }
 
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.TAG_STRUCTURE_INIT_FAILED)
+    })
+    public void corruptedTagStructureLazyStampingTest() throws IOException {
+        PdfDocument document = new PdfDocument(new PdfReader(sourceFolder + "directStructElem01.pdf",
+                new ReaderProperties().useLazyTagStructure()), new PdfWriter(new ByteArrayOutputStream()));
+        // the corruption is found only when the tags of the page are read on closing
+        assertTrue(document.isTagged());
+        document.close();
+        assertFalse(document.isTagged());
+    }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.TAG_STRUCTURE_INIT_FAILED),
+            @LogMessage(messageTemplate = LogMessageConstant.NOT_TAGGED_PAGES_IN_TAGGED_DOCUMENT)
+    })
+    public void corruptedTagStructureLazyCopyingTest() throws IOException {
+        PdfDocument document = new PdfDocument(new PdfReader(sourceFolder + "directStructElem01.pdf",
+                new ReaderProperties().useLazyTagStructure()));
+        assertTrue(document.isTagged());
+        PdfDocument docToCopyTo = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        docToCopyTo.setTagged();
+        document.copyPagesTo(1, 1, docToCopyTo);
+        assertFalse(document.isTagged());
+        assertEquals(1, docToCopyTo.getNumberOfPages());
+        docToCopyTo.close();
+        document.close();
+    }
+
+    @Test
+    public void streamingTagStructureTest() throws Exception {
+        String outPdf = destinationFolder + "streamingTagStructureTest.pdf";
+        String cmpPdf = destinationFolder + "cmp_streamingTagStructureTest.pdf";
+        int pageCount = 100;
+        createTaggedPagesFlushedOneByOne(new PdfWriter(outPdf, new WriterProperties().useStreamingTagStructure()), pageCount);
+        createTaggedPagesFlushedOneByOne(new PdfWriter(cmpPdf), pageCount);
+
+        PdfDocument document = new PdfDocument(new PdfReader(outPdf));
+        PdfDictionary parentTree = document.getStructTreeRoot().getPdfObject().getAsDictionary(PdfName.ParentTree);
+        assertEquals(3, parentTree.getAsArray(PdfName.Kids).size());
+        assertEquals(pageCount, new PdfNumTree(document.getCatalog(), PdfName.ParentTree).getNumbers().size());
+        assertEquals(pageCount, document.getStructTreeRoot().getParentTreeNextKey());
+        document.close();
+
+        assertNull(new CompareTool().compareTagStructures(outPdf, cmpPdf));
+    }
+
+    @Test
+    public void streamingPageTreeTaggedTest() throws Exception {
+        String outPdf = destinationFolder + "streamingPageTreeTaggedTest.pdf";
+        String cmpPdf = destinationFolder + "cmp_streamingPageTreeTaggedTest.pdf";
+        int pageCount = 100;
+        createTaggedPagesFlushedOneByOne(new PdfWriter(outPdf, new WriterProperties().useStreamingPageTree()), pageCount);
+        createTaggedPagesFlushedOneByOne(new PdfWriter(cmpPdf), pageCount);
+
+        PdfDocument document = new PdfDocument(new PdfReader(outPdf));
+        assertEquals(pageCount, document.getNumberOfPages());
+        assertEquals(pageCount, new PdfNumTree(document.getCatalog(), PdfName.ParentTree).getNumbers().size());
+        document.close();
+
+        assertNull(new CompareTool().compareTagStructures(outPdf, cmpPdf));
+    }
+
+    @Test
+    public void parentTreeEntriesLookupTest() throws IOException {
+        PdfDocument document = new PdfDocument(new PdfReader(sourceFolder + "iphone_user_guide.pdf",
+                new ReaderProperties().useLazyTagStructure()));
+        PdfNumTree parentTree = new PdfNumTree(document.getCatalog(), PdfName.ParentTree);
+        assertNotNull(document.getStructTreeRoot().getPdfObject().getAsDictionary(PdfName.ParentTree).getAsArray(PdfName.Kids));
+
+        int maxKey = -1;
+        for (Map.Entry<Integer, PdfObject> entry : new PdfNumTree(document.getCatalog(), PdfName.ParentTree).getNumbers().entrySet()) {
+            assertEquals(entry.getValue(), parentTree.getEntry(entry.getKey()));
+            maxKey = Math.max(maxKey, entry.getKey());
+        }
+        assertEquals(maxKey, parentTree.getMaxKey());
+        assertNull(parentTree.getEntry(maxKey + 1));
+        assertEquals(maxKey + 1, document.getStructTreeRoot().getParentTreeNextKey());
+
+        Collection<PdfMcr> pageMcrs = document.getStructTreeRoot().getPageMarkedContentReferences(document.getPage(5));
+        assertFalse(pageMcrs.isEmpty());
+        for (PdfMcr mcr : pageMcrs) {
+            assertEquals(document.getPage(5).getPdfObject(), mcr.getPageObject());
+        }
+        document.close();
+    }
+
+    @Test
+    public void parentTreeMaxKeyTest() throws IOException {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        document.addNewPage();
+        PdfDictionary parentTree = new PdfDictionary();
+        PdfDictionary structTreeRoot = new PdfDictionary();
+        structTreeRoot.put(PdfName.ParentTree, parentTree);
+        document.getCatalog().getPdfObject().put(PdfName.StructTreeRoot, structTreeRoot);
+        PdfNumTree tree = new PdfNumTree(document.getCatalog(), PdfName.ParentTree);
+
+        PdfDictionary left = createNumTreeLeaf(new int[] {0, 5}, 0, 5);
+        PdfDictionary right = createNumTreeLeaf(new int[] {6, 9}, 6, 9);
+        parentTree.put(PdfName.Kids, new PdfArray(Arrays.<PdfObject>asList(left, right)));
+        assertEquals(9, tree.getMaxKey());
+
+        // wrong limits of the rightmost leaf
+        right.put(PdfName.Limits, new PdfArray(new int[] {6, 7}));
+        assertEquals(9, tree.getMaxKey());
+
+        // missing limits of the rightmost leaf
+        right.remove(PdfName.Limits);
+        assertEquals(9, tree.getMaxKey());
+
+        // the preceding leaf contains greater key
+        right.put(PdfName.Limits, new PdfArray(new int[] {6, 9}));
+        left.put(PdfName.Nums, createNumTreeLeaf(null, 0, 12).getAsArray(PdfName.Nums));
+        left.put(PdfName.Limits, new PdfArray(new int[] {0, 12}));
+        assertEquals(12, tree.getMaxKey());
+
+        document.close();
+    }
+
+    private static PdfDictionary createNumTreeLeaf(int[] limits, int... keys) {
+        PdfArray nums = new PdfArray();
+        for (int key : keys) {
+            nums.add(new PdfNumber(key));
+            nums.add(new PdfDictionary());
+        }
+        PdfDictionary leaf = new PdfDictionary();
+        leaf.put(PdfName.Nums, nums);
+        if (limits != null) {
+            leaf.put(PdfName.Limits, new PdfArray(limits));
+        }
+        return leaf;
+    }
+
+    private void createTaggedPagesFlushedOneByOne(PdfWriter writer, int pageCount) throws IOException {
+        PdfDocument document = new PdfDocument(writer);
+        document.setTagged();
+        PdfStructElem doc = document.getStructTreeRoot().addKid(new PdfStructElem(document, PdfName.Document));
+        for (int i = 0; i < pageCount; ++i) {
+            PdfPage page = document.addNewPage();
+            PdfCanvas canvas = new PdfCanvas(page);
+            canvas.beginText();
+            canvas.setFontAndSize(PdfFontFactory.createFont(FontConstants.COURIER), 24);
+            canvas.setTextMatrix(1, 0, 0, 1, 32, 512);
+            PdfStructElem paragraph = doc.addKid(new PdfStructElem(document, PdfName.P));
+            PdfStructElem span = paragraph.addKid(new PdfStructElem(document, PdfName.Span, page));
+            canvas.openTag(new CanvasTag(span.addKid(new PdfMcrNumber(page, span))));
+            canvas.showText("Page " + (i + 1));
+            canvas.closeTag();
+            canvas.endText();
+            canvas.release();
+            page.flush();
+            assertTrue(paragraph.isFlushed());
+        }
+        document.close();
+    }
+
     private void compareResult(String outFileName, String cmpFileName, String diffNamePrefix)
             throws IOException, InterruptedException, ParserConfigurationException, SAXException {
         CompareTool compareTool = new CompareTool();
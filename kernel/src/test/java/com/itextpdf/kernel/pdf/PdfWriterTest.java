@@ -2,7 +2,14 @@ package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.util.DateTimeUtil;
+import com.itextpdf.io.font.FontConstants;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.log.Metric;
+import com.itextpdf.kernel.log.MetricsAccumulator;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.Assert;
@@ -11,11 +18,17 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Category(IntegrationTest.class)
 public class PdfWriterTest extends ExtendedITextTest {
@@ -584,4 +597,230 @@ public class PdfWriterTest extends ExtendedITextTest {
         Assert.assertArrayEquals("Stream by InputStream", streamContent.getBytes(), pdfStream.getBytes());
         document.close();
     }
+
+    @Test
+    public void compressStreamsConcurrentlyTest() throws IOException {
+        String filename = destinationFolder + "compressStreamsConcurrently.pdf";
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        byte[][] contents = new byte[10][];
+        try {
+            PdfDocument document = new PdfDocument(new PdfWriter(filename, new WriterProperties().setCompressionExecutor(executor)));
+            for (int i = 0; i < contents.length; i++) {
+                StringBuilder content = new StringBuilder();
+                // the first page content is large enough to be split into blocks
+                int operatorsNumber = i == 0 ? 40000 : 100;
+                for (int j = 0; j < operatorsNumber; j++) {
+                    content.append(j % 500).append(' ').append(i).append(" m ").append(j % 300).append(" 10 l S\n");
+                }
+                contents[i] = content.toString().getBytes();
+                PdfPage page = document.addNewPage();
+                page.getFirstContentStream().getOutputStream().write(contents[i]);
+                if (i % 2 == 1) {
+                    page.newContentStreamAfter().getOutputStream().write(contents[i]);
+                }
+            }
+            document.close();
+        } finally {
+            executor.shutdown();
+        }
+
+        PdfDocument document = new PdfDocument(new PdfReader(filename));
+        for (int i = 0; i < contents.length; i++) {
+            PdfPage page = document.getPage(i + 1);
+            Assert.assertArrayEquals(contents[i], page.getFirstContentStream().getBytes());
+            if (i % 2 == 1) {
+                Assert.assertEquals(2, page.getContentStreamCount());
+                Assert.assertArrayEquals(contents[i], page.getContentStream(1).getBytes());
+            }
+        }
+        document.close();
+    }
+
+    @Test
+    public void precompressedStreamModifiedWithSameLengthTest() throws IOException {
+        String filename = destinationFolder + "precompressedStreamModifiedWithSameLength.pdf";
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            PdfDocument document = new PdfDocument(new PdfWriter(filename, new WriterProperties().setCompressionExecutor(executor)));
+            PdfStream contentStream = document.addNewPage().getFirstContentStream();
+            contentStream.setData("10 10 m 20 20 l S".getBytes());
+            document.getWriter().precompressStreams(Collections.singletonList(contentStream));
+            contentStream.setData("30 30 m 40 40 l S".getBytes());
+            document.close();
+        } finally {
+            executor.shutdown();
+        }
+
+        PdfDocument document = new PdfDocument(new PdfReader(filename));
+        Assert.assertArrayEquals("30 30 m 40 40 l S".getBytes(), document.getPage(1).getFirstContentStream().getBytes());
+        document.close();
+    }
+
+    @Test(timeout = 60000)
+    public void compressStreamsOnCompressionExecutorThreadTest() throws Exception {
+        final String filename = destinationFolder + "compressStreamsOnCompressionExecutorThread.pdf";
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final byte[] content = "10 10 m 20 20 l S".getBytes();
+        try {
+            // the only thread of the executor writes the document, so precompression tasks can never be started
+            executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws IOException {
+                    PdfDocument document = new PdfDocument(new PdfWriter(filename, new WriterProperties().setCompressionExecutor(executor)));
+                    for (int i = 0; i < 10; i++) {
+                        document.addNewPage().getFirstContentStream().setData(content);
+                    }
+                    document.close();
+                    return null;
+                }
+            }).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        PdfDocument document = new PdfDocument(new PdfReader(filename));
+        Assert.assertEquals(10, document.getNumberOfPages());
+        Assert.assertArrayEquals(content, document.getPage(10).getFirstContentStream().getBytes());
+        document.close();
+    }
+
+    @Test
+    public void releasedReferencesAreNotRestoredTest() throws IOException {
+        String filename = destinationFolder + "releasedReferencesAreNotRestored.pdf";
+        PdfDocument document = new PdfDocument(new PdfWriter(filename));
+        document.setFlushUnusedObjects(true);
+        List<PdfIndirectReference> flushedReferences = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            PdfDictionary dictionary = new PdfDictionary();
+            dictionary.put(PdfName.Count, new PdfNumber(i));
+            dictionary.makeIndirect(document);
+            flushedReferences.add(dictionary.getIndirectReference());
+            dictionary.flush();
+        }
+        PdfXrefTable xref = document.getXref();
+        for (PdfIndirectReference reference : flushedReferences) {
+            Assert.assertNull(xref.getIfCreated(reference.getObjNumber()));
+        }
+        Assert.assertEquals(xref.size(), document.listIndirectReferences().size());
+        Assert.assertTrue(document.listIndirectReferences().contains(flushedReferences.get(0)));
+        for (PdfIndirectReference reference : flushedReferences) {
+            Assert.assertNull(xref.getIfCreated(reference.getObjNumber()));
+            Assert.assertTrue(xref.isFreeOrFlushed(reference.getObjNumber()));
+        }
+        document.addNewPage();
+        document.close();
+
+        document = new PdfDocument(new PdfReader(filename));
+        for (int i = 0; i < flushedReferences.size(); i++) {
+            PdfDictionary dictionary = (PdfDictionary) document.getPdfObject(flushedReferences.get(i).getObjNumber());
+            Assert.assertEquals(i, dictionary.getAsNumber(PdfName.Count).intValue());
+        }
+        document.close();
+    }
+
+    @Test
+    public void smartModeCopyTest() throws IOException {
+        String srcFile = destinationFolder + "smartModeCopySource.pdf";
+        PdfDocument src = new PdfDocument(new PdfWriter(srcFile));
+        PdfFormXObject form = new PdfFormXObject(new Rectangle(100, 100));
+        new PdfCanvas(form, src).rectangle(10, 10, 80, 80).fill();
+        for (int i = 0; i < 2; i++) {
+            new PdfCanvas(src.addNewPage())
+                    .addXObject(form, 0, 0)
+                    .beginText()
+                    .setFontAndSize(PdfFontFactory.createFont(FontConstants.HELVETICA), 16)
+                    .showText("Page " + (i + 1))
+                    .endText();
+        }
+        src.close();
+
+        String filename = destinationFolder + "smartModeCopy.pdf";
+        PdfDocument document = new PdfDocument(new PdfWriter(filename, new WriterProperties().useSmartMode()));
+        for (int i = 0; i < 2; i++) {
+            PdfDocument srcCopy = new PdfDocument(new PdfReader(srcFile));
+            srcCopy.copyPagesTo(1, 2, document);
+            srcCopy.close();
+        }
+        document.close();
+
+        document = new PdfDocument(new PdfReader(filename));
+        Assert.assertEquals(4, document.getNumberOfPages());
+        PdfResources resources = document.getPage(1).getResources();
+        int formRef = resources.getResource(PdfName.XObject).values(true).iterator().next().getIndirectReference().getObjNumber();
+        int fontRef = resources.getResource(PdfName.Font).values(true).iterator().next().getIndirectReference().getObjNumber();
+        for (int i = 2; i <= 4; i++) {
+            resources = document.getPage(i).getResources();
+            Assert.assertEquals(formRef, resources.getResource(PdfName.XObject).values(true).iterator().next().getIndirectReference().getObjNumber());
+            Assert.assertEquals(fontRef, resources.getResource(PdfName.Font).values(true).iterator().next().getIndirectReference().getObjNumber());
+        }
+        // equal content streams are shared as well, different ones are not
+        Assert.assertEquals(document.getPage(1).getFirstContentStream().getIndirectReference().getObjNumber(),
+                document.getPage(3).getFirstContentStream().getIndirectReference().getObjNumber());
+        Assert.assertNotEquals(document.getPage(1).getFirstContentStream().getIndirectReference().getObjNumber(),
+                document.getPage(2).getFirstContentStream().getIndirectReference().getObjNumber());
+        document.close();
+    }
+
+    @Test
+    public void smartModeNotDigestibleStreamTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfStream first = (PdfStream) new PdfStream(document, new ByteArrayInputStream(new byte[] {1})).makeIndirect(document);
+        PdfStream second = (PdfStream) new PdfStream(document, new ByteArrayInputStream(new byte[] {2})).makeIndirect(document);
+        PdfDictionary parent = (PdfDictionary) new PdfDictionary().makeIndirect(document);
+        parent.put(PdfName.Contents, first);
+        PdfStream readable = (PdfStream) new PdfStream(new byte[] {1}).makeIndirect(document);
+
+        // the streams which content cannot be read are never merged, neither are the objects referring to them
+        PdfObjectDigester digester = new PdfObjectDigester();
+        Assert.assertNull(digester.digest(first));
+        Assert.assertNull(digester.digest(second));
+        Assert.assertNull(digester.digest(parent));
+        Assert.assertNotNull(digester.digest(readable));
+        document.addNewPage();
+        document.close();
+    }
+
+    @Test
+    public void metricsListenerTest() throws IOException {
+        MetricsAccumulator writingMetrics = new MetricsAccumulator();
+        String srcFile = destinationFolder + "metricsListenerSource.pdf";
+        PdfDocument src = new PdfDocument(new PdfWriter(srcFile, new WriterProperties().setMetricsListener(writingMetrics)));
+        for (int i = 0; i < 3; i++) {
+            new PdfCanvas(src.addNewPage())
+                    .beginText()
+                    .setFontAndSize(PdfFontFactory.createFont(FontConstants.HELVETICA), 16)
+                    .showText("Hello World!")
+                    .endText();
+        }
+        src.close();
+
+        Assert.assertEquals(3, writingMetrics.get(Metric.FONTS_FLUSHED));
+        Assert.assertTrue(writingMetrics.get(Metric.OBJECTS_WRITTEN) >= 3 * 3 + 3);
+        Assert.assertTrue(writingMetrics.get(Metric.STREAM_BYTES_TO_COMPRESS) > 0);
+        Assert.assertTrue(writingMetrics.get(Metric.STREAM_BYTES_COMPRESSED) > 0);
+        Assert.assertTrue(writingMetrics.get(Metric.CLOSING_TIME) >= writingMetrics.get(Metric.XREF_WRITING_TIME)
+                + writingMetrics.get(Metric.PAGES_FLUSHING_TIME));
+        Assert.assertEquals(0, writingMetrics.get(Metric.OBJECTS_READ));
+
+        MetricsAccumulator readingMetrics = new MetricsAccumulator();
+        writingMetrics.reset();
+        PdfDocument document = new PdfDocument(new PdfWriter(destinationFolder + "metricsListener.pdf",
+                new WriterProperties().useSmartMode().setMetricsListener(writingMetrics)));
+        PdfDocument srcCopy = new PdfDocument(new PdfReader(srcFile, new ReaderProperties().setMetricsListener(readingMetrics)));
+        int contentLength = 0;
+        for (int i = 1; i <= 3; i++) {
+            contentLength += srcCopy.getPage(i).getContentBytes().length;
+        }
+        srcCopy.copyPagesTo(1, 3, document);
+        srcCopy.close();
+        document.close();
+
+        Assert.assertEquals(3, readingMetrics.get(Metric.STREAMS_DECODED));
+        Assert.assertEquals(contentLength, readingMetrics.get(Metric.STREAM_BYTES_DECODED));
+        Assert.assertTrue(readingMetrics.get(Metric.STREAM_BYTES_ENCODED) > 0);
+        Assert.assertTrue(readingMetrics.get(Metric.OBJECTS_READ) > 3);
+        Assert.assertTrue(readingMetrics.get(Metric.XREF_READING_TIME) > 0);
+        // the fonts and the equal content streams of the pages are shared
+        Assert.assertTrue(writingMetrics.get(Metric.SMART_MODE_DUPLICATES) >= 4);
+    }
 }
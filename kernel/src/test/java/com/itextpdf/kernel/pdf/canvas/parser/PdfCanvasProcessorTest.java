@@ -8,9 +8,13 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.geom.Subpath;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfResources;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
@@ -18,8 +22,12 @@ import com.itextpdf.test.annotations.type.IntegrationTest;
 import com.itextpdf.test.ExtendedITextTest;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
@@ -98,4 +106,66 @@ public class PdfCanvasProcessorTest extends ExtendedITextTest {
         }
     }
 
+    @Test
+    public void numericOperandsTest() {
+        byte[] content = ("q 1 0 0 1 --5 -.5 cm 2.50 w 0 0 10 20 re 1 0 0 rg f Q\n" +
+                "% comment 1 2 3\n" +
+                "0.5 g 1 2 m 3 4 l 5 6 7 8 9 10 c 0.000001234 100. l S\n" +
+                "5. 0 +3 .25 re 1 -0 0 0 k --2.5 0 l B").getBytes();
+        PathEventsListener listener = new PathEventsListener();
+        new PdfCanvasProcessor(listener).processContent(content, new PdfResources());
+
+        PathEventsListener cmpListener = new PathEventsListener();
+        // operands are passed as PdfObjects to the overridden invokeOperator
+        new PdfCanvasProcessor(cmpListener) {
+            @Override
+            protected void invokeOperator(PdfLiteral operator, List<PdfObject> operands) {
+                super.invokeOperator(operator, operands);
+            }
+        }.processContent(content, new PdfResources());
+
+        Assert.assertEquals(3, listener.paths.size());
+        Assert.assertEquals(cmpListener.paths, listener.paths);
+        Assert.assertTrue(listener.paths.get(0).startsWith("1.0\t0.0\t0.0\n0.0\t1.0\t0.0\n0.0\t-0.5\t1.0;2.5;[1.0, 0.0, 0.0]"));
+        Assert.assertTrue(listener.paths.get(2).endsWith("Point: [x=5,y=0]-Point: [x=-2.5,y=0]"));
+    }
+
+    @Test
+    public void customOperatorOperandsTest() {
+        final List<String> operands = new ArrayList<>();
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(new PathEventsListener());
+        processor.registerContentOperator("re", new IContentOperator() {
+            @Override
+            public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> ops) {
+                for (PdfObject operand : ops) {
+                    operands.add(operand.toString());
+                }
+            }
+        });
+        processor.processContent("--5 -.5 5. +3 re".getBytes(), new PdfResources());
+        Assert.assertEquals(Arrays.asList("0", "-.5", "5.", "+3", "re"), operands);
+    }
+
+    private static class PathEventsListener implements IEventListener {
+        private List<String> paths = new ArrayList<>();
+
+        @Override
+        public void eventOccurred(IEventData data, EventType type) {
+            if (type == EventType.RENDER_PATH) {
+                PathRenderInfo renderInfo = (PathRenderInfo) data;
+                StringBuilder path = new StringBuilder();
+                path.append(renderInfo.getCtm()).append(';').append(renderInfo.getLineWidth()).append(';')
+                        .append(Arrays.toString(renderInfo.getFillColor().getColorValue())).append(';');
+                for (Subpath subpath : renderInfo.getPath().getSubpaths()) {
+                    path.append(subpath.getStartPoint()).append('-').append(subpath.getLastPoint());
+                }
+                paths.add(path.toString());
+            }
+        }
+
+        @Override
+        public Set<EventType> getSupportedEvents() {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,105 @@
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.io.font.FontConstants;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.ReaderProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Category(IntegrationTest.class)
+public class PdfDocumentTextExtractorTest extends ExtendedITextTest {
+
+    private static final String fontsFolder = "./src/test/resources/com/itextpdf/kernel/pdf/fonts/";
+    private static final String destinationFolder = "./target/test/com/itextpdf/kernel/parser/PdfDocumentTextExtractorTest/";
+
+    private static final int PAGES_COUNT = 50;
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @BeforeClass
+    public static void beforeClass() throws IOException {
+        createDestinationFolder(destinationFolder);
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(destinationFolder + "textDocument.pdf"));
+        PdfFont helvetica = PdfFontFactory.createFont(FontConstants.HELVETICA);
+        PdfFont notoSerif = PdfFontFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf", PdfEncodings.IDENTITY_H);
+        for (int i = 1; i <= PAGES_COUNT; i++) {
+            PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+            canvas.beginText().setFontAndSize(helvetica, 12).moveText(36, 750).showText("Page " + i).endText();
+            canvas.beginText().setFontAndSize(notoSerif, 12).moveText(36, 700).showText("Text of the page " + i).endText();
+            canvas.release();
+        }
+        pdfDocument.close();
+    }
+
+    @Test
+    public void extractTextConcurrentlyTest() throws IOException {
+        List<String> expectedTexts = new ArrayList<>();
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(destinationFolder + "textDocument.pdf"));
+        for (int i = 1; i <= PAGES_COUNT; i++) {
+            expectedTexts.add(PdfTextExtractor.getTextFromPage(pdfDocument.getPage(i)));
+        }
+        pdfDocument.close();
+
+        final List<Integer> pageNumbers = new ArrayList<>();
+        final List<String> texts = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        pdfDocument = new PdfDocument(new PdfReader(destinationFolder + "textDocument.pdf", new ReaderProperties().useConcurrentReading()));
+        new PdfDocumentTextExtractor(pdfDocument)
+                .setExecutor(executor)
+                .setMaxPagesInProgress(8)
+                .extractText(new PdfDocumentTextExtractor.IPageTextListener() {
+                    @Override
+                    public void pageTextExtracted(int pageNumber, String text) {
+                        pageNumbers.add(pageNumber);
+                        texts.add(text);
+                    }
+                });
+        executor.shutdown();
+        pdfDocument.close();
+
+        for (int i = 1; i <= PAGES_COUNT; i++) {
+            Assert.assertEquals(i, (int) pageNumbers.get(i - 1));
+            Assert.assertEquals("Page " + i + "\nText of the page " + i, expectedTexts.get(i - 1));
+        }
+        Assert.assertEquals(expectedTexts, texts);
+    }
+
+    @Test
+    public void extractTextConcurrentlyWithoutConcurrentReadingTest() throws IOException {
+        junitExpectedException.expect(PdfException.class);
+        junitExpectedException.expectMessage(PdfException.DocumentIsNotOpenedInConcurrentReadingMode);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(destinationFolder + "textDocument.pdf"));
+        try {
+            new PdfDocumentTextExtractor(pdfDocument).setExecutor(executor).extractText(new PdfDocumentTextExtractor.IPageTextListener() {
+                @Override
+                public void pageTextExtracted(int pageNumber, String text) {
+                }
+            });
+        } finally {
+            executor.shutdown();
+            pdfDocument.close();
+        }
+    }
+}
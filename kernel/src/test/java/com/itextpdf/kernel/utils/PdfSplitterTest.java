@@ -14,6 +14,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -99,6 +101,94 @@ public class PdfSplitterTest extends ExtendedITextTest{
         }
     }
 
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.SOURCE_DOCUMENT_HAS_ACROFORM_DICTIONARY, count = 3)
+    })
+    public void splitDocumentConcurrentlyTest() throws IOException, InterruptedException {
+        String inputFileName =  sourceFolder + "iphone_user_guide.pdf";
+        PdfDocument inputPdfDoc = new PdfDocument(new PdfReader(inputFileName));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            PdfSplitter splitter = new PdfSplitter(inputPdfDoc) {
+                @Override
+                protected PdfWriter getNextPdfWriter(PageRange documentPageRange) {
+                    // the writers are requested on the executor threads, not necessarily in the order of the ranges
+                    int partNumber = (int) documentPageRange.getAllPages().get(0) / 60 + 1;
+                    try {
+                        return new PdfWriter(destinationFolder + "splitDocumentConcurrently_" + String.valueOf(partNumber) + ".pdf");
+                    } catch (FileNotFoundException e) {
+                        throw new RuntimeException();
+                    }
+                }
+            };
+            splitter.setSplittingExecutor(executor);
+            splitter.setMaxRangesInProgress(2);
+            splitter.splitByPageCount(60, new PdfSplitter.IDocumentReadyListener() {
+                @Override
+                public void documentReady(PdfDocument pdfDocument, PageRange pageRange) {
+                    if (new PageRange("61-120").equals(pageRange)) {
+                        pdfDocument.getDocumentInfo().setAuthor("Modified Author");
+                    }
+
+                    pdfDocument.close();
+                }
+            });
+        } finally {
+            executor.shutdown();
+        }
+        inputPdfDoc.close();
+
+        // the result is the same as in splitDocumentTest02
+        for (int i = 1; i <= 3; i++) {
+            Assert.assertNull(new CompareTool().compareByContent(destinationFolder + "splitDocumentConcurrently_" + String.valueOf(i) + ".pdf",
+                    sourceFolder + "cmp/" + "splitDocument2_" + String.valueOf(i) + ".pdf", destinationFolder, "diff_"));
+        }
+    }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.SOURCE_DOCUMENT_HAS_ACROFORM_DICTIONARY, count = 2)
+    })
+    public void splitDocumentConcurrentlyFailureTest() throws IOException {
+        String inputFileName =  sourceFolder + "iphone_user_guide.pdf";
+        PdfDocument inputPdfDoc = new PdfDocument(new PdfReader(inputFileName));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            PdfSplitter splitter = new PdfSplitter(inputPdfDoc) {
+                @Override
+                protected PdfWriter getNextPdfWriter(PageRange documentPageRange) {
+                    int partNumber = (int) documentPageRange.getAllPages().get(0) / 60 + 1;
+                    if (partNumber == 3) {
+                        throw new IllegalStateException("Cannot create the third document");
+                    }
+                    try {
+                        return new PdfWriter(destinationFolder + "splitDocumentConcurrentlyFailure_" + String.valueOf(partNumber) + ".pdf");
+                    } catch (FileNotFoundException e) {
+                        throw new RuntimeException();
+                    }
+                }
+            };
+            splitter.setSplittingExecutor(executor);
+            splitter.setMaxRangesInProgress(3);
+            splitter.splitByPageCount(60);
+            Assert.fail("The failure of the third document is expected");
+        } catch (IllegalStateException expected) {
+        } finally {
+            executor.shutdown();
+        }
+        inputPdfDoc.close();
+
+        // the documents which have been split before the failure are closed
+        for (int i = 1; i <= 2; i++) {
+            PdfDocument splitDocument = new PdfDocument(new PdfReader(destinationFolder + "splitDocumentConcurrentlyFailure_" + String.valueOf(i) + ".pdf"));
+            Assert.assertEquals(60, splitDocument.getNumberOfPages());
+            splitDocument.close();
+        }
+    }
+
     @Test
     @LogMessages(messages = {
             @LogMessage(messageTemplate = LogMessageConstant.SOURCE_DOCUMENT_HAS_ACROFORM_DICTIONARY, count = 2)